@@ -1,6 +1,16 @@
 package org.openapitools.vertxweb.server.model;
 
 import java.util.Objects;
+import java.io.IOException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.openapitools.vertxweb.server.model.User;
@@ -117,4 +127,97 @@ public class Article   {
     }
     return o.toString().replace("\n", "\n    ");
   }
+
+  /**
+   * Writes Article without reflection, with the names of the properties encoded once.
+   */
+  public static final class JsonWriter extends StdSerializer<Article> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonWriter INSTANCE = new JsonWriter();
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString CONTENT = new SerializedString("content");
+    private static final SerializedString AUTHOR = new SerializedString("author");
+    private static final SerializedString VERSION = new SerializedString("version");
+
+    private JsonWriter() {
+      super(Article.class);
+    }
+
+    @Override
+    public void serialize(Article value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+      generator.writeStartObject();
+      if (value.id != null) {
+        generator.writeFieldName(ID);
+        generator.writeString(value.id);
+      }
+      if (value.title != null) {
+        generator.writeFieldName(TITLE);
+        generator.writeString(value.title);
+      }
+      if (value.content != null) {
+        generator.writeFieldName(CONTENT);
+        generator.writeString(value.content);
+      }
+      if (value.author != null) {
+        generator.writeFieldName(AUTHOR);
+        User.JsonWriter.INSTANCE.serialize(value.author, generator, provider);
+      }
+      if (value.version != null) {
+        generator.writeFieldName(VERSION);
+        generator.writeNumber(value.version);
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  /**
+   * Reads Article without reflection. Unknown properties are rejected, like with the object mapper of Vert.x.
+   */
+  public static final class JsonReader extends StdDeserializer<Article> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonReader INSTANCE = new JsonReader();
+
+    private JsonReader() {
+      super(Article.class);
+    }
+
+    @Override
+    public Article deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+      if (!parser.isExpectedStartObjectToken()) {
+        throw JsonMappingException.from(parser, "Expected an object for Article");
+      }
+      Article value = new Article();
+      for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+        JsonToken token = parser.nextToken();
+        switch (name) {
+          case "id":
+            value.id = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          case "title":
+            value.title = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          case "content":
+            value.content = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          case "author":
+            value.author = token == JsonToken.VALUE_NULL ? null : User.JsonReader.INSTANCE.deserialize(parser, context);
+            break;
+          case "version":
+            value.version = token == JsonToken.VALUE_NULL ? null : parser.getIntValue();
+            break;
+          default:
+            throw JsonMappingException.from(parser, "Unknown property " + name + " of Article");
+        }
+      }
+      return value;
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+      if (!parser.currentToken().isScalarValue()) {
+        throw JsonMappingException.from(parser, "Expected a string");
+      }
+      return parser.getText();
+    }
+  }
 }
@@ -0,0 +1,198 @@
+package org.openapitools.vertxweb.server.model;
+
+import java.util.Objects;
+import java.io.IOException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+import org.openapitools.vertxweb.server.model.ArticleFormData;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ArticleBatch   {
+  
+  private List<ArticleFormData> insert = new ArrayList<>();
+  private List<ArticleFormData> update = new ArrayList<>();
+
+  public ArticleBatch () {
+
+  }
+
+  public ArticleBatch (List<ArticleFormData> insert, List<ArticleFormData> update) {
+    this.insert = insert;
+    this.update = update;
+  }
+
+    
+  @JsonProperty("insert")
+  public List<ArticleFormData> getInsert() {
+    return insert;
+  }
+  public void setInsert(List<ArticleFormData> insert) {
+    this.insert = insert;
+  }
+
+    
+  @JsonProperty("update")
+  public List<ArticleFormData> getUpdate() {
+    return update;
+  }
+  public void setUpdate(List<ArticleFormData> update) {
+    this.update = update;
+  }
+
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ArticleBatch articleBatch = (ArticleBatch) o;
+    return Objects.equals(insert, articleBatch.insert) &&
+        Objects.equals(update, articleBatch.update);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(insert, update);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("class ArticleBatch {\n");
+    
+    sb.append("    insert: ").append(toIndentedString(insert)).append("\n");
+    sb.append("    update: ").append(toIndentedString(update)).append("\n");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Convert the given object to string with each line indented by 4 spaces
+   * (except the first line).
+   */
+  private String toIndentedString(Object o) {
+    if (o == null) {
+      return "null";
+    }
+    return o.toString().replace("\n", "\n    ");
+  }
+
+  /**
+   * Writes ArticleBatch without reflection, with the names of the properties encoded once.
+   */
+  public static final class JsonWriter extends StdSerializer<ArticleBatch> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonWriter INSTANCE = new JsonWriter();
+    private static final SerializedString INSERT = new SerializedString("insert");
+    private static final SerializedString UPDATE = new SerializedString("update");
+
+    private JsonWriter() {
+      super(ArticleBatch.class);
+    }
+
+    @Override
+    public void serialize(ArticleBatch value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+      generator.writeStartObject();
+      if (value.insert != null) {
+        generator.writeFieldName(INSERT);
+        generator.writeStartArray();
+        for (ArticleFormData item : value.insert) {
+          if (item == null) {
+            generator.writeNull();
+          } else {
+            ArticleFormData.JsonWriter.INSTANCE.serialize(item, generator, provider);
+          }
+        }
+        generator.writeEndArray();
+      }
+      if (value.update != null) {
+        generator.writeFieldName(UPDATE);
+        generator.writeStartArray();
+        for (ArticleFormData item : value.update) {
+          if (item == null) {
+            generator.writeNull();
+          } else {
+            ArticleFormData.JsonWriter.INSTANCE.serialize(item, generator, provider);
+          }
+        }
+        generator.writeEndArray();
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  /**
+   * Reads ArticleBatch without reflection. Unknown properties are rejected, like with the object mapper of Vert.x.
+   */
+  public static final class JsonReader extends StdDeserializer<ArticleBatch> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonReader INSTANCE = new JsonReader();
+
+    private JsonReader() {
+      super(ArticleBatch.class);
+    }
+
+    @Override
+    public ArticleBatch deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+      if (!parser.isExpectedStartObjectToken()) {
+        throw JsonMappingException.from(parser, "Expected an object for ArticleBatch");
+      }
+      ArticleBatch value = new ArticleBatch();
+      for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+        JsonToken token = parser.nextToken();
+        switch (name) {
+          case "insert":
+            if (token == JsonToken.VALUE_NULL) {
+              value.insert = null;
+              break;
+            }
+            if (token != JsonToken.START_ARRAY) {
+              throw JsonMappingException.from(parser, "Expected an array for insert");
+            }
+            value.insert = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+              value.insert.add(parser.currentToken() == JsonToken.VALUE_NULL ? null : ArticleFormData.JsonReader.INSTANCE.deserialize(parser, context));
+            }
+            break;
+          case "update":
+            if (token == JsonToken.VALUE_NULL) {
+              value.update = null;
+              break;
+            }
+            if (token != JsonToken.START_ARRAY) {
+              throw JsonMappingException.from(parser, "Expected an array for update");
+            }
+            value.update = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+              value.update.add(parser.currentToken() == JsonToken.VALUE_NULL ? null : ArticleFormData.JsonReader.INSTANCE.deserialize(parser, context));
+            }
+            break;
+          default:
+            throw JsonMappingException.from(parser, "Unknown property " + name + " of ArticleBatch");
+        }
+      }
+      return value;
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+      if (!parser.currentToken().isScalarValue()) {
+        throw JsonMappingException.from(parser, "Expected a string");
+      }
+      return parser.getText();
+    }
+  }
+}
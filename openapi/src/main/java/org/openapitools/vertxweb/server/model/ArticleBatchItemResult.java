@@ -0,0 +1,180 @@
+package org.openapitools.vertxweb.server.model;
+
+import java.util.Objects;
+import java.io.IOException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ArticleBatchItemResult   {
+  
+  private String id;
+  private String status;
+  private Integer version;
+
+  public ArticleBatchItemResult () {
+
+  }
+
+  public ArticleBatchItemResult (String id, String status, Integer version) {
+    this.id = id;
+    this.status = status;
+    this.version = version;
+  }
+
+    
+  @JsonProperty("id")
+  public String getId() {
+    return id;
+  }
+  public void setId(String id) {
+    this.id = id;
+  }
+
+    
+  @JsonProperty("status")
+  public String getStatus() {
+    return status;
+  }
+  public void setStatus(String status) {
+    this.status = status;
+  }
+
+    
+  @JsonProperty("version")
+  public Integer getVersion() {
+    return version;
+  }
+  public void setVersion(Integer version) {
+    this.version = version;
+  }
+
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ArticleBatchItemResult articleBatchItemResult = (ArticleBatchItemResult) o;
+    return Objects.equals(id, articleBatchItemResult.id) &&
+        Objects.equals(status, articleBatchItemResult.status) &&
+        Objects.equals(version, articleBatchItemResult.version);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id, status, version);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("class ArticleBatchItemResult {\n");
+    
+    sb.append("    id: ").append(toIndentedString(id)).append("\n");
+    sb.append("    status: ").append(toIndentedString(status)).append("\n");
+    sb.append("    version: ").append(toIndentedString(version)).append("\n");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Convert the given object to string with each line indented by 4 spaces
+   * (except the first line).
+   */
+  private String toIndentedString(Object o) {
+    if (o == null) {
+      return "null";
+    }
+    return o.toString().replace("\n", "\n    ");
+  }
+
+  /**
+   * Writes ArticleBatchItemResult without reflection, with the names of the properties encoded once.
+   */
+  public static final class JsonWriter extends StdSerializer<ArticleBatchItemResult> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonWriter INSTANCE = new JsonWriter();
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString VERSION = new SerializedString("version");
+
+    private JsonWriter() {
+      super(ArticleBatchItemResult.class);
+    }
+
+    @Override
+    public void serialize(ArticleBatchItemResult value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+      generator.writeStartObject();
+      if (value.id != null) {
+        generator.writeFieldName(ID);
+        generator.writeString(value.id);
+      }
+      if (value.status != null) {
+        generator.writeFieldName(STATUS);
+        generator.writeString(value.status);
+      }
+      if (value.version != null) {
+        generator.writeFieldName(VERSION);
+        generator.writeNumber(value.version);
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  /**
+   * Reads ArticleBatchItemResult without reflection. Unknown properties are rejected, like with the object mapper of Vert.x.
+   */
+  public static final class JsonReader extends StdDeserializer<ArticleBatchItemResult> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonReader INSTANCE = new JsonReader();
+
+    private JsonReader() {
+      super(ArticleBatchItemResult.class);
+    }
+
+    @Override
+    public ArticleBatchItemResult deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+      if (!parser.isExpectedStartObjectToken()) {
+        throw JsonMappingException.from(parser, "Expected an object for ArticleBatchItemResult");
+      }
+      ArticleBatchItemResult value = new ArticleBatchItemResult();
+      for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+        JsonToken token = parser.nextToken();
+        switch (name) {
+          case "id":
+            value.id = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          case "status":
+            value.status = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          case "version":
+            value.version = token == JsonToken.VALUE_NULL ? null : parser.getIntValue();
+            break;
+          default:
+            throw JsonMappingException.from(parser, "Unknown property " + name + " of ArticleBatchItemResult");
+        }
+      }
+      return value;
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+      if (!parser.currentToken().isScalarValue()) {
+        throw JsonMappingException.from(parser, "Expected a string");
+      }
+      return parser.getText();
+    }
+  }
+}
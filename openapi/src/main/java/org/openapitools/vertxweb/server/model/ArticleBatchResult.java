@@ -0,0 +1,198 @@
+package org.openapitools.vertxweb.server.model;
+
+import java.util.Objects;
+import java.io.IOException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+import org.openapitools.vertxweb.server.model.ArticleBatchItemResult;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ArticleBatchResult   {
+  
+  private List<ArticleBatchItemResult> inserted = new ArrayList<>();
+  private List<ArticleBatchItemResult> updated = new ArrayList<>();
+
+  public ArticleBatchResult () {
+
+  }
+
+  public ArticleBatchResult (List<ArticleBatchItemResult> inserted, List<ArticleBatchItemResult> updated) {
+    this.inserted = inserted;
+    this.updated = updated;
+  }
+
+    
+  @JsonProperty("inserted")
+  public List<ArticleBatchItemResult> getInserted() {
+    return inserted;
+  }
+  public void setInserted(List<ArticleBatchItemResult> inserted) {
+    this.inserted = inserted;
+  }
+
+    
+  @JsonProperty("updated")
+  public List<ArticleBatchItemResult> getUpdated() {
+    return updated;
+  }
+  public void setUpdated(List<ArticleBatchItemResult> updated) {
+    this.updated = updated;
+  }
+
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ArticleBatchResult articleBatchResult = (ArticleBatchResult) o;
+    return Objects.equals(inserted, articleBatchResult.inserted) &&
+        Objects.equals(updated, articleBatchResult.updated);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(inserted, updated);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("class ArticleBatchResult {\n");
+    
+    sb.append("    inserted: ").append(toIndentedString(inserted)).append("\n");
+    sb.append("    updated: ").append(toIndentedString(updated)).append("\n");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Convert the given object to string with each line indented by 4 spaces
+   * (except the first line).
+   */
+  private String toIndentedString(Object o) {
+    if (o == null) {
+      return "null";
+    }
+    return o.toString().replace("\n", "\n    ");
+  }
+
+  /**
+   * Writes ArticleBatchResult without reflection, with the names of the properties encoded once.
+   */
+  public static final class JsonWriter extends StdSerializer<ArticleBatchResult> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonWriter INSTANCE = new JsonWriter();
+    private static final SerializedString INSERTED = new SerializedString("inserted");
+    private static final SerializedString UPDATED = new SerializedString("updated");
+
+    private JsonWriter() {
+      super(ArticleBatchResult.class);
+    }
+
+    @Override
+    public void serialize(ArticleBatchResult value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+      generator.writeStartObject();
+      if (value.inserted != null) {
+        generator.writeFieldName(INSERTED);
+        generator.writeStartArray();
+        for (ArticleBatchItemResult item : value.inserted) {
+          if (item == null) {
+            generator.writeNull();
+          } else {
+            ArticleBatchItemResult.JsonWriter.INSTANCE.serialize(item, generator, provider);
+          }
+        }
+        generator.writeEndArray();
+      }
+      if (value.updated != null) {
+        generator.writeFieldName(UPDATED);
+        generator.writeStartArray();
+        for (ArticleBatchItemResult item : value.updated) {
+          if (item == null) {
+            generator.writeNull();
+          } else {
+            ArticleBatchItemResult.JsonWriter.INSTANCE.serialize(item, generator, provider);
+          }
+        }
+        generator.writeEndArray();
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  /**
+   * Reads ArticleBatchResult without reflection. Unknown properties are rejected, like with the object mapper of Vert.x.
+   */
+  public static final class JsonReader extends StdDeserializer<ArticleBatchResult> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonReader INSTANCE = new JsonReader();
+
+    private JsonReader() {
+      super(ArticleBatchResult.class);
+    }
+
+    @Override
+    public ArticleBatchResult deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+      if (!parser.isExpectedStartObjectToken()) {
+        throw JsonMappingException.from(parser, "Expected an object for ArticleBatchResult");
+      }
+      ArticleBatchResult value = new ArticleBatchResult();
+      for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+        JsonToken token = parser.nextToken();
+        switch (name) {
+          case "inserted":
+            if (token == JsonToken.VALUE_NULL) {
+              value.inserted = null;
+              break;
+            }
+            if (token != JsonToken.START_ARRAY) {
+              throw JsonMappingException.from(parser, "Expected an array for inserted");
+            }
+            value.inserted = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+              value.inserted.add(parser.currentToken() == JsonToken.VALUE_NULL ? null : ArticleBatchItemResult.JsonReader.INSTANCE.deserialize(parser, context));
+            }
+            break;
+          case "updated":
+            if (token == JsonToken.VALUE_NULL) {
+              value.updated = null;
+              break;
+            }
+            if (token != JsonToken.START_ARRAY) {
+              throw JsonMappingException.from(parser, "Expected an array for updated");
+            }
+            value.updated = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+              value.updated.add(parser.currentToken() == JsonToken.VALUE_NULL ? null : ArticleBatchItemResult.JsonReader.INSTANCE.deserialize(parser, context));
+            }
+            break;
+          default:
+            throw JsonMappingException.from(parser, "Unknown property " + name + " of ArticleBatchResult");
+        }
+      }
+      return value;
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+      if (!parser.currentToken().isScalarValue()) {
+        throw JsonMappingException.from(parser, "Expected a string");
+      }
+      return parser.getText();
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package org.openapitools.vertxweb.server.model;
+
+import java.util.Objects;
+import java.io.IOException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.openapitools.vertxweb.server.model.Article;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ArticleByIdResult   {
+  
+  private String id;
+  private Boolean found;
+  private Article article;
+
+  public ArticleByIdResult () {
+
+  }
+
+  public ArticleByIdResult (String id, Boolean found, Article article) {
+    this.id = id;
+    this.found = found;
+    this.article = article;
+  }
+
+    
+  @JsonProperty("id")
+  public String getId() {
+    return id;
+  }
+  public void setId(String id) {
+    this.id = id;
+  }
+
+    
+  @JsonProperty("found")
+  public Boolean getFound() {
+    return found;
+  }
+  public void setFound(Boolean found) {
+    this.found = found;
+  }
+
+    
+  @JsonProperty("article")
+  public Article getArticle() {
+    return article;
+  }
+  public void setArticle(Article article) {
+    this.article = article;
+  }
+
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ArticleByIdResult articleByIdResult = (ArticleByIdResult) o;
+    return Objects.equals(id, articleByIdResult.id) &&
+        Objects.equals(found, articleByIdResult.found) &&
+        Objects.equals(article, articleByIdResult.article);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id, found, article);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("class ArticleByIdResult {\n");
+    
+    sb.append("    id: ").append(toIndentedString(id)).append("\n");
+    sb.append("    found: ").append(toIndentedString(found)).append("\n");
+    sb.append("    article: ").append(toIndentedString(article)).append("\n");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Convert the given object to string with each line indented by 4 spaces
+   * (except the first line).
+   */
+  private String toIndentedString(Object o) {
+    if (o == null) {
+      return "null";
+    }
+    return o.toString().replace("\n", "\n    ");
+  }
+
+  /**
+   * Writes ArticleByIdResult without reflection, with the names of the properties encoded once.
+   */
+  public static final class JsonWriter extends StdSerializer<ArticleByIdResult> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonWriter INSTANCE = new JsonWriter();
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString FOUND = new SerializedString("found");
+    private static final SerializedString ARTICLE = new SerializedString("article");
+
+    private JsonWriter() {
+      super(ArticleByIdResult.class);
+    }
+
+    @Override
+    public void serialize(ArticleByIdResult value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+      generator.writeStartObject();
+      if (value.id != null) {
+        generator.writeFieldName(ID);
+        generator.writeString(value.id);
+      }
+      if (value.found != null) {
+        generator.writeFieldName(FOUND);
+        generator.writeBoolean(value.found);
+      }
+      if (value.article != null) {
+        generator.writeFieldName(ARTICLE);
+        Article.JsonWriter.INSTANCE.serialize(value.article, generator, provider);
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  /**
+   * Reads ArticleByIdResult without reflection. Unknown properties are rejected, like with the object mapper of Vert.x.
+   */
+  public static final class JsonReader extends StdDeserializer<ArticleByIdResult> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonReader INSTANCE = new JsonReader();
+
+    private JsonReader() {
+      super(ArticleByIdResult.class);
+    }
+
+    @Override
+    public ArticleByIdResult deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+      if (!parser.isExpectedStartObjectToken()) {
+        throw JsonMappingException.from(parser, "Expected an object for ArticleByIdResult");
+      }
+      ArticleByIdResult value = new ArticleByIdResult();
+      for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+        JsonToken token = parser.nextToken();
+        switch (name) {
+          case "id":
+            value.id = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          case "found":
+            value.found = token == JsonToken.VALUE_NULL ? null : parser.getBooleanValue();
+            break;
+          case "article":
+            value.article = token == JsonToken.VALUE_NULL ? null : Article.JsonReader.INSTANCE.deserialize(parser, context);
+            break;
+          default:
+            throw JsonMappingException.from(parser, "Unknown property " + name + " of ArticleByIdResult");
+        }
+      }
+      return value;
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+      if (!parser.currentToken().isScalarValue()) {
+        throw JsonMappingException.from(parser, "Expected a string");
+      }
+      return parser.getText();
+    }
+  }
+}
@@ -1,6 +1,16 @@
 package org.openapitools.vertxweb.server.model;
 
 import java.util.Objects;
+import java.io.IOException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -10,15 +20,17 @@ public class ArticleFormData   {
   private String id;
   private String title;
   private String content;
+  private Integer version;
 
   public ArticleFormData () {
 
   }
 
-  public ArticleFormData (String id, String title, String content) {
+  public ArticleFormData (String id, String title, String content, Integer version) {
     this.id = id;
     this.title = title;
     this.content = content;
+    this.version = version;
   }
 
     
@@ -48,6 +60,15 @@ public class ArticleFormData   {
     this.content = content;
   }
 
+    
+  @JsonProperty("version")
+  public Integer getVersion() {
+    return version;
+  }
+  public void setVersion(Integer version) {
+    this.version = version;
+  }
+
 
   @Override
   public boolean equals(Object o) {
@@ -60,12 +81,13 @@ public class ArticleFormData   {
     ArticleFormData articleFormData = (ArticleFormData) o;
     return Objects.equals(id, articleFormData.id) &&
         Objects.equals(title, articleFormData.title) &&
-        Objects.equals(content, articleFormData.content);
+        Objects.equals(content, articleFormData.content) &&
+        Objects.equals(version, articleFormData.version);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(id, title, content);
+    return Objects.hash(id, title, content, version);
   }
 
   @Override
@@ -76,6 +98,7 @@ public class ArticleFormData   {
     sb.append("    id: ").append(toIndentedString(id)).append("\n");
     sb.append("    title: ").append(toIndentedString(title)).append("\n");
     sb.append("    content: ").append(toIndentedString(content)).append("\n");
+    sb.append("    version: ").append(toIndentedString(version)).append("\n");
     sb.append("}");
     return sb.toString();
   }
@@ -90,4 +113,89 @@ public class ArticleFormData   {
     }
     return o.toString().replace("\n", "\n    ");
   }
+
+  /**
+   * Writes ArticleFormData without reflection, with the names of the properties encoded once.
+   */
+  public static final class JsonWriter extends StdSerializer<ArticleFormData> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonWriter INSTANCE = new JsonWriter();
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString CONTENT = new SerializedString("content");
+    private static final SerializedString VERSION = new SerializedString("version");
+
+    private JsonWriter() {
+      super(ArticleFormData.class);
+    }
+
+    @Override
+    public void serialize(ArticleFormData value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+      generator.writeStartObject();
+      if (value.id != null) {
+        generator.writeFieldName(ID);
+        generator.writeString(value.id);
+      }
+      if (value.title != null) {
+        generator.writeFieldName(TITLE);
+        generator.writeString(value.title);
+      }
+      if (value.content != null) {
+        generator.writeFieldName(CONTENT);
+        generator.writeString(value.content);
+      }
+      if (value.version != null) {
+        generator.writeFieldName(VERSION);
+        generator.writeNumber(value.version);
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  /**
+   * Reads ArticleFormData without reflection. Unknown properties are rejected, like with the object mapper of Vert.x.
+   */
+  public static final class JsonReader extends StdDeserializer<ArticleFormData> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonReader INSTANCE = new JsonReader();
+
+    private JsonReader() {
+      super(ArticleFormData.class);
+    }
+
+    @Override
+    public ArticleFormData deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+      if (!parser.isExpectedStartObjectToken()) {
+        throw JsonMappingException.from(parser, "Expected an object for ArticleFormData");
+      }
+      ArticleFormData value = new ArticleFormData();
+      for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+        JsonToken token = parser.nextToken();
+        switch (name) {
+          case "id":
+            value.id = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          case "title":
+            value.title = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          case "content":
+            value.content = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          case "version":
+            value.version = token == JsonToken.VALUE_NULL ? null : parser.getIntValue();
+            break;
+          default:
+            throw JsonMappingException.from(parser, "Unknown property " + name + " of ArticleFormData");
+        }
+      }
+      return value;
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+      if (!parser.currentToken().isScalarValue()) {
+        throw JsonMappingException.from(parser, "Expected a string");
+      }
+      return parser.getText();
+    }
+  }
 }
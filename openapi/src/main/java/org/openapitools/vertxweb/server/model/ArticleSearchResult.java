@@ -0,0 +1,244 @@
+package org.openapitools.vertxweb.server.model;
+
+import java.util.Objects;
+import java.io.IOException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.openapitools.vertxweb.server.model.User;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ArticleSearchResult   {
+  
+  private String id;
+  private String title;
+  private String snippet;
+  private User author;
+  private Integer version;
+  private Float rank;
+
+  public ArticleSearchResult () {
+
+  }
+
+  public ArticleSearchResult (String id, String title, String snippet, User author, Integer version, Float rank) {
+    this.id = id;
+    this.title = title;
+    this.snippet = snippet;
+    this.author = author;
+    this.version = version;
+    this.rank = rank;
+  }
+
+    
+  @JsonProperty("id")
+  public String getId() {
+    return id;
+  }
+  public void setId(String id) {
+    this.id = id;
+  }
+
+    
+  @JsonProperty("title")
+  public String getTitle() {
+    return title;
+  }
+  public void setTitle(String title) {
+    this.title = title;
+  }
+
+    
+  @JsonProperty("snippet")
+  public String getSnippet() {
+    return snippet;
+  }
+  public void setSnippet(String snippet) {
+    this.snippet = snippet;
+  }
+
+    
+  @JsonProperty("author")
+  public User getAuthor() {
+    return author;
+  }
+  public void setAuthor(User author) {
+    this.author = author;
+  }
+
+    
+  @JsonProperty("version")
+  public Integer getVersion() {
+    return version;
+  }
+  public void setVersion(Integer version) {
+    this.version = version;
+  }
+
+    
+  @JsonProperty("rank")
+  public Float getRank() {
+    return rank;
+  }
+  public void setRank(Float rank) {
+    this.rank = rank;
+  }
+
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ArticleSearchResult articleSearchResult = (ArticleSearchResult) o;
+    return Objects.equals(id, articleSearchResult.id) &&
+        Objects.equals(title, articleSearchResult.title) &&
+        Objects.equals(snippet, articleSearchResult.snippet) &&
+        Objects.equals(author, articleSearchResult.author) &&
+        Objects.equals(version, articleSearchResult.version) &&
+        Objects.equals(rank, articleSearchResult.rank);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id, title, snippet, author, version, rank);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("class ArticleSearchResult {\n");
+    
+    sb.append("    id: ").append(toIndentedString(id)).append("\n");
+    sb.append("    title: ").append(toIndentedString(title)).append("\n");
+    sb.append("    snippet: ").append(toIndentedString(snippet)).append("\n");
+    sb.append("    author: ").append(toIndentedString(author)).append("\n");
+    sb.append("    version: ").append(toIndentedString(version)).append("\n");
+    sb.append("    rank: ").append(toIndentedString(rank)).append("\n");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Convert the given object to string with each line indented by 4 spaces
+   * (except the first line).
+   */
+  private String toIndentedString(Object o) {
+    if (o == null) {
+      return "null";
+    }
+    return o.toString().replace("\n", "\n    ");
+  }
+
+  /**
+   * Writes ArticleSearchResult without reflection, with the names of the properties encoded once.
+   */
+  public static final class JsonWriter extends StdSerializer<ArticleSearchResult> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonWriter INSTANCE = new JsonWriter();
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString SNIPPET = new SerializedString("snippet");
+    private static final SerializedString AUTHOR = new SerializedString("author");
+    private static final SerializedString VERSION = new SerializedString("version");
+    private static final SerializedString RANK = new SerializedString("rank");
+
+    private JsonWriter() {
+      super(ArticleSearchResult.class);
+    }
+
+    @Override
+    public void serialize(ArticleSearchResult value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+      generator.writeStartObject();
+      if (value.id != null) {
+        generator.writeFieldName(ID);
+        generator.writeString(value.id);
+      }
+      if (value.title != null) {
+        generator.writeFieldName(TITLE);
+        generator.writeString(value.title);
+      }
+      if (value.snippet != null) {
+        generator.writeFieldName(SNIPPET);
+        generator.writeString(value.snippet);
+      }
+      if (value.author != null) {
+        generator.writeFieldName(AUTHOR);
+        User.JsonWriter.INSTANCE.serialize(value.author, generator, provider);
+      }
+      if (value.version != null) {
+        generator.writeFieldName(VERSION);
+        generator.writeNumber(value.version);
+      }
+      if (value.rank != null) {
+        generator.writeFieldName(RANK);
+        generator.writeNumber(value.rank);
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  /**
+   * Reads ArticleSearchResult without reflection. Unknown properties are rejected, like with the object mapper of Vert.x.
+   */
+  public static final class JsonReader extends StdDeserializer<ArticleSearchResult> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonReader INSTANCE = new JsonReader();
+
+    private JsonReader() {
+      super(ArticleSearchResult.class);
+    }
+
+    @Override
+    public ArticleSearchResult deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+      if (!parser.isExpectedStartObjectToken()) {
+        throw JsonMappingException.from(parser, "Expected an object for ArticleSearchResult");
+      }
+      ArticleSearchResult value = new ArticleSearchResult();
+      for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+        JsonToken token = parser.nextToken();
+        switch (name) {
+          case "id":
+            value.id = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          case "title":
+            value.title = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          case "snippet":
+            value.snippet = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          case "author":
+            value.author = token == JsonToken.VALUE_NULL ? null : User.JsonReader.INSTANCE.deserialize(parser, context);
+            break;
+          case "version":
+            value.version = token == JsonToken.VALUE_NULL ? null : parser.getIntValue();
+            break;
+          case "rank":
+            value.rank = token == JsonToken.VALUE_NULL ? null : parser.getFloatValue();
+            break;
+          default:
+            throw JsonMappingException.from(parser, "Unknown property " + name + " of ArticleSearchResult");
+        }
+      }
+      return value;
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+      if (!parser.currentToken().isScalarValue()) {
+        throw JsonMappingException.from(parser, "Expected a string");
+      }
+      return parser.getText();
+    }
+  }
+}
@@ -1,6 +1,16 @@
 package org.openapitools.vertxweb.server.model;
 
 import java.util.Objects;
+import java.io.IOException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -77,4 +87,73 @@ public class RegistrationForm   {
     }
     return o.toString().replace("\n", "\n    ");
   }
+
+  /**
+   * Writes RegistrationForm without reflection, with the names of the properties encoded once.
+   */
+  public static final class JsonWriter extends StdSerializer<RegistrationForm> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonWriter INSTANCE = new JsonWriter();
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString PASSWORD = new SerializedString("password");
+
+    private JsonWriter() {
+      super(RegistrationForm.class);
+    }
+
+    @Override
+    public void serialize(RegistrationForm value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+      generator.writeStartObject();
+      if (value.username != null) {
+        generator.writeFieldName(USERNAME);
+        generator.writeString(value.username);
+      }
+      if (value.password != null) {
+        generator.writeFieldName(PASSWORD);
+        generator.writeString(value.password);
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  /**
+   * Reads RegistrationForm without reflection. Unknown properties are rejected, like with the object mapper of Vert.x.
+   */
+  public static final class JsonReader extends StdDeserializer<RegistrationForm> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonReader INSTANCE = new JsonReader();
+
+    private JsonReader() {
+      super(RegistrationForm.class);
+    }
+
+    @Override
+    public RegistrationForm deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+      if (!parser.isExpectedStartObjectToken()) {
+        throw JsonMappingException.from(parser, "Expected an object for RegistrationForm");
+      }
+      RegistrationForm value = new RegistrationForm();
+      for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+        JsonToken token = parser.nextToken();
+        switch (name) {
+          case "username":
+            value.username = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          case "password":
+            value.password = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          default:
+            throw JsonMappingException.from(parser, "Unknown property " + name + " of RegistrationForm");
+        }
+      }
+      return value;
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+      if (!parser.currentToken().isScalarValue()) {
+        throw JsonMappingException.from(parser, "Expected a string");
+      }
+      return parser.getText();
+    }
+  }
 }
@@ -1,6 +1,16 @@
 package org.openapitools.vertxweb.server.model;
 
 import java.util.Objects;
+import java.io.IOException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -64,4 +74,65 @@ public class ServerError   {
     }
     return o.toString().replace("\n", "\n    ");
   }
+
+  /**
+   * Writes ServerError without reflection, with the names of the properties encoded once.
+   */
+  public static final class JsonWriter extends StdSerializer<ServerError> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonWriter INSTANCE = new JsonWriter();
+    private static final SerializedString MESSAGE = new SerializedString("message");
+
+    private JsonWriter() {
+      super(ServerError.class);
+    }
+
+    @Override
+    public void serialize(ServerError value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+      generator.writeStartObject();
+      if (value.message != null) {
+        generator.writeFieldName(MESSAGE);
+        generator.writeString(value.message);
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  /**
+   * Reads ServerError without reflection. Unknown properties are rejected, like with the object mapper of Vert.x.
+   */
+  public static final class JsonReader extends StdDeserializer<ServerError> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonReader INSTANCE = new JsonReader();
+
+    private JsonReader() {
+      super(ServerError.class);
+    }
+
+    @Override
+    public ServerError deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+      if (!parser.isExpectedStartObjectToken()) {
+        throw JsonMappingException.from(parser, "Expected an object for ServerError");
+      }
+      ServerError value = new ServerError();
+      for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+        JsonToken token = parser.nextToken();
+        switch (name) {
+          case "message":
+            value.message = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          default:
+            throw JsonMappingException.from(parser, "Unknown property " + name + " of ServerError");
+        }
+      }
+      return value;
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+      if (!parser.currentToken().isScalarValue()) {
+        throw JsonMappingException.from(parser, "Expected a string");
+      }
+      return parser.getText();
+    }
+  }
 }
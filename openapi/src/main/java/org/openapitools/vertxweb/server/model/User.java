@@ -1,6 +1,16 @@
 package org.openapitools.vertxweb.server.model;
 
 import java.util.Objects;
+import java.io.IOException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -90,4 +100,81 @@ public class User   {
     }
     return o.toString().replace("\n", "\n    ");
   }
+
+  /**
+   * Writes User without reflection, with the names of the properties encoded once.
+   */
+  public static final class JsonWriter extends StdSerializer<User> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonWriter INSTANCE = new JsonWriter();
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString PASSWORD = new SerializedString("password");
+    private static final SerializedString VERSION = new SerializedString("version");
+
+    private JsonWriter() {
+      super(User.class);
+    }
+
+    @Override
+    public void serialize(User value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+      generator.writeStartObject();
+      if (value.username != null) {
+        generator.writeFieldName(USERNAME);
+        generator.writeString(value.username);
+      }
+      if (value.password != null) {
+        generator.writeFieldName(PASSWORD);
+        generator.writeString(value.password);
+      }
+      if (value.version != null) {
+        generator.writeFieldName(VERSION);
+        generator.writeNumber(value.version);
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  /**
+   * Reads User without reflection. Unknown properties are rejected, like with the object mapper of Vert.x.
+   */
+  public static final class JsonReader extends StdDeserializer<User> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonReader INSTANCE = new JsonReader();
+
+    private JsonReader() {
+      super(User.class);
+    }
+
+    @Override
+    public User deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+      if (!parser.isExpectedStartObjectToken()) {
+        throw JsonMappingException.from(parser, "Expected an object for User");
+      }
+      User value = new User();
+      for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+        JsonToken token = parser.nextToken();
+        switch (name) {
+          case "username":
+            value.username = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          case "password":
+            value.password = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          case "version":
+            value.version = token == JsonToken.VALUE_NULL ? null : parser.getIntValue();
+            break;
+          default:
+            throw JsonMappingException.from(parser, "Unknown property " + name + " of User");
+        }
+      }
+      return value;
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+      if (!parser.currentToken().isScalarValue()) {
+        throw JsonMappingException.from(parser, "Expected a string");
+      }
+      return parser.getText();
+    }
+  }
 }
@@ -1,6 +1,16 @@
 package org.openapitools.vertxweb.server.model;
 
 import java.util.Objects;
+import java.io.IOException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -77,4 +87,73 @@ public class ValidationError   {
     }
     return o.toString().replace("\n", "\n    ");
   }
+
+  /**
+   * Writes ValidationError without reflection, with the names of the properties encoded once.
+   */
+  public static final class JsonWriter extends StdSerializer<ValidationError> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonWriter INSTANCE = new JsonWriter();
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString PARAMETER_NAME = new SerializedString("parameterName");
+
+    private JsonWriter() {
+      super(ValidationError.class);
+    }
+
+    @Override
+    public void serialize(ValidationError value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+      generator.writeStartObject();
+      if (value.message != null) {
+        generator.writeFieldName(MESSAGE);
+        generator.writeString(value.message);
+      }
+      if (value.parameterName != null) {
+        generator.writeFieldName(PARAMETER_NAME);
+        generator.writeString(value.parameterName);
+      }
+      generator.writeEndObject();
+    }
+  }
+
+  /**
+   * Reads ValidationError without reflection. Unknown properties are rejected, like with the object mapper of Vert.x.
+   */
+  public static final class JsonReader extends StdDeserializer<ValidationError> {
+    private static final long serialVersionUID = 1L;
+    public static final JsonReader INSTANCE = new JsonReader();
+
+    private JsonReader() {
+      super(ValidationError.class);
+    }
+
+    @Override
+    public ValidationError deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+      if (!parser.isExpectedStartObjectToken()) {
+        throw JsonMappingException.from(parser, "Expected an object for ValidationError");
+      }
+      ValidationError value = new ValidationError();
+      for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+        JsonToken token = parser.nextToken();
+        switch (name) {
+          case "message":
+            value.message = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          case "parameterName":
+            value.parameterName = token == JsonToken.VALUE_NULL ? null : readString(parser);
+            break;
+          default:
+            throw JsonMappingException.from(parser, "Unknown property " + name + " of ValidationError");
+        }
+      }
+      return value;
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+      if (!parser.currentToken().isScalarValue()) {
+        throw JsonMappingException.from(parser, "Expected a string");
+      }
+      return parser.getText();
+    }
+  }
 }
@@ -1,107 +1,191 @@
 package com.jb.blog;
 
+import com.jb.blog.metrics.MeteredPgPool;
+import com.jb.blog.metrics.MetricsHandler;
+import com.jb.blog.metrics.PoolMetrics;
 import com.jb.blog.persistence.HttpSessionRepository;
+import com.jb.blog.persistence.ReplicaRouter;
 import com.jb.blog.persistence.article.ArticleRepository;
 import com.jb.blog.persistence.article.ArticleRepositoryImpl;
-import com.jb.blog.persistence.user.UserDbConverter;
+import com.jb.blog.persistence.article.CachedArticleRepository;
+import com.jb.blog.persistence.session.PgSessionStore;
+import com.jb.blog.persistence.session.SessionNearCache;
+import com.jb.blog.persistence.user.CachedUserRepository;
 import com.jb.blog.persistence.user.UserDbConverterImpl;
-import com.jb.blog.persistence.user.UserRepository;
 import com.jb.blog.persistence.user.UserRepositoryImpl;
 import com.jb.blog.services.*;
 import com.jb.blog.session.SessionConfiguration;
 import com.jb.blog.webservices.*;
 import io.vertx.core.*;
+import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.http.*;
 import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.DatabindCodec;
+import io.vertx.core.spi.cluster.ClusterManager;
 import io.vertx.ext.web.Router;
+import io.vertx.ext.web.api.OperationRequest;
 import io.vertx.ext.web.api.contract.openapi3.OpenAPI3RouterFactory;
 import io.vertx.ext.web.api.validation.ValidationException;
 import io.vertx.ext.web.handler.SessionHandler;
+import io.vertx.ext.web.sstore.ClusteredSessionStore;
 import io.vertx.ext.web.sstore.LocalSessionStore;
+import io.vertx.ext.web.sstore.SessionStore;
 import io.vertx.pgclient.PgConnectOptions;
 import io.vertx.pgclient.PgPool;
-import io.vertx.serviceproxy.ServiceBinder;
 import io.vertx.sqlclient.PoolOptions;
 import org.openapitools.vertxweb.server.model.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * One instance per event loop, see main(). Each instance has its own HTTP server (the port is shared by Vert.x),
+ * its own pools and its own services, registered on addresses suffixed with the instance index, so that
+ * a request is handled on a single event loop from the router to the database.
+ *
+ * In clustered mode, a process runs the router, the services or both, see Role. The services of all the
+ * processes are registered on the same addresses, and the event bus balances the requests between them.
+ */
 public class MainVerticle extends AbstractVerticle {
 
+    private static final AtomicInteger instanceCount = new AtomicInteger();
+    private static final Map<Class<?>, String> SERVICE_ADDRESSES = Map.of(
+            ArticleWebService.class, "article_service",
+            HttpSessionWebService.class, "session_service",
+            UserWebService.class, "user_service"
+    );
+    private static final String ARTICLE_INVALIDATION_ADDRESS = "article_cache.invalidate";
+    private static final String SESSION_INVALIDATION_ADDRESS = "session_cache.invalidate";
+    private static final String USER_INVALIDATION_ADDRESS = "user_cache.invalidate";
+    private static final JsonMapper<Article> ARTICLE_JSON_MAPPER = new GeneratedJsonMapperImpl<>(
+            Article.JsonWriter.INSTANCE,
+            Article.JsonReader.INSTANCE
+    );
     private static Instant start;
+    private final CachedArticleRepository articleRepository;
+    private final SessionNearCache sessionNearCache;
+    private final CachedUserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final PoolMetrics poolMetrics;
+    private final PoolMetrics replicaPoolMetrics;
+    private final Role role;
     private HttpServer server;
-    private ServiceBinder serviceBinder;
 
-    private MessageConsumer<JsonObject> articleWebServiceConsumer;
-    private MessageConsumer<JsonObject> httpSessionWebServiceConsumer;
-    private MessageConsumer<JsonObject> userServiceConsumer;
+    private final List<MessageConsumer<OperationRequest>> serviceConsumers = new ArrayList<>();
     private PgPool pool;
+    private ReplicaRouter replicaRouter;
+    private SessionStore sessionStore;
+
+    public enum Role {
+        ALL,
+        /**
+         * Only the HTTP server, the services are called over the event bus
+         */
+        ROUTER,
+        /**
+         * Only the services
+         */
+        SERVICES
+    }
+
+    /**
+     * @param articleRepository      shared by all the instances, otherwise an update would only be seen by one of them
+     * @param sessionNearCache       shared by all the instances, for the same reason
+     * @param userRepository         shared by all the instances, for the same reason
+     * @param passwordHashingService shared by all the instances, so that its queue limit is for the whole process
+     * @param poolMetrics            shared by all the instances, so that /metrics reports all their pools
+     * @param replicaPoolMetrics     shared by all the instances, for the same reason
+     */
+    public MainVerticle(
+            CachedArticleRepository articleRepository,
+            SessionNearCache sessionNearCache,
+            CachedUserRepository userRepository,
+            PasswordHashingService passwordHashingService,
+            PoolMetrics poolMetrics,
+            PoolMetrics replicaPoolMetrics,
+            Role role
+    ) {
+        this.articleRepository = articleRepository;
+        this.sessionNearCache = sessionNearCache;
+        this.userRepository = userRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.poolMetrics = poolMetrics;
+        this.replicaPoolMetrics = replicaPoolMetrics;
+        this.role = role;
+    }
 
     private Future<Void> startHttpServer() {
         String confFilePath = System.getenv("BLOG_CONF");
         JsonObject config = new JsonObject(vertx.fileSystem().readFileBlocking(confFilePath));
+        // Pipelining, prepared statement cache and Unix domain socket (host set to the socket directory)
+        // are configured in the database block, see PgConnectOptions. The pool block is per instance.
         PgConnectOptions pgConnectOptions = new PgConnectOptions(config.getJsonObject("database"));
-        PoolOptions poolOptions = new PoolOptions().setMaxSize(5);
-        pool = PgPool.pool(vertx, pgConnectOptions, poolOptions);
+        PoolOptions poolOptions = new PoolOptions(config.getJsonObject("pool", new JsonObject().put("maxSize", 5)));
+        pool = new MeteredPgPool(PgPool.pool(vertx, pgConnectOptions, poolOptions), poolOptions, poolMetrics);
+        // Each replica is a database block, read-only operations are routed to them
+        List<PgPool> replicaPools = new ArrayList<>();
+        JsonArray replicasConfig = config.getJsonArray("replicas", new JsonArray());
+        for (int i = 0; i < replicasConfig.size(); i++) {
+            PgConnectOptions replicaConnectOptions = new PgConnectOptions(replicasConfig.getJsonObject(i));
+            replicaPools.add(new MeteredPgPool(
+                    PgPool.pool(vertx, replicaConnectOptions, poolOptions),
+                    poolOptions,
+                    replicaPoolMetrics
+            ));
+        }
+        replicaRouter = new ReplicaRouter(pool, replicaPools);
+        JsonObject replicationConfig = config.getJsonObject("replication", new JsonObject());
+        replicaRouter.start(vertx, replicationConfig.getLong("pollIntervalMillis", 100L));
 
-        JsonMapper<User> userMapper = new DefaultJsonMapperImpl<>(User.class);
-        LocalSessionStore localSessionStore = LocalSessionStore.create(vertx);
-        SessionHandler sessionHandler = SessionHandler.create(localSessionStore);
-        sessionHandler.setCookieSameSite(CookieSameSite.STRICT);
-        SessionConfiguration sessionConfiguration = SessionConfiguration.createDefault();
-        OperationRequestService operationRequestService = new OperationRequestServiceImpl();
-        HttpSessionRepository httpSessionRepository = new HttpSessionRepository(
-                localSessionStore,
-                sessionConfiguration,
-                operationRequestService
-        );
-        UserDbConverter userDbConverter = new UserDbConverterImpl();
-        UserRepository userRepository = new UserRepositoryImpl(userDbConverter);
+        // "eventBus" (the default) or "direct", where the routes call the services without going through
+        // the event bus at all
+        boolean directServiceInvocation = role == Role.ALL
+                && "direct".equals(config.getString("serviceInvocation", "eventBus"));
+        int instanceIndex = instanceCount.getAndIncrement();
+        // Standalone, the consumers are local, the services of another instance are never used
+        String addressSuffix = vertx.isClustered() ? "" : "." + instanceIndex;
+        Map<Class<?>, Map<String, ServiceOperation>> serviceOperations = role == Role.ROUTER
+                ? Collections.emptyMap()
+                : createServiceOperations(config, instanceIndex);
+        if (!directServiceInvocation) {
+            EventBus eventBus = vertx.eventBus();
+            serviceOperations.forEach((serviceInterface, operations) -> {
+                String address = SERVICE_ADDRESSES.get(serviceInterface) + addressSuffix;
+                ServiceOperationConsumer consumer = new ServiceOperationConsumer(operations);
+                serviceConsumers.add(vertx.isClustered()
+                        ? eventBus.consumer(address, consumer)
+                        : eventBus.localConsumer(address, consumer));
+            });
+        }
+        if (role == Role.SERVICES) {
+            Duration duration = Duration.between(start, Instant.now());
+            System.out.println("Services ready! Startup time: " + duration.toMillis() + " milliseconds.");
+            return Future.succeededFuture();
+        }
 
-        RequestContextManagerFactory requestContextManagerFactory = new RequestContextManagerFactory(
-                pool,
-                httpSessionRepository,
-                userRepository
-        );
-        JsonMapper<ArticleFormData> articleFormDataJsonMapper = new DefaultJsonMapperImpl<>(ArticleFormData.class);
-        ArticleRepository articleRepository = new ArticleRepositoryImpl();
-        ArticleWebService articleWebService = new ArticleWebServiceImpl(
-                articleRepository,
-                articleFormDataJsonMapper,
-                requestContextManagerFactory
-        );
-
-        HttpSessionWebService httpSessionWebService = new HttpSessionWebServiceImpl(
-                requestContextManagerFactory,
-                new DefaultJsonMapperImpl<>(LoginForm.class),
-                httpSessionRepository,
-                sessionConfiguration,
-                userMapper,
-                operationRequestService,
-                userRepository
-        );
-        RegistrationFormService registrationFormService = new RegistrationFormServiceImpl();
-        UserWebService userWebService = new UserWebServiceImpl(
-                pool,
-                userRepository,
-                new DefaultJsonMapperImpl<>(RegistrationForm.class),
-                registrationFormService
-        );
-
-        serviceBinder = new ServiceBinder(vertx);
-        articleWebServiceConsumer = serviceBinder
-                .setAddress("article_service")
-                .register(ArticleWebService.class, articleWebService);
-        httpSessionWebServiceConsumer = serviceBinder
-                .setAddress("session_service")
-                .register(HttpSessionWebService.class, httpSessionWebService);
-        userServiceConsumer = serviceBinder
-                .setAddress("user_service")
-                .register(UserWebService.class, userWebService);
+        // HTTP/2 is negotiated with ALPN when ssl and useAlpn are set, and cleartext HTTP/2 (h2c) is always
+        // accepted otherwise. HTTP/2 is tuned with initialSettings and http2ConnectionWindowSize.
+        JsonObject serverConfig = new JsonObject()
+                .put("port", 8081)
+                .put("host", "localhost")
+                .mergeIn(config.getJsonObject("server", new JsonObject()));
 
+        // gzip and deflate, depending on the Accept-Encoding of the request
+        JsonObject compressionConfig = config.getJsonObject("compression", new JsonObject());
         Promise<Void> promise = Promise.promise();
         OpenAPI3RouterFactory.create(this.vertx, "/openapi.yaml", openAPI3RouterFactoryAsyncResult -> {
             if (openAPI3RouterFactoryAsyncResult.succeeded()) {
@@ -114,13 +198,48 @@ public class MainVerticle extends AbstractVerticle {
                     routingContext.next();
                 });
 
-                routerFactory.mountServicesFromExtensions();
+                // Not mountServicesFromExtensions(): the addresses of the spec are shared by all the instances,
+                // and the generated proxies send the OperationRequests and OperationResponses as JSON
+                if (directServiceInvocation) {
+                    serviceOperations.values()
+                            .forEach(operations -> ServiceOperations.mountDirect(routerFactory, operations));
+                } else {
+                    SERVICE_ADDRESSES.forEach((serviceInterface, address) -> ServiceOperations.mountEventBus(
+                            routerFactory,
+                            vertx.eventBus(),
+                            address + addressSuffix,
+                            serviceInterface
+                    ));
+                }
+                routerFactory.addHandlerByOperationId(
+                        "exportArticles",
+                        new ArticleExportHandler(pool, articleRepository, ARTICLE_JSON_MAPPER)
+                );
+                routerFactory.addHandlerByOperationId(
+                        "getMetrics",
+                        new MetricsHandler(poolMetrics, replicaPoolMetrics, articleRepository, userRepository)
+                );
+                if (compressionConfig.getBoolean("enabled", false)) {
+                    List<String> contentTypes = new ArrayList<>();
+                    JsonArray contentTypesConfig = compressionConfig.getJsonArray(
+                            "contentTypes",
+                            new JsonArray().add("application/json")
+                    );
+                    for (int i = 0; i < contentTypesConfig.size(); i++) {
+                        contentTypes.add(contentTypesConfig.getString(i));
+                    }
+                    routerFactory.addGlobalHandler(new CompressionHandler(
+                            compressionConfig.getInteger("minSize", 1024),
+                            new HashSet<>(contentTypes)
+                    ));
+                }
                 routerFactory.addGlobalHandler(routingContext -> {
                     routingContext.response()
                             .putHeader("Access-Control-Allow-Origin", "http://localhost:3000")
                             .putHeader("Access-Control-Allow-Methods", "PUT,POST,HEAD,GET,OPTIONS")
                             .putHeader("Access-Control-Allow-Credentials", "true")
-                            .putHeader("Access-Control-Allow-Headers", "content-type, cookie");
+                            .putHeader("Access-Control-Allow-Headers", "content-type, cookie, if-match, if-none-match")
+                            .putHeader("Access-Control-Expose-Headers", "X-Next-Cursor, ETag");
                     if (routingContext.request().method().equals(HttpMethod.OPTIONS)) {
                         routingContext.response().end();
                         return;
@@ -151,7 +270,10 @@ public class MainVerticle extends AbstractVerticle {
                         routingContext.response().setStatusCode(400).end();
                     }
                 });
-                server = vertx.createHttpServer(new HttpServerOptions().setPort(8081).setHost("localhost"));
+                HttpServerOptions httpServerOptions = new HttpServerOptions(serverConfig)
+                        .setCompressionSupported(compressionConfig.getBoolean("enabled", false))
+                        .setCompressionLevel(compressionConfig.getInteger("level", 6));
+                server = vertx.createHttpServer(httpServerOptions);
                 server.requestHandler(router).listen((AsyncResult<HttpServer> httpServer) -> {
                     Duration duration = Duration.between(start, Instant.now());
                     System.out.println("Server ready! Startup time: " + duration.toMillis() + " milliseconds.");
@@ -168,6 +290,91 @@ public class MainVerticle extends AbstractVerticle {
         return promise.future();
     }
 
+    private Map<Class<?>, Map<String, ServiceOperation>> createServiceOperations(JsonObject config, int instanceIndex) {
+        JsonMapper<User> userMapper = new GeneratedJsonMapperImpl<>(User.JsonWriter.INSTANCE, User.JsonReader.INSTANCE);
+        // "postgres" (the default) or "local", where the sessions are lost on restart
+        JsonObject sessionStoreConfig = config.getJsonObject("sessionStore", new JsonObject());
+        if ("local".equals(sessionStoreConfig.getString("type", "postgres"))) {
+            // Clustered, a session may be used by the services of any process
+            sessionStore = vertx.isClustered()
+                    ? ClusteredSessionStore.create(vertx)
+                    : LocalSessionStore.create(vertx);
+        } else {
+            PgSessionStore pgSessionStore = new PgSessionStore(vertx, pool, sessionNearCache);
+            if (instanceIndex == 0) {
+                pgSessionStore.startSweeper(
+                        sessionStoreConfig.getLong("sweepIntervalMillis", 60000L),
+                        sessionStoreConfig.getInteger("sweepBatchSize", 1000)
+                );
+            }
+            sessionStore = pgSessionStore;
+        }
+        SessionHandler sessionHandler = SessionHandler.create(sessionStore);
+        sessionHandler.setCookieSameSite(CookieSameSite.STRICT);
+        SessionConfiguration sessionConfiguration = SessionConfiguration.createDefault();
+        OperationRequestService operationRequestService = new OperationRequestServiceImpl();
+        HttpSessionRepository httpSessionRepository = new HttpSessionRepository(
+                sessionStore,
+                sessionConfiguration,
+                operationRequestService
+        );
+
+        RequestContextManagerFactory requestContextManagerFactory = new RequestContextManagerFactory(
+                pool,
+                httpSessionRepository,
+                userRepository,
+                replicaRouter
+        );
+        JsonMapper<ArticleFormData> articleFormDataJsonMapper = new GeneratedJsonMapperImpl<>(
+                ArticleFormData.JsonWriter.INSTANCE,
+                ArticleFormData.JsonReader.INSTANCE
+        );
+        ArticleWebService articleWebService = new ArticleWebServiceImpl(
+                articleRepository,
+                articleFormDataJsonMapper,
+                requestContextManagerFactory,
+                new CursorServiceImpl(),
+                new GeneratedJsonMapperImpl<>(ArticleBatch.JsonWriter.INSTANCE, ArticleBatch.JsonReader.INSTANCE),
+                ARTICLE_JSON_MAPPER,
+                new GeneratedJsonMapperImpl<>(
+                        ArticleSearchResult.JsonWriter.INSTANCE,
+                        ArticleSearchResult.JsonReader.INSTANCE
+                ),
+                new GeneratedJsonMapperImpl<>(
+                        ArticleByIdResult.JsonWriter.INSTANCE,
+                        ArticleByIdResult.JsonReader.INSTANCE
+                )
+        );
+
+        HttpSessionWebService httpSessionWebService = new HttpSessionWebServiceImpl(
+                requestContextManagerFactory,
+                new GeneratedJsonMapperImpl<>(LoginForm.JsonWriter.INSTANCE, LoginForm.JsonReader.INSTANCE),
+                httpSessionRepository,
+                sessionConfiguration,
+                userMapper,
+                operationRequestService,
+                userRepository,
+                passwordHashingService
+        );
+        RegistrationFormService registrationFormService = new RegistrationFormServiceImpl();
+        UserWebService userWebService = new UserWebServiceImpl(
+                pool,
+                userRepository,
+                new GeneratedJsonMapperImpl<>(
+                        RegistrationForm.JsonWriter.INSTANCE,
+                        RegistrationForm.JsonReader.INSTANCE
+                ),
+                registrationFormService,
+                passwordHashingService
+        );
+
+        Map<Class<?>, Map<String, ServiceOperation>> serviceOperations = new LinkedHashMap<>();
+        serviceOperations.put(ArticleWebService.class, ServiceOperations.of(articleWebService));
+        serviceOperations.put(HttpSessionWebService.class, ServiceOperations.of(httpSessionWebService));
+        serviceOperations.put(UserWebService.class, ServiceOperations.of(userWebService));
+        return serviceOperations;
+    }
+
     @Override
     public void start(Promise<Void> promise) {
         startHttpServer().onComplete(promise);
@@ -175,17 +382,120 @@ public class MainVerticle extends AbstractVerticle {
 
     @Override
     public void stop() {
+        this.replicaRouter.stop(vertx);
         this.pool.close();
-        this.server.close();
-        articleWebServiceConsumer.unregister();
-        userServiceConsumer.unregister();
-        httpSessionWebServiceConsumer.unregister();
+        if (sessionStore != null) {
+            sessionStore.close();
+        }
+        if (server != null) {
+            server.close();
+        }
+        serviceConsumers.forEach(MessageConsumer::unregister);
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         start = Instant.now();
-        Vertx vertx = Vertx.vertx();
-        vertx.deployVerticle(new MainVerticle());
+        String confFilePath = System.getenv("BLOG_CONF");
+        JsonObject config = new JsonObject(new String(Files.readAllBytes(Paths.get(confFilePath)), StandardCharsets.UTF_8));
+        // The native transport is needed to connect to Postgres through a Unix domain socket
+        VertxOptions vertxOptions = new VertxOptions(config.getJsonObject("vertx", new JsonObject()));
+        JsonObject clusterConfig = config.getJsonObject("cluster", new JsonObject());
+        if (!clusterConfig.getBoolean("enabled", false)) {
+            deploy(Vertx.vertx(vertxOptions), config, Role.ALL);
+            return;
+        }
+        // The cluster manager is the class named in the cluster block, or else the one Vert.x finds
+        // with the ServiceLoader, e.g. vertx-hazelcast, see the cluster profile of the pom
+        String managerClass = clusterConfig.getString("managerClass");
+        if (managerClass != null) {
+            try {
+                vertxOptions.setClusterManager(
+                        (ClusterManager) Class.forName(managerClass).getDeclaredConstructor().newInstance()
+                );
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Can't create the cluster manager " + managerClass, e);
+            }
+        }
+        Role role = Role.valueOf(clusterConfig.getString("role", "all").toUpperCase());
+        Vertx.clusteredVertx(vertxOptions, clusteredVertxResult -> {
+            if (clusteredVertxResult.failed()) {
+                clusteredVertxResult.cause().printStackTrace();
+                return;
+            }
+            deploy(clusteredVertxResult.result(), config, role);
+        });
+    }
+
+    private static void deploy(Vertx vertx, JsonObject config, Role role) {
+        WebApiMessageCodecs.register(vertx.eventBus());
+        // The models that are still encoded by the object mapper, e.g. the errors, use the generated codecs too
+        DatabindCodec.mapper().registerModule(new GeneratedJsonModule());
+        JsonObject articleCacheConfig = config.getJsonObject("articleCache", new JsonObject());
+        CachedArticleRepository articleRepository = new CachedArticleRepository(
+                new ArticleRepositoryImpl(),
+                articleCacheConfig.getInteger("maxSize", 1000),
+                articleCacheConfig.getLong("ttlMillis", 60000L)
+        );
+        JsonObject userCacheConfig = config.getJsonObject("userCache", new JsonObject());
+        CachedUserRepository userRepository = new CachedUserRepository(
+                new UserRepositoryImpl(new UserDbConverterImpl()),
+                userCacheConfig.getInteger("maxSize", 10000),
+                userCacheConfig.getLong("ttlMillis", 60000L)
+        );
+        // The cost of a hash should be raised with the hardware: the stored hashes are upgraded on login
+        JsonObject passwordHashingConfig = config.getJsonObject("passwordHashing", new JsonObject());
+        int defaultHashingPoolSize = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        PasswordHashingService passwordHashingService = new PasswordHashingServiceImpl(
+                vertx,
+                passwordHashingConfig.getInteger("iterations", 600000),
+                passwordHashingConfig.getInteger("poolSize", defaultHashingPoolSize),
+                passwordHashingConfig.getInteger("maxQueueSize", 100)
+        );
+        JsonObject sessionStoreConfig = config.getJsonObject("sessionStore", new JsonObject());
+        SessionNearCache sessionNearCache = new SessionNearCache(
+                sessionStoreConfig.getInteger("nearCacheMaxSize", 10000),
+                sessionStoreConfig.getLong("nearCacheTtlMillis", 1000L)
+        );
+        if (vertx.isClustered()) {
+            // The writes made in a process invalidate the caches of the others
+            EventBus eventBus = vertx.eventBus();
+            articleRepository.setInvalidationListener((id, version) -> eventBus.publish(
+                    ARTICLE_INVALIDATION_ADDRESS,
+                    new JsonObject().put("id", id).put("version", version)
+            ));
+            eventBus.<JsonObject>consumer(ARTICLE_INVALIDATION_ADDRESS, message -> articleRepository.invalidate(
+                    message.body().getString("id"),
+                    message.body().getInteger("version")
+            ));
+            userRepository.setInvalidationListener(username -> eventBus.publish(USER_INVALIDATION_ADDRESS, username));
+            eventBus.<String>consumer(USER_INVALIDATION_ADDRESS, message -> userRepository.invalidate(message.body()));
+            sessionNearCache.setInvalidationListener((id, version) -> eventBus.publish(
+                    SESSION_INVALIDATION_ADDRESS,
+                    new JsonObject().put("id", id).put("version", version)
+            ));
+            eventBus.<JsonObject>consumer(SESSION_INVALIDATION_ADDRESS, message -> sessionNearCache.invalidate(
+                    message.body().getString("id"),
+                    message.body().getInteger("version")
+            ));
+        }
+        // The pools are per instance, their metrics are for the whole process
+        PoolMetrics poolMetrics = new PoolMetrics();
+        PoolMetrics replicaPoolMetrics = new PoolMetrics();
+        // Vert.x assigns the instances to the event loops round-robin
+        DeploymentOptions deploymentOptions = new DeploymentOptions()
+                .setInstances(config.getInteger("instances", Runtime.getRuntime().availableProcessors()));
+        vertx.deployVerticle(
+                () -> new MainVerticle(
+                        articleRepository,
+                        sessionNearCache,
+                        userRepository,
+                        passwordHashingService,
+                        poolMetrics,
+                        replicaPoolMetrics,
+                        role
+                ),
+                deploymentOptions
+        );
     }
 
 }
@@ -0,0 +1,50 @@
+package com.jb.blog.metrics;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies with fixed buckets, in milliseconds.
+ * Each bucket counts the latencies lower than or equal to its bound and greater than the previous bound,
+ * the last bucket counts everything above the highest bound.
+ */
+public class LatencyHistogram {
+    static final long[] BUCKET_BOUNDS_MILLIS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000};
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length + 1);
+    private final LongAdder totalNanos = new LongAdder();
+
+    public void record(long nanos) {
+        long millis = nanos / 1_000_000;
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MILLIS.length && millis > BUCKET_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        counts.incrementAndGet(bucket);
+        totalNanos.add(nanos);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    public JsonObject toJson() {
+        JsonArray buckets = new JsonArray();
+        for (int i = 0; i < counts.length(); i++) {
+            buckets.add(new JsonObject()
+                    .put("le", i < BUCKET_BOUNDS_MILLIS.length ? String.valueOf(BUCKET_BOUNDS_MILLIS[i]) : "+Inf")
+                    .put("count", counts.get(i)));
+        }
+        return new JsonObject()
+                .put("count", getCount())
+                .put("totalMillis", totalNanos.sum() / 1_000_000)
+                .put("buckets", buckets);
+    }
+}
@@ -0,0 +1,101 @@
+package com.jb.blog.metrics;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.pgclient.PgPool;
+import io.vertx.sqlclient.PoolOptions;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Query;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Transaction;
+
+import java.util.function.BiConsumer;
+
+/**
+ * PgPool recording how long it takes to lease a connection, and how long the queries run on the pool take
+ * once they have one. Like those of the PgPool, these queries lease a connection and release it when done.
+ */
+public class MeteredPgPool implements PgPool {
+    private final PgPool pool;
+    private final PoolOptions poolOptions;
+    private final PoolMetrics poolMetrics;
+
+    /**
+     * @param poolOptions the options the pool was created with
+     * @param poolMetrics may be shared with other pools, e.g. those of the other verticle instances
+     */
+    public MeteredPgPool(PgPool pool, PoolOptions poolOptions, PoolMetrics poolMetrics) {
+        this.pool = pool;
+        this.poolOptions = poolOptions;
+        this.poolMetrics = poolMetrics;
+        poolMetrics.poolOpened(poolOptions);
+    }
+
+    @Override
+    public void getConnection(Handler<AsyncResult<SqlConnection>> handler) {
+        poolMetrics.acquireStarted();
+        long start = System.nanoTime();
+        pool.getConnection(getConnectionResult -> {
+            poolMetrics.acquireCompleted(System.nanoTime() - start, getConnectionResult.succeeded());
+            if (getConnectionResult.failed()) {
+                handler.handle(getConnectionResult);
+                return;
+            }
+            handler.handle(Future.succeededFuture(new MeteredSqlConnection(getConnectionResult.result(), poolMetrics)));
+        });
+    }
+
+    /**
+     * The connection of the transaction isn't counted in use: the pool releases it when the transaction ends.
+     */
+    @Override
+    public void begin(Handler<AsyncResult<Transaction>> handler) {
+        poolMetrics.acquireStarted();
+        long start = System.nanoTime();
+        pool.begin(beginResult -> {
+            poolMetrics.acquireCompleted(System.nanoTime() - start, false);
+            handler.handle(beginResult);
+        });
+    }
+
+    @Override
+    public Query<RowSet<Row>> query(String sql) {
+        return new MeteredQuery<>(this, connection -> connection.query(sql));
+    }
+
+    @Override
+    public PreparedQuery<RowSet<Row>> preparedQuery(String sql) {
+        return new MeteredPreparedQuery<>(this, connection -> connection.preparedQuery(sql));
+    }
+
+    /**
+     * Runs a query of the pool on a leased connection, the lease is recorded by getConnection().
+     */
+    <T> void execute(
+            BiConsumer<SqlConnection, Handler<AsyncResult<T>>> query,
+            Handler<AsyncResult<T>> handler
+    ) {
+        getConnection(getConnectionResult -> {
+            if (getConnectionResult.failed()) {
+                handler.handle(Future.failedFuture(getConnectionResult.cause()));
+                return;
+            }
+            SqlConnection connection = getConnectionResult.result();
+            long start = System.nanoTime();
+            query.accept(connection, queryResult -> {
+                poolMetrics.recordQuery(System.nanoTime() - start);
+                connection.close();
+                handler.handle(queryResult);
+            });
+        });
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+        poolMetrics.poolClosed(poolOptions);
+    }
+}
@@ -0,0 +1,58 @@
+package com.jb.blog.metrics;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.SqlResult;
+import io.vertx.sqlclient.Tuple;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * PreparedQuery of a MeteredPgPool, run on a connection leased for it, see MeteredPgPool.execute().
+ */
+class MeteredPreparedQuery<T> implements PreparedQuery<T> {
+    private final MeteredPgPool pool;
+    private final Function<SqlConnection, PreparedQuery<T>> queryFactory;
+
+    MeteredPreparedQuery(MeteredPgPool pool, Function<SqlConnection, PreparedQuery<T>> queryFactory) {
+        this.pool = pool;
+        this.queryFactory = queryFactory;
+    }
+
+    @Override
+    public void execute(Handler<AsyncResult<T>> handler) {
+        pool.execute((connection, executeHandler) -> queryFactory.apply(connection).execute(executeHandler), handler);
+    }
+
+    @Override
+    public void execute(Tuple tuple, Handler<AsyncResult<T>> handler) {
+        pool.execute(
+                (connection, executeHandler) -> queryFactory.apply(connection).execute(tuple, executeHandler),
+                handler
+        );
+    }
+
+    @Override
+    public void executeBatch(List<Tuple> batch, Handler<AsyncResult<T>> handler) {
+        pool.execute(
+                (connection, executeHandler) -> queryFactory.apply(connection).executeBatch(batch, executeHandler),
+                handler
+        );
+    }
+
+    @Override
+    public <R> PreparedQuery<SqlResult<R>> collecting(Collector<Row, ?, R> collector) {
+        return new MeteredPreparedQuery<>(pool, connection -> queryFactory.apply(connection).collecting(collector));
+    }
+
+    @Override
+    public <U> PreparedQuery<RowSet<U>> mapping(Function<Row, U> mapper) {
+        return new MeteredPreparedQuery<>(pool, connection -> queryFactory.apply(connection).mapping(mapper));
+    }
+}
@@ -0,0 +1,40 @@
+package com.jb.blog.metrics;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.sqlclient.Query;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.SqlResult;
+
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * Query of a MeteredPgPool, run on a connection leased for it, see MeteredPgPool.execute().
+ */
+class MeteredQuery<T> implements Query<T> {
+    private final MeteredPgPool pool;
+    private final Function<SqlConnection, Query<T>> queryFactory;
+
+    MeteredQuery(MeteredPgPool pool, Function<SqlConnection, Query<T>> queryFactory) {
+        this.pool = pool;
+        this.queryFactory = queryFactory;
+    }
+
+    @Override
+    public void execute(Handler<AsyncResult<T>> handler) {
+        pool.execute((connection, executeHandler) -> queryFactory.apply(connection).execute(executeHandler), handler);
+    }
+
+    @Override
+    public <R> Query<SqlResult<R>> collecting(Collector<Row, ?, R> collector) {
+        return new MeteredQuery<>(pool, connection -> queryFactory.apply(connection).collecting(collector));
+    }
+
+    @Override
+    public <U> Query<RowSet<U>> mapping(Function<Row, U> mapper) {
+        return new MeteredQuery<>(pool, connection -> queryFactory.apply(connection).mapping(mapper));
+    }
+}
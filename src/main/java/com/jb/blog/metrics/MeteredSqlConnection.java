@@ -0,0 +1,81 @@
+package com.jb.blog.metrics;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.PreparedStatement;
+import io.vertx.sqlclient.Query;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Transaction;
+import io.vertx.sqlclient.spi.DatabaseMetadata;
+
+/**
+ * Connection leased from a MeteredPgPool, counted as in use until it is closed.
+ */
+class MeteredSqlConnection implements SqlConnection {
+    private final SqlConnection connection;
+    private final PoolMetrics poolMetrics;
+    private boolean closed;
+
+    MeteredSqlConnection(SqlConnection connection, PoolMetrics poolMetrics) {
+        this.connection = connection;
+        this.poolMetrics = poolMetrics;
+    }
+
+    @Override
+    public SqlConnection prepare(String sql, Handler<AsyncResult<PreparedStatement>> handler) {
+        connection.prepare(sql, handler);
+        return this;
+    }
+
+    @Override
+    public SqlConnection exceptionHandler(Handler<Throwable> handler) {
+        connection.exceptionHandler(handler);
+        return this;
+    }
+
+    @Override
+    public SqlConnection closeHandler(Handler<Void> handler) {
+        connection.closeHandler(handler);
+        return this;
+    }
+
+    @Override
+    public Transaction begin() {
+        return connection.begin();
+    }
+
+    @Override
+    public boolean isSSL() {
+        return connection.isSSL();
+    }
+
+    @Override
+    public Query<RowSet<Row>> query(String sql) {
+        return connection.query(sql);
+    }
+
+    @Override
+    public PreparedQuery<RowSet<Row>> preparedQuery(String sql) {
+        return connection.preparedQuery(sql);
+    }
+
+    @Override
+    public DatabaseMetadata databaseMetadata() {
+        return connection.databaseMetadata();
+    }
+
+    /**
+     * Returns the connection to the pool. It is only counted once if closed several times.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            poolMetrics.connectionReleased();
+        }
+        connection.close();
+    }
+}
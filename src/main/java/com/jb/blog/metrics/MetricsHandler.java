@@ -0,0 +1,50 @@
+package com.jb.blog.metrics;
+
+import com.jb.blog.persistence.article.CachedArticleRepository;
+import com.jb.blog.persistence.user.CachedUserRepository;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Answers with a snapshot of the live metrics of the server.
+ */
+public class MetricsHandler implements Handler<RoutingContext> {
+    private final PoolMetrics poolMetrics;
+    private final PoolMetrics replicaPoolMetrics;
+    private final CachedArticleRepository cachedArticleRepository;
+    private final CachedUserRepository cachedUserRepository;
+
+    public MetricsHandler(
+            PoolMetrics poolMetrics,
+            PoolMetrics replicaPoolMetrics,
+            CachedArticleRepository cachedArticleRepository,
+            CachedUserRepository cachedUserRepository
+    ) {
+        this.poolMetrics = poolMetrics;
+        this.replicaPoolMetrics = replicaPoolMetrics;
+        this.cachedArticleRepository = cachedArticleRepository;
+        this.cachedUserRepository = cachedUserRepository;
+    }
+
+    @Override
+    public void handle(RoutingContext routingContext) {
+        JsonObject articleCache = new JsonObject()
+                .put("size", cachedArticleRepository.size())
+                .put("hits", cachedArticleRepository.getHitCount())
+                .put("misses", cachedArticleRepository.getMissCount())
+                .put("evictions", cachedArticleRepository.getEvictionCount());
+        JsonObject userCache = new JsonObject()
+                .put("size", cachedUserRepository.size())
+                .put("hits", cachedUserRepository.getHitCount())
+                .put("misses", cachedUserRepository.getMissCount());
+        JsonObject metrics = new JsonObject()
+                .put("pool", poolMetrics.toJson())
+                .put("replicaPool", replicaPoolMetrics.toJson())
+                .put("articleCache", articleCache)
+                .put("userCache", userCache);
+        routingContext.response()
+                .putHeader("content-type", "application/json")
+                .end(metrics.toBuffer());
+    }
+}
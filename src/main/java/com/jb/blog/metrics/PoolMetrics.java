@@ -0,0 +1,113 @@
+package com.jb.blog.metrics;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.PoolOptions;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gauges of the PgPools of a process, and the latencies of the connection acquisitions and of the pool queries
+ * made through MeteredPgPool. Each verticle instance has its own pools, they all report to the same PoolMetrics.
+ *
+ * The 3.9 sql client doesn't report pool metrics, so the gauges are counted by MeteredPgPool:
+ * waiting is the number of acquisitions not completed yet, inUse the number of leased connections not closed yet.
+ * The counters are atomic, the metrics can be read from any thread.
+ */
+public class PoolMetrics {
+    private final AtomicInteger pools = new AtomicInteger();
+    private final AtomicInteger maxSize = new AtomicInteger();
+    private final AtomicInteger maxWaitQueueSize = new AtomicInteger();
+    private final AtomicInteger unboundedWaitQueues = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+    private final LatencyHistogram queryLatency = new LatencyHistogram();
+
+    void poolOpened(PoolOptions poolOptions) {
+        pools.incrementAndGet();
+        maxSize.addAndGet(poolOptions.getMaxSize());
+        if (poolOptions.getMaxWaitQueueSize() < 0) {
+            unboundedWaitQueues.incrementAndGet();
+        } else {
+            maxWaitQueueSize.addAndGet(poolOptions.getMaxWaitQueueSize());
+        }
+    }
+
+    void poolClosed(PoolOptions poolOptions) {
+        pools.decrementAndGet();
+        maxSize.addAndGet(-poolOptions.getMaxSize());
+        if (poolOptions.getMaxWaitQueueSize() < 0) {
+            unboundedWaitQueues.decrementAndGet();
+        } else {
+            maxWaitQueueSize.addAndGet(-poolOptions.getMaxWaitQueueSize());
+        }
+    }
+
+    void acquireStarted() {
+        waiting.incrementAndGet();
+    }
+
+    /**
+     * @param leased whether a connection was leased, and is now in use until it's closed
+     */
+    void acquireCompleted(long nanos, boolean leased) {
+        waiting.decrementAndGet();
+        if (leased) {
+            inUse.incrementAndGet();
+        }
+        acquireLatency.record(nanos);
+    }
+
+    void connectionReleased() {
+        inUse.decrementAndGet();
+    }
+
+    void recordQuery(long nanos) {
+        queryLatency.record(nanos);
+    }
+
+    public int getPools() {
+        return pools.get();
+    }
+
+    /**
+     * @return the maximum number of connections of all the pools
+     */
+    public int getMaxSize() {
+        return maxSize.get();
+    }
+
+    /**
+     * @return the maximum number of acquisitions waiting in all the pools, -1 if one of them is unbounded
+     */
+    public int getMaxWaitQueueSize() {
+        return unboundedWaitQueues.get() > 0 ? -1 : maxWaitQueueSize.get();
+    }
+
+    public int getInUse() {
+        return inUse.get();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public LatencyHistogram getAcquireLatency() {
+        return acquireLatency;
+    }
+
+    public LatencyHistogram getQueryLatency() {
+        return queryLatency;
+    }
+
+    public JsonObject toJson() {
+        return new JsonObject()
+                .put("pools", getPools())
+                .put("maxSize", getMaxSize())
+                .put("maxWaitQueueSize", getMaxWaitQueueSize())
+                .put("inUse", getInUse())
+                .put("waiting", getWaiting())
+                .put("acquireLatency", acquireLatency.toJson())
+                .put("queryLatency", queryLatency.toJson());
+    }
+}
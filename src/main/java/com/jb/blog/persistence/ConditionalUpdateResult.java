@@ -0,0 +1,30 @@
+package com.jb.blog.persistence;
+
+/**
+ * Result of an update that only applies if the entity is still at the expected version.
+ * version is the new version if the entity was updated, its current version if it wasn't,
+ * and null if the entity doesn't exist.
+ */
+public class ConditionalUpdateResult {
+    public enum Status {
+        UPDATED,
+        VERSION_MISMATCH,
+        NOT_FOUND
+    }
+
+    private final Status status;
+    private final Integer version;
+
+    public ConditionalUpdateResult(Status status, Integer version) {
+        this.status = status;
+        this.version = version;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+}
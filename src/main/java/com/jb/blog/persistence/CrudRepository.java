@@ -4,6 +4,7 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.SqlClient;
+import io.vertx.sqlclient.SqlConnection;
 import io.vertx.sqlclient.Tuple;
 
 import java.util.List;
@@ -11,13 +12,48 @@ import java.util.List;
 public interface CrudRepository<T> {
     void getById(SqlClient sqlClient, String id, Handler<AsyncResult<T>> handler);
 
+    /**
+     * Get all the entities whose id is in ids, in a single query.
+     * The entities are returned in no particular order, ids that don't exist are ignored.
+     */
+    void getByIds(SqlClient sqlClient, List<String> ids, Handler<AsyncResult<List<T>>> handler);
+
     void getAll(SqlClient sqlClient, Handler<AsyncResult<List<T>>> handler);
 
+    /**
+     * Keyset pagination: get at most limit entities whose id is greater than afterId, ordered by id.
+     * If afterId is null, the first page is returned.
+     */
+    void getPage(SqlClient sqlClient, String afterId, int limit, Handler<AsyncResult<Page<T>>> handler);
+
+    /**
+     * Get all the entities through a database cursor, fetchSize rows at a time.
+     * A transaction is started on sqlConnection to keep the cursor open, it is rolled back
+     * when the connection is closed.
+     */
+    void getAllAsStream(SqlConnection sqlConnection, int fetchSize, Handler<AsyncResult<EntityStream<T>>> handler);
+
     void insert(
             SqlClient sqlClient,
             T entity,
             Handler<AsyncResult<Void>> handler
     );
 
-    void update(SqlClient sqlClient, T entity, Handler<AsyncResult<Void>> handler);
+    /**
+     * Insert all the entities in a single round trip.
+     * Entities that already exist are skipped, the handler receives, for each entity,
+     * whether it was inserted.
+     */
+    void insertBatch(SqlClient sqlClient, List<T> entities, Handler<AsyncResult<List<Boolean>>> handler);
+
+    /**
+     * Update the entity, the handler receives the new version of the entity.
+     */
+    void update(SqlClient sqlClient, T entity, Handler<AsyncResult<Integer>> handler);
+
+    /**
+     * Update all the entities in a single round trip.
+     * The handler receives, for each entity, its new version, or null if it doesn't exist.
+     */
+    void updateBatch(SqlClient sqlClient, List<T> entities, Handler<AsyncResult<List<Integer>>> handler);
 }
@@ -7,6 +7,7 @@ import io.vertx.sqlclient.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 public abstract class CrudRepositoryImpl<T> implements CrudRepository<T> {
     private String selectQuery;
@@ -21,11 +22,22 @@ public abstract class CrudRepositoryImpl<T> implements CrudRepository<T> {
 
     @Override
     public void getById(SqlClient sqlClient, String id, Handler<AsyncResult<T>> handler) {
-        PreparedQuery<RowSet<Row>> preparedQuery = sqlClient.preparedQuery(
-                selectQuery + " where id = $1\n"
-        );
+        getOne(sqlClient, selectQuery + " where id = $1\n", this::fromRow, Tuple.of(id), handler);
+    }
+
+    /**
+     * Run a query that returns at most one row, the handler receives null if there is none.
+     */
+    protected void getOne(
+            SqlClient sqlClient,
+            String query,
+            Function<Row, T> fromRow,
+            Tuple tuple,
+            Handler<AsyncResult<T>> handler
+    ) {
+        PreparedQuery<RowSet<Row>> preparedQuery = sqlClient.preparedQuery(query);
         preparedQuery.execute(
-                Tuple.of(id),
+                tuple,
                 (AsyncResult<RowSet<Row>> event) -> {
                     if (event.failed()) {
                         handler.handle(Future.failedFuture(event.cause()));
@@ -39,7 +51,36 @@ public abstract class CrudRepositoryImpl<T> implements CrudRepository<T> {
                         }
                         RowIterator<Row> it = rowSet.iterator();
                         Row row = it.next();
-                        handler.handle(Future.succeededFuture(fromRow(row)));
+                        handler.handle(Future.succeededFuture(fromRow.apply(row)));
+                    } catch (Throwable t) {
+                        handler.handle(Future.failedFuture(t));
+                    }
+                });
+    }
+
+    @Override
+    public void getByIds(SqlClient sqlClient, List<String> ids, Handler<AsyncResult<List<T>>> handler) {
+        if (ids.isEmpty()) {
+            handler.handle(Future.succeededFuture(new ArrayList<>()));
+            return;
+        }
+        PreparedQuery<RowSet<Row>> preparedQuery = sqlClient.preparedQuery(
+                selectQuery + " where id = any($1)\n"
+        );
+        preparedQuery.execute(
+                Tuple.of(ids.toArray(new String[0])),
+                (AsyncResult<RowSet<Row>> event) -> {
+                    if (event.failed()) {
+                        handler.handle(Future.failedFuture(event.cause()));
+                        return;
+                    }
+                    try {
+                        RowSet<Row> rowSet = event.result();
+                        List<T> entities = new ArrayList<>(rowSet.size());
+                        for (Row row : rowSet) {
+                            entities.add(fromRow(row));
+                        }
+                        handler.handle(Future.succeededFuture(entities));
                     } catch (Throwable t) {
                         handler.handle(Future.failedFuture(t));
                     }
@@ -67,6 +108,83 @@ public abstract class CrudRepositoryImpl<T> implements CrudRepository<T> {
         });
     }
 
+    @Override
+    public void getPage(SqlClient sqlClient, String afterId, int limit, Handler<AsyncResult<Page<T>>> handler) {
+        getPage(
+                sqlClient,
+                selectQuery + " where id > $1 order by id limit $2\n",
+                this::fromRow,
+                pageTuple(afterId, limit),
+                limit,
+                handler
+        );
+    }
+
+    /**
+     * The first parameters of a keyset page query: $1 is the id after which the page starts,
+     * $2 the number of rows to fetch.
+     */
+    protected static Tuple pageTuple(String afterId, int limit) {
+        // We fetch one more row than requested to know if there is a next page
+        return Tuple.of(afterId == null ? "" : afterId, (long) limit + 1);
+    }
+
+    /**
+     * Keyset pagination: pageQuery must select the rows whose id is greater than $1, ordered by id,
+     * with a limit of $2, see pageTuple.
+     * Subclasses use it to get filtered pages, or pages of a projection of the entities.
+     */
+    protected void getPage(
+            SqlClient sqlClient,
+            String pageQuery,
+            Function<Row, T> fromRow,
+            Tuple tuple,
+            int limit,
+            Handler<AsyncResult<Page<T>>> handler
+    ) {
+        PreparedQuery<RowSet<Row>> preparedQuery = sqlClient.preparedQuery(pageQuery);
+        preparedQuery.execute(
+                tuple,
+                (AsyncResult<RowSet<Row>> event) -> {
+                    if (event.failed()) {
+                        handler.handle(Future.failedFuture(event.cause()));
+                        return;
+                    }
+                    try {
+                        RowSet<Row> rowSet = event.result();
+                        List<T> entities = new ArrayList<>(rowSet.size());
+                        for (Row row : rowSet) {
+                            entities.add(fromRow.apply(row));
+                        }
+                        String nextKey = null;
+                        if (entities.size() > limit) {
+                            entities.remove(limit);
+                            nextKey = getId(entities.get(limit - 1));
+                        }
+                        handler.handle(Future.succeededFuture(new Page<>(entities, nextKey)));
+                    } catch (Throwable t) {
+                        handler.handle(Future.failedFuture(t));
+                    }
+                });
+    }
+
+    @Override
+    public void getAllAsStream(
+            SqlConnection sqlConnection,
+            int fetchSize,
+            Handler<AsyncResult<EntityStream<T>>> handler
+    ) {
+        Transaction transaction = sqlConnection.begin();
+        transaction.prepare(selectQuery + " order by id\n", (AsyncResult<PreparedStatement> event) -> {
+            if (event.failed()) {
+                handler.handle(Future.failedFuture(event.cause()));
+                return;
+            }
+            RowStream<Row> rowStream = event.result().createStream(fetchSize, Tuple.tuple());
+            handler.handle(Future.succeededFuture(new EntityStream<>(rowStream, this::fromRow)));
+        });
+    }
+
     @Override
     public void insert(
             SqlClient sqlClient,
@@ -86,7 +204,34 @@ public abstract class CrudRepositoryImpl<T> implements CrudRepository<T> {
     }
 
     @Override
-    public void update(SqlClient sqlClient, T entity, Handler<AsyncResult<Void>> handler) {
+    public void insertBatch(SqlClient sqlClient, List<T> entities, Handler<AsyncResult<List<Boolean>>> handler) {
+        if (entities.isEmpty()) {
+            handler.handle(Future.succeededFuture(new ArrayList<>()));
+            return;
+        }
+        List<Tuple> tuples = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            tuples.add(insertTuple(entity));
+        }
+        PreparedQuery<RowSet<Row>> preparedQuery = sqlClient.preparedQuery(insertQuery + " on conflict do nothing");
+        preparedQuery.executeBatch(
+                tuples,
+                (AsyncResult<RowSet<Row>> event) -> {
+                    if (event.failed()) {
+                        handler.handle(Future.failedFuture(event.cause()));
+                        return;
+                    }
+                    // executeBatch returns one result per tuple, chained with next()
+                    List<Boolean> inserted = new ArrayList<>(entities.size());
+                    for (RowSet<Row> rowSet = event.result(); rowSet != null; rowSet = rowSet.next()) {
+                        inserted.add(rowSet.rowCount() > 0);
+                    }
+                    handler.handle(Future.succeededFuture(inserted));
+                });
+    }
+
+    @Override
+    public void update(SqlClient sqlClient, T entity, Handler<AsyncResult<Integer>> handler) {
         PreparedQuery<RowSet<Row>> preparedQuery = sqlClient.preparedQuery(updateQuery);
         preparedQuery.execute(
                 updateTuple(entity),
@@ -98,7 +243,38 @@ public abstract class CrudRepositoryImpl<T> implements CrudRepository<T> {
                     try {
                         RowSet<Row> rows = event.result();
                         Row row = rows.iterator().next();
-                        handler.handle(Future.succeededFuture());
+                        handler.handle(Future.succeededFuture(row.getInteger("version")));
+                    } catch (Throwable t) {
+                        handler.handle(Future.failedFuture(t));
+                    }
+                });
+    }
+
+    @Override
+    public void updateBatch(SqlClient sqlClient, List<T> entities, Handler<AsyncResult<List<Integer>>> handler) {
+        if (entities.isEmpty()) {
+            handler.handle(Future.succeededFuture(new ArrayList<>()));
+            return;
+        }
+        List<Tuple> tuples = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            tuples.add(updateTuple(entity));
+        }
+        PreparedQuery<RowSet<Row>> preparedQuery = sqlClient.preparedQuery(updateQuery);
+        preparedQuery.executeBatch(
+                tuples,
+                (AsyncResult<RowSet<Row>> event) -> {
+                    if (event.failed()) {
+                        handler.handle(Future.failedFuture(event.cause()));
+                        return;
+                    }
+                    try {
+                        List<Integer> versions = new ArrayList<>(entities.size());
+                        for (RowSet<Row> rowSet = event.result(); rowSet != null; rowSet = rowSet.next()) {
+                            RowIterator<Row> it = rowSet.iterator();
+                            versions.add(it.hasNext() ? it.next().getInteger("version") : null);
+                        }
+                        handler.handle(Future.succeededFuture(versions));
                     } catch (Throwable t) {
                         handler.handle(Future.failedFuture(t));
                     }
@@ -107,6 +283,8 @@ public abstract class CrudRepositoryImpl<T> implements CrudRepository<T> {
 
     protected abstract T fromRow(Row row);
 
+    protected abstract String getId(T entity);
+
     protected abstract Tuple insertTuple(T entity);
 
     protected abstract Tuple updateTuple(T entity);
@@ -0,0 +1,66 @@
+package com.jb.blog.persistence;
+
+import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowStream;
+
+import java.util.function.Function;
+
+/**
+ * ReadStream of entities backed by a database cursor.
+ * Rows are fetched from the database in chunks, so only one chunk is in memory at a time.
+ */
+public class EntityStream<T> implements ReadStream<T> {
+    private final RowStream<Row> rowStream;
+    private final Function<Row, T> mapper;
+
+    public EntityStream(RowStream<Row> rowStream, Function<Row, T> mapper) {
+        this.rowStream = rowStream;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public EntityStream<T> exceptionHandler(Handler<Throwable> handler) {
+        rowStream.exceptionHandler(handler);
+        return this;
+    }
+
+    @Override
+    public EntityStream<T> handler(Handler<T> handler) {
+        if (handler == null) {
+            rowStream.handler(null);
+        } else {
+            rowStream.handler(row -> handler.handle(mapper.apply(row)));
+        }
+        return this;
+    }
+
+    @Override
+    public EntityStream<T> pause() {
+        rowStream.pause();
+        return this;
+    }
+
+    @Override
+    public EntityStream<T> resume() {
+        rowStream.resume();
+        return this;
+    }
+
+    @Override
+    public EntityStream<T> fetch(long amount) {
+        rowStream.fetch(amount);
+        return this;
+    }
+
+    @Override
+    public EntityStream<T> endHandler(Handler<Void> endHandler) {
+        rowStream.endHandler(endHandler);
+        return this;
+    }
+
+    public void close() {
+        rowStream.close();
+    }
+}
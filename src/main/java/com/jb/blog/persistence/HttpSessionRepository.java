@@ -5,13 +5,11 @@ import com.jb.blog.session.SessionConfiguration;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
-import io.vertx.core.http.impl.ServerCookie;
+import io.vertx.core.http.Cookie;
 import io.vertx.ext.web.Session;
 import io.vertx.ext.web.api.OperationRequest;
 import io.vertx.ext.web.sstore.SessionStore;
 
-import java.util.Map;
-
 public class HttpSessionRepository {
     private final SessionStore sessionStore;
     private final SessionConfiguration sessionConfiguration;
@@ -27,15 +25,8 @@ public class HttpSessionRepository {
         this.operationRequestService = operationRequestService;
     }
 
-    public void getFromOperationRequest(
-            OperationRequest operationRequest,
-            Handler<AsyncResult<Session>> handler
-    ) {
-        ServerCookie sessionCookie = getSessionCookie(operationRequest);
-        if (sessionCookie == null) {
-            handler.handle(Future.succeededFuture(null));
-        }
-        sessionStore.get(sessionCookie.getValue(), sessionStoreGetResult -> {
+    public void get(String id, Handler<AsyncResult<Session>> handler) {
+        sessionStore.get(id, sessionStoreGetResult -> {
             if (sessionStoreGetResult.failed()) {
                 handler.handle(Future.failedFuture(sessionStoreGetResult.cause()));
                 return;
@@ -45,9 +36,18 @@ public class HttpSessionRepository {
         });
     }
 
-    public ServerCookie getSessionCookie(OperationRequest operationRequest) {
-        Map<String, ServerCookie> cookies = operationRequestService.extractCookies(operationRequest);
-        return cookies.get(sessionConfiguration.sessionCookieName);
+    /**
+     * @return the value of the session cookie of the request, or null
+     */
+    public String getSessionId(OperationRequest operationRequest) {
+        return operationRequestService.getCookieValue(operationRequest, sessionConfiguration.sessionCookieName);
+    }
+
+    /**
+     * @return a cookie telling the browser to delete its session cookie
+     */
+    public Cookie createLogoutCookie(String sessionId) {
+        return Cookie.cookie(sessionConfiguration.sessionCookieName, sessionId).setMaxAge(0L);
     }
 
     public Session createSession() {
@@ -0,0 +1,25 @@
+package com.jb.blog.persistence;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * nextKey is the id of the last entity of the page, or null if there is no next page.
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final String nextKey;
+
+    public Page(List<T> items, String nextKey) {
+        this.items = items;
+        this.nextKey = nextKey;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextKey() {
+        return nextKey;
+    }
+}
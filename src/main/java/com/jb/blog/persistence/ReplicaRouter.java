@@ -0,0 +1,127 @@
+package com.jb.blog.persistence;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.sqlclient.Pool;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only queries to the read replicas, and everything else to the primary.
+ *
+ * The WAL position replayed by each replica is polled periodically. After a write, the position of the primary
+ * is stored in the session (see WRITE_LSN_SESSION_KEY), and the reads of that session only go to the replicas
+ * that have replayed it, so that users always read their own writes.
+ */
+public class ReplicaRouter {
+    public static final String WRITE_LSN_SESSION_KEY = "writeLsn";
+    private static final long UNAVAILABLE = -1;
+
+    private final Pool primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private int next = 0;
+    private long timerId = -1;
+
+    public ReplicaRouter(Pool primary, List<? extends Pool> replicaPools) {
+        this.primary = primary;
+        for (Pool replicaPool : replicaPools) {
+            replicas.add(new Replica(replicaPool));
+        }
+    }
+
+    /**
+     * Start polling the replicas, until they have been polled once, every read goes to the primary.
+     */
+    public void start(Vertx vertx, long pollIntervalMillis) {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        pollReplicas();
+        timerId = vertx.setPeriodic(pollIntervalMillis, id -> pollReplicas());
+    }
+
+    public void stop(Vertx vertx) {
+        if (timerId != -1) {
+            vertx.cancelTimer(timerId);
+        }
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    public Pool getPrimary() {
+        return primary;
+    }
+
+    /**
+     * @param minLsn the WAL position the replica must have replayed, or null if any replica will do
+     * @return a replica that has replayed minLsn, or the primary if there is none
+     */
+    public SqlClient getReadClient(Long minLsn) {
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(next);
+            next = (next + 1) % replicas.size();
+            if (replica.replayedLsn != UNAVAILABLE && (minLsn == null || replica.replayedLsn >= minLsn)) {
+                return replica.pool;
+            }
+        }
+        return primary;
+    }
+
+    /**
+     * Get the current WAL position of the primary, to be called after a write has been committed.
+     * The handler receives null if there is no replica, in which case there's nothing to track.
+     */
+    public void getWriteLsn(Handler<AsyncResult<Long>> handler) {
+        if (replicas.isEmpty()) {
+            handler.handle(Future.succeededFuture(null));
+            return;
+        }
+        primary.query("select (pg_current_wal_lsn() - '0/0')::bigint lsn")
+                .execute((AsyncResult<RowSet<Row>> event) -> {
+                    if (event.failed()) {
+                        handler.handle(Future.failedFuture(event.cause()));
+                        return;
+                    }
+                    handler.handle(Future.succeededFuture(event.result().iterator().next().getLong("lsn")));
+                });
+    }
+
+    private void pollReplicas() {
+        for (Replica replica : replicas) {
+            replica.pool.query("select (pg_last_wal_replay_lsn() - '0/0')::bigint lsn")
+                    .execute((AsyncResult<RowSet<Row>> event) -> {
+                        if (event.failed()) {
+                            replica.replayedLsn = UNAVAILABLE;
+                            return;
+                        }
+                        Long lsn = event.result().iterator().next().getLong("lsn");
+                        // null when the server is not a replica
+                        replica.replayedLsn = lsn == null ? UNAVAILABLE : lsn;
+                    });
+        }
+    }
+
+    void setReplayedLsn(int replicaIndex, long lsn) {
+        replicas.get(replicaIndex).replayedLsn = lsn;
+    }
+
+    private static class Replica {
+        final Pool pool;
+        volatile long replayedLsn = UNAVAILABLE;
+
+        Replica(Pool pool) {
+            this.pool = pool;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.jb.blog.persistence.article;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The fields of an article that can be selected, so that large columns are only read when needed.
+ * The id and the version are always selected, they identify the article and its version.
+ */
+public enum ArticleField {
+    ID("id", null),
+    TITLE("title", "article.title article_title"),
+    CONTENT("content", "article.content article_content"),
+    AUTHOR("author", "appuser.username user_username"),
+    VERSION("version", null);
+
+    public static final Set<ArticleField> ALL = Collections.unmodifiableSet(EnumSet.allOf(ArticleField.class));
+    /**
+     * What list views need: everything but the content.
+     */
+    public static final Set<ArticleField> SUMMARY = Collections.unmodifiableSet(EnumSet.of(ID, TITLE, AUTHOR, VERSION));
+
+    private final String name;
+    private final String column;
+
+    ArticleField(String name, String column) {
+        this.name = name;
+        this.column = column;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the column to add to the select clause, or null if it's always selected
+     */
+    String getColumn() {
+        return column;
+    }
+
+    /**
+     * @return the field named name in the API, or null if there is none
+     */
+    public static ArticleField fromName(String name) {
+        for (ArticleField field : values()) {
+            if (field.name.equals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
@@ -1,7 +1,85 @@
 package com.jb.blog.persistence.article;
 
+import com.jb.blog.persistence.ConditionalUpdateResult;
 import com.jb.blog.persistence.CrudRepository;
+import com.jb.blog.persistence.Page;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.sqlclient.SqlClient;
 import org.openapitools.vertxweb.server.model.Article;
+import org.openapitools.vertxweb.server.model.ArticleSearchResult;
+
+import java.util.Set;
 
 public interface ArticleRepository extends CrudRepository<Article> {
+    /**
+     * Update the title and content of an article in a single statement, if its version is expectedVersion.
+     * @param expectedVersion null to update whatever the current version is
+     */
+    void updateIfVersion(
+            SqlClient sqlClient,
+            Article article,
+            Integer expectedVersion,
+            Handler<AsyncResult<ConditionalUpdateResult>> handler
+    );
+
+    /**
+     * Get the version of an article without fetching its content, the handler receives null
+     * if it doesn't exist.
+     */
+    void getVersion(SqlClient sqlClient, String id, Handler<AsyncResult<Integer>> handler);
+
+    /**
+     * Same as getPage, but only the ids and versions of the articles are fetched.
+     */
+    void getVersionPage(SqlClient sqlClient, String afterId, int limit, Handler<AsyncResult<Page<Article>>> handler);
+
+    /**
+     * Full-text search on the title and content of the articles, best matches first.
+     * Results are paginated on (rank, id): afterRank and afterId are those of the last result of the previous page,
+     * or null for the first page.
+     */
+    void search(
+            SqlClient sqlClient,
+            String query,
+            Float afterRank,
+            String afterId,
+            int limit,
+            Handler<AsyncResult<Page<ArticleSearchResult>>> handler
+    );
+
+    /**
+     * Same as getById, but only the given fields are read, the others are null.
+     */
+    void getById(SqlClient sqlClient, String id, Set<ArticleField> fields, Handler<AsyncResult<Article>> handler);
+
+    /**
+     * Same as getPage, but only the given fields are read, the others are null.
+     */
+    void getPage(
+            SqlClient sqlClient,
+            String afterId,
+            int limit,
+            Set<ArticleField> fields,
+            Handler<AsyncResult<Page<Article>>> handler
+    );
+
+    /**
+     * Same as getPage, but only the articles written by authorId.
+     */
+    void getPageByAuthor(
+            SqlClient sqlClient,
+            String authorId,
+            String afterId,
+            int limit,
+            Set<ArticleField> fields,
+            Handler<AsyncResult<Page<Article>>> handler
+    );
+
+    /**
+     * insertBatch and updateBatch run in the transaction of the caller, which reports each article written
+     * once it's committed, e.g. so that the cache in front of the repository drops it.
+     * @param version the new version of the article, null if it was inserted
+     */
+    void committed(String id, Integer version);
 }
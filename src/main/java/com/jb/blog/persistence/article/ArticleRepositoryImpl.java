@@ -1,34 +1,280 @@
 package com.jb.blog.persistence.article;
 
+import com.jb.blog.persistence.ConditionalUpdateResult;
 import com.jb.blog.persistence.CrudRepositoryImpl;
+import com.jb.blog.persistence.Page;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import org.openapitools.vertxweb.server.model.Article;
+import org.openapitools.vertxweb.server.model.ArticleSearchResult;
 import io.vertx.sqlclient.*;
 import org.openapitools.vertxweb.server.model.User;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
 public class ArticleRepositoryImpl extends CrudRepositoryImpl<Article> implements ArticleRepository {
+    // The outer select sees the table as it was before the update, so current_version tells apart
+    // an article that doesn't exist from one that is at another version
+    private static final String UPDATE_IF_VERSION_QUERY =
+            "with updated as (\n" +
+                    "    update article set title = $1, content = $2, version = version + 1\n" +
+                    "    where id = $3 and ($4::int is null or version = $4::int)\n" +
+                    "    returning version\n" +
+                    ")\n" +
+                    "select (select version from updated) new_version,\n" +
+                    "       (select version from article where id = $3) current_version\n";
+    private static final String SELECT_QUERY =
+            "select article.id article_id, article.title article_title, article.content article_content,\n" +
+                    "       article.version article_version, appuser.username user_username\n" +
+                    "from article\n" +
+                    "         join appuser on article.author_id = appuser.username\n";
+    private static final String SELECT_VERSION_QUERY = "select article.id article_id, article.version article_version\n" +
+            "from article\n";
+    // The GIN index on search_vector finds the matches, and ts_headline, which is slow because it parses
+    // the whole content, is only called on the articles of the page
+    private static final String SEARCH_QUERY =
+            "select hit.id article_id, hit.rank article_rank, article.title article_title,\n" +
+                    "       article.version article_version, article.author_id user_username,\n" +
+                    "       ts_headline('english', article.content, hit.query,\n" +
+                    "                   'StartSel=<mark>, StopSel=</mark>, MaxFragments=2') article_snippet\n" +
+                    "from (\n" +
+                    "    select article.id, ts_rank(article.search_vector, query) rank, query\n" +
+                    "    from article, websearch_to_tsquery('english', $1) query\n" +
+                    "    where article.search_vector @@ query\n" +
+                    "      and ($2::real is null or (ts_rank(article.search_vector, query), article.id) < ($2::real, $3))\n" +
+                    "    order by rank desc, article.id desc\n" +
+                    "    limit $4\n" +
+                    ") hit\n" +
+                    "         join article on article.id = hit.id\n" +
+                    "order by hit.rank desc, hit.id desc\n";
+
     public ArticleRepositoryImpl() {
         super(
-                "select article.id article_id, article.title article_title, article.content article_content, appuser.username user_username\n" +
-                        "from article\n" +
-                        "         join appuser on article.author_id = appuser.username\n",
+                SELECT_QUERY,
                 "insert into article(id, title, content, author_id) values ($1, $2, $3, $4)",
                 "update article set title = $1, content = $2, version = version + 1 where id = $3 returning version"
         );
     }
 
 
+    @Override
+    public void updateIfVersion(
+            SqlClient sqlClient,
+            Article article,
+            Integer expectedVersion,
+            Handler<AsyncResult<ConditionalUpdateResult>> handler
+    ) {
+        PreparedQuery<RowSet<Row>> preparedQuery = sqlClient.preparedQuery(UPDATE_IF_VERSION_QUERY);
+        preparedQuery.execute(
+                Tuple.of(article.getTitle(), article.getContent(), article.getId(), expectedVersion),
+                (AsyncResult<RowSet<Row>> event) -> {
+                    if (event.failed()) {
+                        handler.handle(Future.failedFuture(event.cause()));
+                        return;
+                    }
+                    try {
+                        Row row = event.result().iterator().next();
+                        Integer newVersion = row.getInteger("new_version");
+                        Integer currentVersion = row.getInteger("current_version");
+                        ConditionalUpdateResult result;
+                        if (newVersion != null) {
+                            result = new ConditionalUpdateResult(ConditionalUpdateResult.Status.UPDATED, newVersion);
+                        } else if (currentVersion == null) {
+                            result = new ConditionalUpdateResult(ConditionalUpdateResult.Status.NOT_FOUND, null);
+                        } else {
+                            result = new ConditionalUpdateResult(
+                                    ConditionalUpdateResult.Status.VERSION_MISMATCH,
+                                    currentVersion
+                            );
+                        }
+                        handler.handle(Future.succeededFuture(result));
+                    } catch (Throwable t) {
+                        handler.handle(Future.failedFuture(t));
+                    }
+                });
+    }
+
+    @Override
+    public void getVersion(SqlClient sqlClient, String id, Handler<AsyncResult<Integer>> handler) {
+        PreparedQuery<RowSet<Row>> preparedQuery = sqlClient.preparedQuery(SELECT_VERSION_QUERY + " where id = $1\n");
+        preparedQuery.execute(
+                Tuple.of(id),
+                (AsyncResult<RowSet<Row>> event) -> {
+                    if (event.failed()) {
+                        handler.handle(Future.failedFuture(event.cause()));
+                        return;
+                    }
+                    RowIterator<Row> it = event.result().iterator();
+                    handler.handle(Future.succeededFuture(it.hasNext() ? it.next().getInteger("article_version") : null));
+                });
+    }
+
+    @Override
+    public void getVersionPage(
+            SqlClient sqlClient,
+            String afterId,
+            int limit,
+            Handler<AsyncResult<Page<Article>>> handler
+    ) {
+        getPage(
+                sqlClient,
+                SELECT_VERSION_QUERY + " where id > $1 order by id limit $2\n",
+                this::versionFromRow,
+                pageTuple(afterId, limit),
+                limit,
+                handler
+        );
+    }
+
+    @Override
+    public void search(
+            SqlClient sqlClient,
+            String query,
+            Float afterRank,
+            String afterId,
+            int limit,
+            Handler<AsyncResult<Page<ArticleSearchResult>>> handler
+    ) {
+        PreparedQuery<RowSet<Row>> preparedQuery = sqlClient.preparedQuery(SEARCH_QUERY);
+        // We fetch one more row than requested to know if there is a next page
+        preparedQuery.execute(
+                Tuple.of(query, afterRank, afterId == null ? "" : afterId, (long) limit + 1),
+                (AsyncResult<RowSet<Row>> event) -> {
+                    if (event.failed()) {
+                        handler.handle(Future.failedFuture(event.cause()));
+                        return;
+                    }
+                    try {
+                        List<ArticleSearchResult> results = new ArrayList<>();
+                        for (Row row : event.result()) {
+                            User author = new User();
+                            author.setUsername(row.getString("user_username"));
+                            results.add(new ArticleSearchResult(
+                                    row.getString("article_id"),
+                                    row.getString("article_title"),
+                                    row.getString("article_snippet"),
+                                    author,
+                                    row.getInteger("article_version"),
+                                    row.getFloat("article_rank")
+                            ));
+                        }
+                        String nextKey = null;
+                        if (results.size() > limit) {
+                            results.remove(limit);
+                            nextKey = results.get(limit - 1).getId();
+                        }
+                        handler.handle(Future.succeededFuture(new Page<>(results, nextKey)));
+                    } catch (Throwable t) {
+                        handler.handle(Future.failedFuture(t));
+                    }
+                });
+    }
+
+    @Override
+    public void getById(SqlClient sqlClient, String id, Set<ArticleField> fields, Handler<AsyncResult<Article>> handler) {
+        getOne(
+                sqlClient,
+                selectQuery(fields) + " where article.id = $1\n",
+                row -> fromRow(row, fields),
+                Tuple.of(id),
+                handler
+        );
+    }
+
+    @Override
+    public void getPage(
+            SqlClient sqlClient,
+            String afterId,
+            int limit,
+            Set<ArticleField> fields,
+            Handler<AsyncResult<Page<Article>>> handler
+    ) {
+        getPage(
+                sqlClient,
+                selectQuery(fields) + " where article.id > $1 order by article.id limit $2\n",
+                row -> fromRow(row, fields),
+                pageTuple(afterId, limit),
+                limit,
+                handler
+        );
+    }
+
+    @Override
+    public void getPageByAuthor(
+            SqlClient sqlClient,
+            String authorId,
+            String afterId,
+            int limit,
+            Set<ArticleField> fields,
+            Handler<AsyncResult<Page<Article>>> handler
+    ) {
+        // A range scan on the (author_id, id) index
+        getPage(
+                sqlClient,
+                selectQuery(fields) +
+                        " where article.author_id = $3 and article.id > $1 order by article.id limit $2\n",
+                row -> fromRow(row, fields),
+                pageTuple(afterId, limit).addString(authorId),
+                limit,
+                handler
+        );
+    }
+
+    private Article versionFromRow(Row row) {
+        Article article = new Article();
+        article.setId(row.getString("article_id"));
+        article.setVersion(row.getInteger("article_version"));
+        return article;
+    }
+
     @Override
     protected Article fromRow(Row row) {
+        return fromRow(row, ArticleField.ALL);
+    }
+
+    private static String selectQuery(Set<ArticleField> fields) {
+        StringBuilder query = new StringBuilder("select article.id article_id, article.version article_version");
+        for (ArticleField field : fields) {
+            if (field.getColumn() != null) {
+                query.append(", ").append(field.getColumn());
+            }
+        }
+        query.append("\nfrom article\n");
+        query.append("         join appuser on article.author_id = appuser.username\n");
+        return query.toString();
+    }
+
+    private static Article fromRow(Row row, Set<ArticleField> fields) {
         Article article = new Article();
         article.setId(row.getString("article_id"));
-        article.setTitle(row.getString("article_title"));
-        article.setContent(row.getString("article_content"));
-        User user = new User();
-        user.setUsername(row.getString("user_username"));
-        article.setAuthor(user);
+        article.setVersion(row.getInteger("article_version"));
+        if (fields.contains(ArticleField.TITLE)) {
+            article.setTitle(row.getString("article_title"));
+        }
+        if (fields.contains(ArticleField.CONTENT)) {
+            article.setContent(row.getString("article_content"));
+        }
+        if (fields.contains(ArticleField.AUTHOR)) {
+            User user = new User();
+            user.setUsername(row.getString("user_username"));
+            article.setAuthor(user);
+        }
         return article;
     }
 
+    @Override
+    public void committed(String id, Integer version) {
+        // Nothing is cached
+    }
+
+    @Override
+    protected String getId(Article entity) {
+        return entity.getId();
+    }
+
     protected Tuple insertTuple(Article entity) {
         return Tuple.of(entity.getId(), entity.getTitle(), entity.getContent(), entity.getAuthor().getUsername());
     }
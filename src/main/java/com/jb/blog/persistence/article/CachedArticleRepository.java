@@ -0,0 +1,395 @@
+package com.jb.blog.persistence.article;
+
+import com.jb.blog.persistence.ConditionalUpdateResult;
+import com.jb.blog.persistence.EntityStream;
+import com.jb.blog.persistence.Page;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.sqlclient.SqlClient;
+import io.vertx.sqlclient.SqlConnection;
+import org.openapitools.vertxweb.server.model.Article;
+import org.openapitools.vertxweb.server.model.ArticleSearchResult;
+import org.openapitools.vertxweb.server.model.User;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through cache in front of an ArticleRepository, for getById and getVersion only.
+ * Entries are evicted when the cache is full (least recently used first) or when they are older than ttlMillis.
+ *
+ * When an article is updated, its entry is replaced by a tombstone holding the new version,
+ * so that a getById started before the update can't put the old version back in the cache.
+ *
+ * When several processes have a cache, the invalidation listener lets the writes made through one of them
+ * invalidate the caches of the others.
+ */
+public class CachedArticleRepository implements ArticleRepository {
+    private final ArticleRepository articleRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries;
+    private volatile BiConsumer<String, Integer> invalidationListener = (id, version) -> { };
+
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    public CachedArticleRepository(ArticleRepository articleRepository, int maxSize, long ttlMillis) {
+        this(articleRepository, maxSize, ttlMillis, System::nanoTime);
+    }
+
+    CachedArticleRepository(ArticleRepository articleRepository, int maxSize, long ttlMillis, LongSupplier clock) {
+        this.articleRepository = articleRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @Override
+    public void getById(SqlClient sqlClient, String id, Handler<AsyncResult<Article>> handler) {
+        Article cached = getIfPresent(id);
+        if (cached != null) {
+            handler.handle(Future.succeededFuture(cached));
+            return;
+        }
+        articleRepository.getById(sqlClient, id, getByIdResult -> {
+            if (getByIdResult.succeeded() && getByIdResult.result() != null) {
+                put(getByIdResult.result());
+            }
+            handler.handle(getByIdResult);
+        });
+    }
+
+    @Override
+    public void getByIds(SqlClient sqlClient, List<String> ids, Handler<AsyncResult<List<Article>>> handler) {
+        List<Article> articles = new ArrayList<>(ids.size());
+        List<String> missingIds = new ArrayList<>();
+        for (String id : ids) {
+            Article cached = getIfPresent(id);
+            if (cached != null) {
+                articles.add(cached);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        if (missingIds.isEmpty()) {
+            handler.handle(Future.succeededFuture(articles));
+            return;
+        }
+        articleRepository.getByIds(sqlClient, missingIds, getByIdsResult -> {
+            if (getByIdsResult.failed()) {
+                handler.handle(getByIdsResult);
+                return;
+            }
+            for (Article article : getByIdsResult.result()) {
+                put(article);
+                articles.add(article);
+            }
+            handler.handle(Future.succeededFuture(articles));
+        });
+    }
+
+    @Override
+    public void getAll(SqlClient sqlClient, Handler<AsyncResult<List<Article>>> handler) {
+        articleRepository.getAll(sqlClient, handler);
+    }
+
+    @Override
+    public void getPage(SqlClient sqlClient, String afterId, int limit, Handler<AsyncResult<Page<Article>>> handler) {
+        articleRepository.getPage(sqlClient, afterId, limit, handler);
+    }
+
+    @Override
+    public void getAllAsStream(
+            SqlConnection sqlConnection,
+            int fetchSize,
+            Handler<AsyncResult<EntityStream<Article>>> handler
+    ) {
+        articleRepository.getAllAsStream(sqlConnection, fetchSize, handler);
+    }
+
+    @Override
+    public void getVersion(SqlClient sqlClient, String id, Handler<AsyncResult<Integer>> handler) {
+        Integer cachedVersion = getVersionIfPresent(id);
+        if (cachedVersion != null) {
+            handler.handle(Future.succeededFuture(cachedVersion));
+            return;
+        }
+        articleRepository.getVersion(sqlClient, id, handler);
+    }
+
+    @Override
+    public void getVersionPage(
+            SqlClient sqlClient,
+            String afterId,
+            int limit,
+            Handler<AsyncResult<Page<Article>>> handler
+    ) {
+        articleRepository.getVersionPage(sqlClient, afterId, limit, handler);
+    }
+
+    /**
+     * Only full articles are cached, but a projection can be served from them.
+     */
+    @Override
+    public void getById(SqlClient sqlClient, String id, Set<ArticleField> fields, Handler<AsyncResult<Article>> handler) {
+        if (fields.containsAll(ArticleField.ALL)) {
+            getById(sqlClient, id, handler);
+            return;
+        }
+        Article cached = getIfPresent(id);
+        if (cached != null) {
+            handler.handle(Future.succeededFuture(project(cached, fields)));
+            return;
+        }
+        articleRepository.getById(sqlClient, id, fields, handler);
+    }
+
+    @Override
+    public void getPage(
+            SqlClient sqlClient,
+            String afterId,
+            int limit,
+            Set<ArticleField> fields,
+            Handler<AsyncResult<Page<Article>>> handler
+    ) {
+        articleRepository.getPage(sqlClient, afterId, limit, fields, handler);
+    }
+
+    @Override
+    public void getPageByAuthor(
+            SqlClient sqlClient,
+            String authorId,
+            String afterId,
+            int limit,
+            Set<ArticleField> fields,
+            Handler<AsyncResult<Page<Article>>> handler
+    ) {
+        articleRepository.getPageByAuthor(sqlClient, authorId, afterId, limit, fields, handler);
+    }
+
+    @Override
+    public void search(
+            SqlClient sqlClient,
+            String query,
+            Float afterRank,
+            String afterId,
+            int limit,
+            Handler<AsyncResult<Page<ArticleSearchResult>>> handler
+    ) {
+        articleRepository.search(sqlClient, query, afterRank, afterId, limit, handler);
+    }
+
+    @Override
+    public void insert(SqlClient sqlClient, Article entity, Handler<AsyncResult<Void>> handler) {
+        articleRepository.insert(sqlClient, entity, insertResult -> {
+            if (insertResult.succeeded()) {
+                invalidateAndNotify(entity.getId(), null);
+            }
+            handler.handle(insertResult);
+        });
+    }
+
+    /**
+     * Nothing is invalidated until the transaction is committed, see committed().
+     */
+    @Override
+    public void insertBatch(SqlClient sqlClient, List<Article> entities, Handler<AsyncResult<List<Boolean>>> handler) {
+        articleRepository.insertBatch(sqlClient, entities, handler);
+    }
+
+    @Override
+    public void update(SqlClient sqlClient, Article entity, Handler<AsyncResult<Integer>> handler) {
+        articleRepository.update(sqlClient, entity, updateResult -> {
+            if (updateResult.succeeded()) {
+                invalidateAndNotify(entity.getId(), updateResult.result());
+            }
+            handler.handle(updateResult);
+        });
+    }
+
+    /**
+     * Nothing is invalidated until the transaction is committed, see committed(): on a rollback,
+     * the tombstones would hold versions that don't exist.
+     */
+    @Override
+    public void updateBatch(SqlClient sqlClient, List<Article> entities, Handler<AsyncResult<List<Integer>>> handler) {
+        articleRepository.updateBatch(sqlClient, entities, handler);
+    }
+
+    @Override
+    public void committed(String id, Integer version) {
+        invalidateAndNotify(id, version);
+    }
+
+    @Override
+    public void updateIfVersion(
+            SqlClient sqlClient,
+            Article article,
+            Integer expectedVersion,
+            Handler<AsyncResult<ConditionalUpdateResult>> handler
+    ) {
+        articleRepository.updateIfVersion(sqlClient, article, expectedVersion, updateResult -> {
+            if (updateResult.succeeded()) {
+                ConditionalUpdateResult result = updateResult.result();
+                if (result.getStatus() == ConditionalUpdateResult.Status.NOT_FOUND) {
+                    invalidateAndNotify(article.getId(), null);
+                } else {
+                    // On a mismatch, the cached entry may be older than the current version
+                    invalidateAndNotify(article.getId(), result.getVersion());
+                }
+            }
+            handler.handle(updateResult);
+        });
+    }
+
+    /**
+     * @param invalidationListener called with the id and the new version (null if unknown) of the articles
+     *                             written through this repository
+     */
+    public void setInvalidationListener(BiConsumer<String, Integer> invalidationListener) {
+        this.invalidationListener = invalidationListener;
+    }
+
+    synchronized Article getIfPresent(String id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        if (isExpired(entry)) {
+            entries.remove(id);
+            evictionCount++;
+            missCount++;
+            return null;
+        }
+        if (entry.article == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return copy(entry.article);
+    }
+
+    /**
+     * Tombstones count too, they hold the version of the last update.
+     */
+    synchronized Integer getVersionIfPresent(String id) {
+        Entry entry = entries.get(id);
+        if (entry == null || entry.version == null || isExpired(entry)) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.version;
+    }
+
+    synchronized void put(Article article) {
+        Entry existing = entries.get(article.getId());
+        if (existing != null && !isExpired(existing) && isNewer(existing.version, article.getVersion())) {
+            // The article was updated while we were reading it
+            return;
+        }
+        entries.put(article.getId(), new Entry(copy(article), article.getVersion(), clock.getAsLong()));
+        evictIfFull();
+    }
+
+    /**
+     * @param newVersion the version of the article after the write, or null if unknown
+     */
+    public synchronized void invalidate(String id, Integer newVersion) {
+        if (newVersion == null) {
+            entries.remove(id);
+            return;
+        }
+        entries.put(id, new Entry(null, newVersion, clock.getAsLong()));
+        evictIfFull();
+    }
+
+    private void invalidateAndNotify(String id, Integer newVersion) {
+        invalidate(id, newVersion);
+        invalidationListener.accept(id, newVersion);
+    }
+
+    private void evictIfFull() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictionCount++;
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return clock.getAsLong() - entry.createdAt > ttlNanos;
+    }
+
+    /**
+     * Articles are mutable, so callers never get the cached instance.
+     */
+    private static Article copy(Article article) {
+        User author = article.getAuthor();
+        return new Article(
+                article.getId(),
+                article.getTitle(),
+                article.getContent(),
+                author == null ? null : new User(author.getUsername(), author.getPassword(), author.getVersion()),
+                article.getVersion()
+        );
+    }
+
+    private static Article project(Article article, Set<ArticleField> fields) {
+        if (!fields.contains(ArticleField.TITLE)) {
+            article.setTitle(null);
+        }
+        if (!fields.contains(ArticleField.CONTENT)) {
+            article.setContent(null);
+        }
+        if (!fields.contains(ArticleField.AUTHOR)) {
+            article.setAuthor(null);
+        }
+        return article;
+    }
+
+    private static boolean isNewer(Integer version, Integer otherVersion) {
+        return version != null && (otherVersion == null || version > otherVersion);
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static class Entry {
+        final Article article;
+        final Integer version;
+        final long createdAt;
+
+        Entry(Article article, Integer version, long createdAt) {
+            this.article = article;
+            this.version = version;
+            this.createdAt = createdAt;
+        }
+    }
+}
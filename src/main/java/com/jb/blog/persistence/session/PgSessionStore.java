@@ -0,0 +1,301 @@
+package com.jb.blog.persistence.session;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.PRNG;
+import io.vertx.ext.web.Session;
+import io.vertx.ext.web.sstore.SessionStore;
+import io.vertx.ext.web.sstore.impl.SharedDataSessionImpl;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.pgclient.PgPool;
+import io.vertx.sqlclient.PoolOptions;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlClient;
+import io.vertx.sqlclient.Tuple;
+
+import java.util.function.LongSupplier;
+
+/**
+ * SessionStore on the http_session table, so that sessions survive restarts and are shared by all the processes.
+ *
+ * Reads go through a SessionNearCache first. A put of a session whose data didn't change since it was cached
+ * is skipped, unless it would push its expiry back by a tenth of its timeout or more.
+ * Like the stores of Vert.x, a put fails with "Version mismatch" if the session was written since it was read.
+ *
+ * Expired rows are never returned, and are deleted in batches by the sweeper, see startSweeper().
+ *
+ * The constructor shares the pool and the near cache of the application. A store created with create() or init()
+ * opens its own pool and near cache from its options, see init().
+ */
+public class PgSessionStore implements SessionStore {
+    private final LongSupplier clock;
+    private Vertx vertx;
+    private SqlClient sqlClient;
+    private SessionNearCache nearCache;
+    private PRNG prng;
+    private PgPool ownPool;
+    private long sweepTimerId = -1;
+
+    /**
+     * To be initialized with init().
+     */
+    public PgSessionStore() {
+        this.clock = System::currentTimeMillis;
+    }
+
+    public PgSessionStore(Vertx vertx, SqlClient sqlClient, SessionNearCache nearCache) {
+        this(vertx, sqlClient, nearCache, System::currentTimeMillis);
+    }
+
+    PgSessionStore(Vertx vertx, SqlClient sqlClient, SessionNearCache nearCache, LongSupplier clock) {
+        this.vertx = vertx;
+        this.sqlClient = sqlClient;
+        this.nearCache = nearCache;
+        this.clock = clock;
+        this.prng = new PRNG(vertx);
+    }
+
+    /**
+     * @see #init(Vertx, JsonObject)
+     */
+    public static PgSessionStore create(Vertx vertx, JsonObject options) {
+        PgSessionStore pgSessionStore = new PgSessionStore();
+        pgSessionStore.init(vertx, options);
+        return pgSessionStore;
+    }
+
+    /**
+     * Only one store per process needs to sweep, and the sweepers of several processes don't wait for each other.
+     */
+    public void startSweeper(long intervalMillis, int batchSize) {
+        sweepTimerId = vertx.setPeriodic(intervalMillis, timerId -> sweep(batchSize, sweepResult -> {
+            if (sweepResult.failed()) {
+                sweepResult.cause().printStackTrace();
+            }
+        }));
+    }
+
+    /**
+     * Deletes the expired sessions, batchSize rows per statement, until there are none left.
+     */
+    void sweep(int batchSize, Handler<AsyncResult<Void>> handler) {
+        sqlClient.preparedQuery(
+                "delete from http_session where id in (" +
+                        "select id from http_session where expires_at <= $1 limit $2 for update skip locked" +
+                        ")"
+        ).execute(Tuple.of(clock.getAsLong(), batchSize), deleteResult -> {
+            if (deleteResult.failed()) {
+                handler.handle(Future.failedFuture(deleteResult.cause()));
+                return;
+            }
+            if (deleteResult.result().rowCount() < batchSize) {
+                handler.handle(Future.succeededFuture());
+                return;
+            }
+            sweep(batchSize, handler);
+        });
+    }
+
+    /**
+     * Options, like the sessionStore block of the configuration:
+     * database (see PgConnectOptions), pool (see PoolOptions, maxSize 5 by default),
+     * nearCacheMaxSize and nearCacheTtlMillis, sweepIntervalMillis (0 not to sweep) and sweepBatchSize.
+     *
+     * The near cache isn't invalidated by the other stores, a session may be stale for up to nearCacheTtlMillis.
+     */
+    @Override
+    public SessionStore init(Vertx vertx, JsonObject options) {
+        this.vertx = vertx;
+        ownPool = PgPool.pool(
+                vertx,
+                new PgConnectOptions(options.getJsonObject("database", new JsonObject())),
+                new PoolOptions(options.getJsonObject("pool", new JsonObject().put("maxSize", 5)))
+        );
+        sqlClient = ownPool;
+        nearCache = new SessionNearCache(
+                options.getInteger("nearCacheMaxSize", 10000),
+                options.getLong("nearCacheTtlMillis", 1000L)
+        );
+        prng = new PRNG(vertx);
+        long sweepIntervalMillis = options.getLong("sweepIntervalMillis", 60000L);
+        if (sweepIntervalMillis > 0) {
+            startSweeper(sweepIntervalMillis, options.getInteger("sweepBatchSize", 1000));
+        }
+        return this;
+    }
+
+    @Override
+    public long retryTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Session createSession(long timeout) {
+        return createSession(timeout, DEFAULT_SESSIONID_LENGTH);
+    }
+
+    @Override
+    public Session createSession(long timeout, int length) {
+        return new SharedDataSessionImpl(prng, timeout, length);
+    }
+
+    @Override
+    public void get(String id, Handler<AsyncResult<Session>> handler) {
+        long now = clock.getAsLong();
+        SharedDataSessionImpl cached = nearCache.get(id, now);
+        if (cached != null) {
+            cached.setPRNG(prng);
+            handler.handle(Future.succeededFuture(cached));
+            return;
+        }
+        sqlClient.preparedQuery(
+                "select data from http_session where id = $1 and expires_at > $2"
+        ).execute(Tuple.of(id, now), selectResult -> {
+            if (selectResult.failed()) {
+                handler.handle(Future.failedFuture(selectResult.cause()));
+                return;
+            }
+            RowSet<Row> rowSet = selectResult.result();
+            if (rowSet.size() == 0) {
+                handler.handle(Future.succeededFuture());
+                return;
+            }
+            SharedDataSessionImpl session = new SharedDataSessionImpl(prng);
+            session.readFromBuffer(0, rowSet.iterator().next().getBuffer("data"));
+            nearCache.put(session);
+            handler.handle(Future.succeededFuture(session));
+        });
+    }
+
+    @Override
+    public void delete(String id, Handler<AsyncResult<Void>> handler) {
+        sqlClient.preparedQuery("delete from http_session where id = $1").execute(Tuple.of(id), deleteResult -> {
+            if (deleteResult.failed()) {
+                handler.handle(Future.failedFuture(deleteResult.cause()));
+                return;
+            }
+            nearCache.invalidateAndNotify(id, null);
+            handler.handle(Future.succeededFuture());
+        });
+    }
+
+    @Override
+    public void put(Session session, Handler<AsyncResult<Void>> handler) {
+        SharedDataSessionImpl sharedDataSession = (SharedDataSessionImpl) session;
+        if (nearCache.isUnchanged(sharedDataSession)) {
+            handler.handle(Future.succeededFuture());
+            return;
+        }
+        // The row gets the next version, the session itself only once the row is written:
+        // after a mismatch or a failure, it can be put again with the version it was read with
+        int expectedVersion = sharedDataSession.version();
+        int version = expectedVersion + 1;
+        Buffer buffer = writeNextVersionToBuffer(sharedDataSession);
+        sqlClient.preparedQuery(
+                "insert into http_session(id, username, data, version, expires_at) values ($1, $2, $3, $4, $5) " +
+                        "on conflict (id) do update set username = excluded.username, data = excluded.data, " +
+                        "version = excluded.version, expires_at = excluded.expires_at " +
+                        "where http_session.version = $6"
+        ).execute(Tuple.of(
+                session.id(),
+                session.get("username"),
+                buffer,
+                version,
+                session.lastAccessed() + session.timeout(),
+                expectedVersion
+        ), upsertResult -> {
+            if (upsertResult.failed()) {
+                handler.handle(Future.failedFuture(upsertResult.cause()));
+                return;
+            }
+            if (upsertResult.result().rowCount() == 0) {
+                // Our cached copy, if any, is older than the row
+                nearCache.invalidate(session.id(), null);
+                handler.handle(Future.failedFuture("Version mismatch"));
+                return;
+            }
+            // incrementVersion() does nothing if the data didn't change since the session was read,
+            // the session is then read back from what was written to get the version of the row
+            sharedDataSession.incrementVersion();
+            if (sharedDataSession.version() != version) {
+                sharedDataSession.readFromBuffer(0, buffer);
+            }
+            nearCache.putAndNotify(
+                    session.id(),
+                    version,
+                    session.lastAccessed(),
+                    session.timeout(),
+                    buffer
+            );
+            handler.handle(Future.succeededFuture());
+        });
+    }
+
+    /**
+     * The buffer holds the version of the session, so it's written from a copy of the session with the next version.
+     */
+    private Buffer writeNextVersionToBuffer(SharedDataSessionImpl session) {
+        Buffer current = Buffer.buffer();
+        session.writeToBuffer(current);
+        VersionedSession copy = new VersionedSession(prng);
+        copy.readFromBuffer(0, current);
+        copy.setVersion(session.version() + 1);
+        Buffer buffer = Buffer.buffer();
+        copy.writeToBuffer(buffer);
+        return buffer;
+    }
+
+    /**
+     * The version of a SharedDataSessionImpl can only be set by a subclass.
+     */
+    private static class VersionedSession extends SharedDataSessionImpl {
+        VersionedSession(PRNG prng) {
+            super(prng);
+        }
+
+        @Override
+        protected void setVersion(int version) {
+            super.setVersion(version);
+        }
+    }
+
+    @Override
+    public void clear(Handler<AsyncResult<Void>> handler) {
+        sqlClient.query("delete from http_session").execute(deleteResult -> {
+            if (deleteResult.failed()) {
+                handler.handle(Future.failedFuture(deleteResult.cause()));
+                return;
+            }
+            handler.handle(Future.succeededFuture());
+        });
+    }
+
+    @Override
+    public void size(Handler<AsyncResult<Integer>> handler) {
+        sqlClient.preparedQuery(
+                "select count(*) from http_session where expires_at > $1"
+        ).execute(Tuple.of(clock.getAsLong()), countResult -> {
+            if (countResult.failed()) {
+                handler.handle(Future.failedFuture(countResult.cause()));
+                return;
+            }
+            handler.handle(Future.succeededFuture(countResult.result().iterator().next().getLong(0).intValue()));
+        });
+    }
+
+    @Override
+    public void close() {
+        if (sweepTimerId != -1) {
+            vertx.cancelTimer(sweepTimerId);
+        }
+        prng.close();
+        if (ownPool != null) {
+            ownPool.close();
+        }
+    }
+}
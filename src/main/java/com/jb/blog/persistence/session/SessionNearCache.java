@@ -0,0 +1,168 @@
+package com.jb.blog.persistence.session;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.sstore.impl.SharedDataSessionImpl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache of the sessions of the PgSessionStores of a process, in front of the http_session table.
+ * Entries are evicted when the cache is full (least recently used first) or when they are older than ttlMillis,
+ * which bounds how long a write made by another process can be missed.
+ *
+ * Sessions are cached serialized, each get returns a new copy that the caller is free to modify.
+ *
+ * When several processes have a cache, the invalidation listener lets the writes made through one of them
+ * invalidate the caches of the others.
+ */
+public class SessionNearCache {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries;
+    private volatile BiConsumer<String, Integer> invalidationListener = (id, version) -> { };
+
+    public SessionNearCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::nanoTime);
+    }
+
+    SessionNearCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * @param nowMillis the current time, the session is not returned once it has timed out
+     * @return a copy of the cached session, without PRNG, or null
+     */
+    public SharedDataSessionImpl get(String id, long nowMillis) {
+        Entry entry = getEntry(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.lastAccessed + entry.timeout <= nowMillis) {
+            invalidate(id, null);
+            return null;
+        }
+        return deserialize(entry.buffer);
+    }
+
+    /**
+     * Caches the session as it is now, unless a newer version is already cached.
+     */
+    public void put(SharedDataSessionImpl session) {
+        Buffer buffer = Buffer.buffer();
+        session.writeToBuffer(buffer);
+        Entry entry = new Entry(buffer, session.version(), session.lastAccessed(), session.timeout(), clock.getAsLong());
+        put(session.id(), entry);
+    }
+
+    /**
+     * Same as put, with the session already serialized, and notifies the invalidation listener.
+     */
+    public void putAndNotify(String id, int version, long lastAccessed, long timeout, Buffer buffer) {
+        put(id, new Entry(buffer, version, lastAccessed, timeout, clock.getAsLong()));
+        invalidationListener.accept(id, version);
+    }
+
+    /**
+     * @return true if writing the session would only push its expiry back by less than a tenth of its timeout:
+     * the cached session has the same version, timeout and data, and was accessed shortly before
+     */
+    public boolean isUnchanged(SharedDataSessionImpl session) {
+        Entry entry = getEntry(session.id());
+        if (entry == null
+                || entry.version != session.version()
+                || entry.timeout != session.timeout()
+                || session.lastAccessed() - entry.lastAccessed >= session.timeout() / 10) {
+            return false;
+        }
+        return Objects.equals(deserialize(entry.buffer).data(), session.data());
+    }
+
+    /**
+     * @param version the version of the session after the write, or null if it was deleted or is unknown:
+     *                only older versions are invalidated
+     */
+    public synchronized void invalidate(String id, Integer version) {
+        Entry entry = entries.get(id);
+        if (entry != null && (version == null || entry.version < version)) {
+            entries.remove(id);
+        }
+    }
+
+    /**
+     * Same as invalidate, and notifies the invalidation listener.
+     */
+    public void invalidateAndNotify(String id, Integer version) {
+        invalidate(id, version);
+        invalidationListener.accept(id, version);
+    }
+
+    /**
+     * @param invalidationListener called with the id and the new version (null if deleted) of the sessions
+     *                             written through this cache
+     */
+    public void setInvalidationListener(BiConsumer<String, Integer> invalidationListener) {
+        this.invalidationListener = invalidationListener;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized Entry getEntry(String id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (clock.getAsLong() - entry.createdAt > ttlNanos) {
+            entries.remove(id);
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized void put(String id, Entry entry) {
+        Entry existing = entries.get(id);
+        if (existing != null && existing.version > entry.version) {
+            // The session was written while we were reading it
+            return;
+        }
+        entries.put(id, entry);
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static SharedDataSessionImpl deserialize(Buffer buffer) {
+        SharedDataSessionImpl session = new SharedDataSessionImpl();
+        session.readFromBuffer(0, buffer);
+        return session;
+    }
+
+    private static class Entry {
+        final Buffer buffer;
+        final int version;
+        final long lastAccessed;
+        final long timeout;
+        final long createdAt;
+
+        Entry(Buffer buffer, int version, long lastAccessed, long timeout, long createdAt) {
+            this.buffer = buffer;
+            this.version = version;
+            this.lastAccessed = lastAccessed;
+            this.timeout = timeout;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.jb.blog.persistence.user;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.sqlclient.SqlClient;
+import org.openapitools.vertxweb.server.model.User;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through cache in front of a UserRepository, so that identifying the user of a request doesn't need a query.
+ * Entries are evicted when the cache is full (least recently used first) or when they are older than ttlMillis.
+ *
+ * When a user is written, its entry is replaced by a tombstone, so that a getUserById started before the write
+ * can't put the old user back in the cache.
+ *
+ * When several processes have a cache, the invalidation listener lets the writes made through one of them
+ * invalidate the caches of the others.
+ */
+public class CachedUserRepository implements UserRepository {
+    private final UserRepository userRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries;
+    private volatile Consumer<String> invalidationListener = username -> { };
+
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    public CachedUserRepository(UserRepository userRepository, int maxSize, long ttlMillis) {
+        this(userRepository, maxSize, ttlMillis, System::nanoTime);
+    }
+
+    CachedUserRepository(UserRepository userRepository, int maxSize, long ttlMillis, LongSupplier clock) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @Override
+    public void getUserById(SqlClient sqlClient, String id, Handler<AsyncResult<User>> handler) {
+        User cached = getIfPresent(id);
+        if (cached != null) {
+            handler.handle(Future.succeededFuture(cached));
+            return;
+        }
+        long readStartedAt = clock.getAsLong();
+        userRepository.getUserById(sqlClient, id, getUserByIdResult -> {
+            if (getUserByIdResult.succeeded() && getUserByIdResult.result() != null) {
+                put(getUserByIdResult.result(), readStartedAt);
+            }
+            handler.handle(getUserByIdResult);
+        });
+    }
+
+    @Override
+    public void insert(SqlClient sqlClient, User user, Handler<AsyncResult<Void>> handler) {
+        userRepository.insert(sqlClient, user, insertResult -> {
+            if (insertResult.succeeded()) {
+                invalidateAndNotify(user.getUsername());
+            }
+            handler.handle(insertResult);
+        });
+    }
+
+    @Override
+    public void updatePassword(
+            SqlClient sqlClient,
+            String username,
+            String previousPasswordHash,
+            String passwordHash,
+            Handler<AsyncResult<Void>> handler
+    ) {
+        userRepository.updatePassword(sqlClient, username, previousPasswordHash, passwordHash, updateResult -> {
+            if (updateResult.succeeded()) {
+                invalidateAndNotify(username);
+            }
+            handler.handle(updateResult);
+        });
+    }
+
+    /**
+     * @param invalidationListener called with the username of the users written through this repository
+     */
+    public void setInvalidationListener(Consumer<String> invalidationListener) {
+        this.invalidationListener = invalidationListener;
+    }
+
+    synchronized User getIfPresent(String username) {
+        Entry entry = entries.get(username);
+        if (entry == null || entry.user == null || isExpired(entry)) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return copy(entry.user);
+    }
+
+    /**
+     * @param readStartedAt the time the user was read at: it isn't cached if it was written since
+     */
+    synchronized void put(User user, long readStartedAt) {
+        Entry existing = entries.get(user.getUsername());
+        if (existing != null && existing.user == null && !isExpired(existing) && existing.createdAt >= readStartedAt) {
+            // The user was written while we were reading it
+            return;
+        }
+        entries.put(user.getUsername(), new Entry(copy(user), clock.getAsLong()));
+        evictIfFull();
+    }
+
+    /**
+     * Must be called when a user is modified or deleted without going through this repository.
+     */
+    public synchronized void invalidate(String username) {
+        entries.put(username, new Entry(null, clock.getAsLong()));
+        evictIfFull();
+    }
+
+    private void invalidateAndNotify(String username) {
+        invalidate(username);
+        invalidationListener.accept(username);
+    }
+
+    private void evictIfFull() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private boolean isExpired(Entry entry) {
+        return clock.getAsLong() - entry.createdAt > ttlNanos;
+    }
+
+    /**
+     * Users are mutable, so callers never get the cached instance.
+     */
+    private static User copy(User user) {
+        return new User(user.getUsername(), user.getPassword(), user.getVersion());
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static class Entry {
+        final User user;
+        final long createdAt;
+
+        Entry(User user, long createdAt) {
+            this.user = user;
+            this.createdAt = createdAt;
+        }
+    }
+}
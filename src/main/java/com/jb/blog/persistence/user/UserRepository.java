@@ -17,4 +17,15 @@ public interface UserRepository {
             User user,
             Handler<AsyncResult<Void>> handler
     );
+
+    /**
+     * Replaces the password hash of a user, unless it was changed since it was read.
+     */
+    void updatePassword(
+            SqlClient sqlClient,
+            String username,
+            String previousPasswordHash,
+            String passwordHash,
+            Handler<AsyncResult<Void>> handler
+    );
 }
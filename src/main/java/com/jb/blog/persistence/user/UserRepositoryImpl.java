@@ -51,10 +51,32 @@ public class UserRepositoryImpl implements UserRepository {
             Handler<AsyncResult<Void>> handler
     ) {
         PreparedQuery<RowSet<Row>> preparedQuery = sqlClient.preparedQuery(
-                "insert into appuser(username, password, password_salt) values ($1, $2, $3)"
+                "insert into appuser(username, password) values ($1, $2)"
         );
         preparedQuery.execute(
-                Tuple.of(user.getUsername(), user.getPassword(), user.getPassword()),
+                Tuple.of(user.getUsername(), user.getPassword()),
+                event -> {
+                    if (event.failed()) {
+                        handler.handle(Future.failedFuture(event.cause()));
+                        return;
+                    }
+                    handler.handle(Future.succeededFuture());
+                });
+    }
+
+    @Override
+    public void updatePassword(
+            SqlClient sqlClient,
+            String username,
+            String previousPasswordHash,
+            String passwordHash,
+            Handler<AsyncResult<Void>> handler
+    ) {
+        PreparedQuery<RowSet<Row>> preparedQuery = sqlClient.preparedQuery(
+                "update appuser set password=$3 where username=$1 and password=$2"
+        );
+        preparedQuery.execute(
+                Tuple.of(username, previousPasswordHash, passwordHash),
                 event -> {
                     if (event.failed()) {
                         handler.handle(Future.failedFuture(event.cause()));
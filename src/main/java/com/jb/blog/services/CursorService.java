@@ -0,0 +1,10 @@
+package com.jb.blog.services;
+
+public interface CursorService {
+    String encode(String key);
+
+    /**
+     * @return the decoded key, or null if the cursor is not valid
+     */
+    String decode(String cursor);
+}
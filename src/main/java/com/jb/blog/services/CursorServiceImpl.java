@@ -0,0 +1,22 @@
+package com.jb.blog.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public class CursorServiceImpl implements CursorService {
+    @Override
+    public String encode(String key) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
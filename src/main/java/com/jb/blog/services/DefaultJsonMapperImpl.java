@@ -1,7 +1,11 @@
 package com.jb.blog.services;
 
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
+import java.util.List;
+
 public class DefaultJsonMapperImpl<T> implements JsonMapper<T> {
     private final Class<T> clazz;
 
@@ -18,4 +22,14 @@ public class DefaultJsonMapperImpl<T> implements JsonMapper<T> {
     public JsonObject toJson(T user) {
         return JsonObject.mapFrom(user);
     }
+
+    @Override
+    public Buffer toBuffer(T value) {
+        return toJson(value).toBuffer();
+    }
+
+    @Override
+    public Buffer toBuffer(List<T> values) {
+        return new JsonArray(values).toBuffer();
+    }
 }
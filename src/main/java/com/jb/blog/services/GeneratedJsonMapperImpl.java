@@ -0,0 +1,139 @@
+package com.jb.blog.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.DatabindCodec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JsonMapper using the JsonWriter and JsonReader generated with each model class (see openapi-templates):
+ * they stream the properties one by one, without going through the reflection and the serializer lookups
+ * of the object mapper.
+ */
+public class GeneratedJsonMapperImpl<T> implements JsonMapper<T> {
+    private final JsonSerializer<T> writer;
+    private final JsonDeserializer<T> reader;
+    private final JsonFactory factory;
+
+    /**
+     * @param writer e.g. Article.JsonWriter.INSTANCE
+     * @param reader e.g. Article.JsonReader.INSTANCE
+     */
+    public GeneratedJsonMapperImpl(JsonSerializer<T> writer, JsonDeserializer<T> reader) {
+        this.writer = writer;
+        this.reader = reader;
+        this.factory = DatabindCodec.mapper().getFactory();
+    }
+
+    /**
+     * Request bodies have already been parsed into a JsonObject by the validation of the router,
+     * so the tree is replayed as tokens to the reader rather than encoded and parsed again.
+     */
+    @Override
+    public T fromJson(JsonObject json) {
+        TokenBuffer tokens = new TokenBuffer(null, false);
+        try {
+            writeTree(tokens, json);
+            JsonParser parser = tokens.asParser();
+            parser.nextToken();
+            return reader.deserialize(parser, null);
+        } catch (IOException e) {
+            throw new DecodeException("Failed to decode: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public JsonObject toJson(T user) {
+        return new JsonObject(toBuffer(user));
+    }
+
+    @Override
+    public Buffer toBuffer(T value) {
+        ByteBuf byteBuf = Unpooled.buffer();
+        try (JsonGenerator generator = createGenerator(byteBuf)) {
+            writer.serialize(value, generator, null);
+        } catch (IOException e) {
+            throw new EncodeException("Failed to encode as JSON: " + e.getMessage());
+        }
+        return Buffer.buffer(byteBuf);
+    }
+
+    @Override
+    public Buffer toBuffer(List<T> values) {
+        ByteBuf byteBuf = Unpooled.buffer();
+        try (JsonGenerator generator = createGenerator(byteBuf)) {
+            generator.writeStartArray();
+            for (T value : values) {
+                writer.serialize(value, generator, null);
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new EncodeException("Failed to encode as JSON: " + e.getMessage());
+        }
+        return Buffer.buffer(byteBuf);
+    }
+
+    private JsonGenerator createGenerator(ByteBuf byteBuf) throws IOException {
+        OutputStream outputStream = new ByteBufOutputStream(byteBuf);
+        return factory.createGenerator(outputStream);
+    }
+
+    /**
+     * Writes the values a JsonObject may hold, JsonObject.getMap() returns maps, lists and JSON values.
+     */
+    @SuppressWarnings("unchecked")
+    private static void writeTree(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof JsonObject) {
+            writeTree(generator, ((JsonObject) value).getMap());
+        } else if (value instanceof JsonArray) {
+            writeTree(generator, ((JsonArray) value).getList());
+        } else if (value instanceof Map) {
+            generator.writeStartObject();
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) value).entrySet()) {
+                generator.writeFieldName(entry.getKey());
+                writeTree(generator, entry.getValue());
+            }
+            generator.writeEndObject();
+        } else if (value instanceof List) {
+            generator.writeStartArray();
+            for (Object item : (List<Object>) value) {
+                writeTree(generator, item);
+            }
+            generator.writeEndArray();
+        } else if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+            generator.writeNumber(((Number) value).longValue());
+        } else if (value instanceof BigInteger) {
+            generator.writeNumber((BigInteger) value);
+        } else if (value instanceof BigDecimal) {
+            generator.writeNumber((BigDecimal) value);
+        } else if (value instanceof Number) {
+            generator.writeNumber(((Number) value).doubleValue());
+        } else {
+            throw new DecodeException("Unexpected JSON value: " + value.getClass().getName());
+        }
+    }
+}
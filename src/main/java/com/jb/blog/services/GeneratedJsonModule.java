@@ -0,0 +1,49 @@
+package com.jb.blog.services;
+
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openapitools.vertxweb.server.model.*;
+
+/**
+ * Makes the object mapper use the JsonWriter and JsonReader generated with the model classes,
+ * e.g. for Json.encode and JsonObject.mapFrom, instead of introspecting the classes.
+ */
+public class GeneratedJsonModule extends SimpleModule {
+    private static final long serialVersionUID = 1L;
+
+    public GeneratedJsonModule() {
+        super(GeneratedJsonModule.class.getSimpleName());
+        add(Article.class, Article.JsonWriter.INSTANCE, Article.JsonReader.INSTANCE);
+        add(ArticleBatch.class, ArticleBatch.JsonWriter.INSTANCE, ArticleBatch.JsonReader.INSTANCE);
+        add(
+                ArticleBatchItemResult.class,
+                ArticleBatchItemResult.JsonWriter.INSTANCE,
+                ArticleBatchItemResult.JsonReader.INSTANCE
+        );
+        add(ArticleBatchResult.class, ArticleBatchResult.JsonWriter.INSTANCE, ArticleBatchResult.JsonReader.INSTANCE);
+        add(ArticleByIdResult.class, ArticleByIdResult.JsonWriter.INSTANCE, ArticleByIdResult.JsonReader.INSTANCE);
+        add(ArticleFormData.class, ArticleFormData.JsonWriter.INSTANCE, ArticleFormData.JsonReader.INSTANCE);
+        add(
+                ArticleSearchResult.class,
+                ArticleSearchResult.JsonWriter.INSTANCE,
+                ArticleSearchResult.JsonReader.INSTANCE
+        );
+        add(ClientError.class, ClientError.JsonWriter.INSTANCE, ClientError.JsonReader.INSTANCE);
+        add(HttpSession.class, HttpSession.JsonWriter.INSTANCE, HttpSession.JsonReader.INSTANCE);
+        add(LoginForm.class, LoginForm.JsonWriter.INSTANCE, LoginForm.JsonReader.INSTANCE);
+        add(RegistrationForm.class, RegistrationForm.JsonWriter.INSTANCE, RegistrationForm.JsonReader.INSTANCE);
+        add(ServerError.class, ServerError.JsonWriter.INSTANCE, ServerError.JsonReader.INSTANCE);
+        add(User.class, User.JsonWriter.INSTANCE, User.JsonReader.INSTANCE);
+        add(ValidationError.class, ValidationError.JsonWriter.INSTANCE, ValidationError.JsonReader.INSTANCE);
+    }
+
+    private <T> void add(
+            Class<T> clazz,
+            JsonSerializer<T> writer,
+            JsonDeserializer<T> reader
+    ) {
+        addSerializer(clazz, writer);
+        addDeserializer(clazz, reader);
+    }
+}
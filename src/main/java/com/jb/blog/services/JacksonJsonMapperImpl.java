@@ -0,0 +1,78 @@
+package com.jb.blog.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.json.jackson.DatabindCodec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * JsonMapper using readers and writers built once per class, with the object mapper of Vert.x.
+ *
+ * Bodies are encoded straight into the Buffer of the response, instead of being converted to a JsonObject
+ * (a tree of maps and lists) and then encoded.
+ */
+public class JacksonJsonMapperImpl<T> implements JsonMapper<T> {
+    private final ObjectMapper mapper;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final ObjectWriter listWriter;
+
+    public JacksonJsonMapperImpl(Class<T> clazz) {
+        this.mapper = DatabindCodec.mapper();
+        this.reader = mapper.readerFor(clazz);
+        this.writer = mapper.writerFor(clazz);
+        this.listWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, clazz));
+    }
+
+    /**
+     * Request bodies have already been parsed into a JsonObject by the validation of the router,
+     * so the tree is replayed as tokens to the reader rather than encoded and parsed again.
+     */
+    @Override
+    public T fromJson(JsonObject json) {
+        TokenBuffer tokens = new TokenBuffer(mapper, false);
+        try {
+            mapper.writeValue(tokens, json.getMap());
+            return reader.readValue(tokens.asParser());
+        } catch (IOException e) {
+            throw new DecodeException("Failed to decode: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public JsonObject toJson(T user) {
+        return JsonObject.mapFrom(user);
+    }
+
+    @Override
+    public Buffer toBuffer(T value) {
+        return write(writer, value);
+    }
+
+    @Override
+    public Buffer toBuffer(List<T> values) {
+        return write(listWriter, values);
+    }
+
+    private static Buffer write(ObjectWriter writer, Object value) {
+        ByteBuf byteBuf = Unpooled.buffer();
+        try (OutputStream outputStream = new ByteBufOutputStream(byteBuf)) {
+            writer.writeValue(outputStream, value);
+        } catch (IOException e) {
+            throw new EncodeException("Failed to encode as JSON: " + e.getMessage());
+        }
+        return Buffer.buffer(byteBuf);
+    }
+}
@@ -1,10 +1,22 @@
 package com.jb.blog.services;
 
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
-import org.openapitools.vertxweb.server.model.User;
+
+import java.util.List;
 
 public interface JsonMapper<T> {
     T fromJson(JsonObject json);
 
     JsonObject toJson(T user);
+
+    /**
+     * Encodes a response body, without building a JsonObject first.
+     */
+    Buffer toBuffer(T value);
+
+    /**
+     * Encodes a JSON array response body, without building a JsonArray first.
+     */
+    Buffer toBuffer(List<T> values);
 }
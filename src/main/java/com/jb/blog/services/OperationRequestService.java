@@ -7,4 +7,12 @@ import java.util.Map;
 
 public interface OperationRequestService {
     Map<String, ServerCookie> extractCookies(OperationRequest operationRequest);
+
+    /**
+     * Same value as extractCookies(operationRequest).get(name) for well-formed headers, without decoding
+     * the other cookies.
+     *
+     * @return the value of the cookie, or null if the request doesn't have it
+     */
+    String getCookieValue(OperationRequest operationRequest, String name);
 }
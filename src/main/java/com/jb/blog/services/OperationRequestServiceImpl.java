@@ -27,4 +27,53 @@ public class OperationRequestServiceImpl implements OperationRequestService {
             return new HashMap<>(4);
         }
     }
+
+    /**
+     * Scans the Cookie header in place: the only allocation is the returned value.
+     * Like ServerCookieDecoder.STRICT, the first cookie with the name wins and quotes around the value are removed.
+     */
+    @Override
+    public String getCookieValue(OperationRequest operationRequest, String name) {
+        String cookieHeader = operationRequest.getHeaders().get("Cookie");
+        if (cookieHeader == null) {
+            return null;
+        }
+        int length = cookieHeader.length();
+        int i = 0;
+        while (i < length) {
+            char c = cookieHeader.charAt(i);
+            if (isSeparator(c)) {
+                i++;
+                continue;
+            }
+            int nameStart = i;
+            while (i < length && (c = cookieHeader.charAt(i)) != '=' && c != ';') {
+                i++;
+            }
+            int nameEnd = i;
+            if (i == length || c == ';') {
+                // A cookie without value
+                continue;
+            }
+            int valueStart = ++i;
+            while (i < length && cookieHeader.charAt(i) != ';') {
+                i++;
+            }
+            int valueEnd = i;
+            if (nameEnd - nameStart == name.length() && cookieHeader.regionMatches(nameStart, name, 0, name.length())) {
+                if (valueEnd - valueStart >= 2
+                        && cookieHeader.charAt(valueStart) == '"'
+                        && cookieHeader.charAt(valueEnd - 1) == '"') {
+                    valueStart++;
+                    valueEnd--;
+                }
+                return cookieHeader.substring(valueStart, valueEnd);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\t' || c == ';' || c == ',' || c == '\n' || c == '\r' || c == '\f' || c == '\u000b';
+    }
 }
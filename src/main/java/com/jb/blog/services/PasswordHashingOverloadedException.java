@@ -0,0 +1,12 @@
+package com.jb.blog.services;
+
+/**
+ * The queue of the password hashing workers is full.
+ */
+public class PasswordHashingOverloadedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingOverloadedException() {
+        super("Too many passwords waiting to be hashed");
+    }
+}
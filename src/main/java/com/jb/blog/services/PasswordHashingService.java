@@ -0,0 +1,30 @@
+package com.jb.blog.services;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+
+/**
+ * Hashes and verifies passwords on dedicated worker threads, never on the event loop.
+ *
+ * When too many hashes are waiting, the calls fail at once with a PasswordHashingOverloadedException,
+ * so that a burst of logins is answered with 503 instead of queueing without limit.
+ */
+public interface PasswordHashingService {
+    /**
+     * @param handler called with the encoded hash, which holds the algorithm, its parameters and the salt
+     */
+    void hash(String password, Handler<AsyncResult<String>> handler);
+
+    /**
+     * @param passwordHash the stored hash, or null when there is no such user: the password is then checked
+     *                     against a dummy hash, so that unknown usernames take as long as the others
+     * @param handler      called with true if the password matches
+     */
+    void verify(String password, String passwordHash, Handler<AsyncResult<Boolean>> handler);
+
+    /**
+     * @return true if the stored hash must be replaced on the next successful login: it was made with other
+     * parameters than the current ones, or it is a password stored before hashing
+     */
+    boolean needsRehash(String passwordHash);
+}
@@ -0,0 +1,123 @@
+package com.jb.blog.services;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * PBKDF2 with HMAC-SHA256, from the JDK. Hashes are encoded like $pbkdf2-sha256$i=600000$salt$hash,
+ * with the salt and the hash in base64, so that the iterations can be raised without invalidating
+ * the stored hashes: they are replaced on the next login (see needsRehash).
+ *
+ * The hashes run on a worker executor of their own, so that a burst of logins can't use up the worker pool
+ * of Vert.x, and at most maxQueueSize hashes wait for a worker.
+ */
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+    static final String PREFIX = "$pbkdf2-sha256$i=";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+
+    private final WorkerExecutor workerExecutor;
+    private final int iterations;
+    private final int maxPending;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    /**
+     * @param iterations   cost of a hash, it should take around 100ms on the production hardware
+     * @param poolSize     number of hashes computed at the same time
+     * @param maxQueueSize number of hashes that can wait for a worker, the next ones fail
+     */
+    public PasswordHashingServiceImpl(Vertx vertx, int iterations, int poolSize, int maxQueueSize) {
+        this(vertx.createSharedWorkerExecutor("password-hashing", poolSize), iterations, poolSize + maxQueueSize);
+    }
+
+    PasswordHashingServiceImpl(WorkerExecutor workerExecutor, int iterations, int maxPending) {
+        this.workerExecutor = workerExecutor;
+        this.iterations = iterations;
+        this.maxPending = maxPending;
+    }
+
+    @Override
+    public void hash(String password, Handler<AsyncResult<String>> handler) {
+        execute(() -> {
+            byte[] salt = new byte[SALT_LENGTH];
+            secureRandom.nextBytes(salt);
+            return encode(iterations, salt, pbkdf2(password, salt, iterations));
+        }, handler);
+    }
+
+    @Override
+    public void verify(String password, String passwordHash, Handler<AsyncResult<Boolean>> handler) {
+        execute(() -> {
+            if (passwordHash != null && !passwordHash.startsWith(PREFIX)) {
+                // Stored before hashing, it is replaced by a hash after the login
+                return MessageDigest.isEqual(
+                        password.getBytes(StandardCharsets.UTF_8),
+                        passwordHash.getBytes(StandardCharsets.UTF_8)
+                );
+            }
+            String[] parts = passwordHash == null ? null : passwordHash.split("\\$");
+            if (parts == null || parts.length != 5) {
+                // Same work as for an existing user, with a hash nothing matches
+                byte[] salt = new byte[SALT_LENGTH];
+                secureRandom.nextBytes(salt);
+                pbkdf2(password, salt, iterations);
+                return false;
+            }
+            int hashIterations = Integer.parseInt(parts[2].substring("i=".length()));
+            byte[] salt = Base64.getDecoder().decode(parts[3]);
+            byte[] expected = Base64.getDecoder().decode(parts[4]);
+            return MessageDigest.isEqual(expected, pbkdf2(password, salt, hashIterations));
+        }, handler);
+    }
+
+    @Override
+    public boolean needsRehash(String passwordHash) {
+        return passwordHash != null && !passwordHash.startsWith(PREFIX + iterations + "$");
+    }
+
+    private <T> void execute(Supplier<T> task, Handler<AsyncResult<T>> handler) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            handler.handle(Future.failedFuture(new PasswordHashingOverloadedException()));
+            return;
+        }
+        workerExecutor.<T>executeBlocking(promise -> {
+            try {
+                promise.complete(task.get());
+            } finally {
+                pending.decrementAndGet();
+            }
+        }, false, handler);
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec keySpec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_LENGTH * 8);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(keySpec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            keySpec.clearPassword();
+        }
+    }
+
+    private static String encode(int iterations, byte[] salt, byte[] hash) {
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+}
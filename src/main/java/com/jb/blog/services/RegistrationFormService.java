@@ -4,5 +4,8 @@ import org.openapitools.vertxweb.server.model.RegistrationForm;
 import org.openapitools.vertxweb.server.model.User;
 
 public interface RegistrationFormService {
-    User toUser(RegistrationForm registrationForm);
+    /**
+     * @param passwordHash the hash of the password of the form, see PasswordHashingService
+     */
+    User toUser(RegistrationForm registrationForm, String passwordHash);
 }
@@ -5,7 +5,7 @@ import org.openapitools.vertxweb.server.model.User;
 
 public class RegistrationFormServiceImpl implements RegistrationFormService {
     @Override
-    public User toUser(RegistrationForm registrationForm) {
-        return new User(registrationForm.getUsername(), registrationForm.getPassword(), 0);
+    public User toUser(RegistrationForm registrationForm, String passwordHash) {
+        return new User(registrationForm.getUsername(), passwordHash, 0);
     }
 }
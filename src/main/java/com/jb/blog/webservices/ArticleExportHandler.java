@@ -0,0 +1,141 @@
+package com.jb.blog.webservices;
+
+import com.jb.blog.persistence.EntityStream;
+import com.jb.blog.persistence.article.ArticleRepository;
+import com.jb.blog.services.JsonMapper;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.pgclient.PgPool;
+import io.vertx.sqlclient.SqlConnection;
+import org.openapitools.vertxweb.server.model.Article;
+
+/**
+ * Writes all the articles as a chunked JSON array, directly to the HTTP response.
+ *
+ * This can't be a web api service like the others, because services only return a complete
+ * OperationResponse, which means the whole payload has to be built in memory.
+ * Here rows are read through a database cursor and written as soon as they arrive,
+ * the cursor is paused while the response's write queue is full.
+ */
+public class ArticleExportHandler implements Handler<RoutingContext> {
+    static final int FETCH_SIZE = 100;
+    static final int CHUNK_SIZE = 8192;
+
+    private final PgPool pool;
+    private final ArticleRepository articleRepository;
+    private final JsonMapper<Article> articleJsonMapper;
+
+    public ArticleExportHandler(
+            PgPool pool,
+            ArticleRepository articleRepository,
+            JsonMapper<Article> articleJsonMapper
+    ) {
+        this.pool = pool;
+        this.articleRepository = articleRepository;
+        this.articleJsonMapper = articleJsonMapper;
+    }
+
+    @Override
+    public void handle(RoutingContext routingContext) {
+        pool.getConnection(getConnectionResult -> {
+            if (getConnectionResult.failed()) {
+                routingContext.fail(getConnectionResult.cause());
+                return;
+            }
+            SqlConnection connection = getConnectionResult.result();
+            articleRepository.getAllAsStream(connection, FETCH_SIZE, getStreamResult -> {
+                if (getStreamResult.failed()) {
+                    connection.close();
+                    routingContext.fail(getStreamResult.cause());
+                    return;
+                }
+                new Export(routingContext, connection, getStreamResult.result(), articleJsonMapper).start();
+            });
+        });
+    }
+
+    private static class Export {
+        private final RoutingContext routingContext;
+        private final HttpServerResponse response;
+        private final SqlConnection connection;
+        private final EntityStream<Article> stream;
+        private final JsonMapper<Article> articleJsonMapper;
+        private Buffer chunk = Buffer.buffer(CHUNK_SIZE);
+        private boolean first = true;
+        private boolean finished = false;
+
+        Export(
+                RoutingContext routingContext,
+                SqlConnection connection,
+                EntityStream<Article> stream,
+                JsonMapper<Article> articleJsonMapper
+        ) {
+            this.routingContext = routingContext;
+            this.response = routingContext.response();
+            this.connection = connection;
+            this.stream = stream;
+            this.articleJsonMapper = articleJsonMapper;
+        }
+
+        void start() {
+            response.setChunked(true);
+            response.putHeader("content-type", "application/json");
+            response.closeHandler(v -> {
+                // The client went away before the end of the export
+                if (!finished) {
+                    finished = true;
+                    stream.close();
+                    connection.close();
+                }
+            });
+            stream.exceptionHandler(this::handleException);
+            stream.endHandler(v -> handleEnd());
+            chunk.appendString("[");
+            stream.handler(this::handleArticle);
+        }
+
+        private void handleArticle(Article article) {
+            if (!first) {
+                chunk.appendString(",");
+            }
+            first = false;
+            chunk.appendBuffer(articleJsonMapper.toBuffer(article));
+            if (chunk.length() >= CHUNK_SIZE) {
+                response.write(chunk);
+                chunk = Buffer.buffer(CHUNK_SIZE);
+                if (response.writeQueueFull()) {
+                    stream.pause();
+                    response.drainHandler(v -> stream.resume());
+                }
+            }
+        }
+
+        private void handleEnd() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            connection.close();
+            chunk.appendString("]");
+            response.end(chunk);
+        }
+
+        private void handleException(Throwable throwable) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            connection.close();
+            if (!response.headWritten()) {
+                routingContext.fail(throwable);
+                return;
+            }
+            throwable.printStackTrace();
+            // The status code has already been sent, so the only way to tell the client
+            // that the array is incomplete is to cut the connection.
+            response.close();
+        }
+    }
+}
@@ -7,10 +7,19 @@ import io.vertx.ext.web.api.OperationRequest;
 import io.vertx.ext.web.api.OperationResponse;
 import io.vertx.ext.web.api.generator.WebApiServiceGen;
 
+import java.util.List;
+
 @WebApiServiceGen
 public interface ArticleWebService {
     void getArticleById(
             String id,
+            List<String> fields,
+            OperationRequest operationRequest,
+            Handler<AsyncResult<OperationResponse>> handler
+    );
+
+    void getArticlesByIds(
+            List<String> ids,
             OperationRequest operationRequest,
             Handler<AsyncResult<OperationResponse>> handler
     );
@@ -27,7 +36,33 @@ public interface ArticleWebService {
             Handler<AsyncResult<OperationResponse>> handler
     );
 
+    void batchArticles(
+            JsonObject body,
+            OperationRequest operationRequest,
+            Handler<AsyncResult<OperationResponse>> handler
+    );
+
     void getAllArticles(
+            String after,
+            Integer limit,
+            List<String> fields,
+            OperationRequest operationRequest,
+            Handler<AsyncResult<OperationResponse>> handler
+    );
+
+    void searchArticles(
+            String q,
+            String after,
+            Integer limit,
+            OperationRequest operationRequest,
+            Handler<AsyncResult<OperationResponse>> handler
+    );
+
+    void getArticlesByAuthor(
+            String username,
+            String after,
+            Integer limit,
+            List<String> fields,
             OperationRequest operationRequest,
             Handler<AsyncResult<OperationResponse>> handler
     );
@@ -1,67 +1,361 @@
 package com.jb.blog.webservices;
 
+import com.jb.blog.persistence.ConditionalUpdateResult;
+import com.jb.blog.persistence.Page;
+import com.jb.blog.persistence.article.ArticleField;
 import com.jb.blog.persistence.article.ArticleRepository;
+import com.jb.blog.services.CursorService;
 import com.jb.blog.services.JsonMapper;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
-import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.api.OperationRequest;
 import io.vertx.ext.web.api.OperationResponse;
+import io.vertx.sqlclient.Transaction;
 import org.openapitools.vertxweb.server.model.Article;
+import org.openapitools.vertxweb.server.model.ArticleBatch;
+import org.openapitools.vertxweb.server.model.ArticleBatchItemResult;
+import org.openapitools.vertxweb.server.model.ArticleBatchResult;
+import org.openapitools.vertxweb.server.model.ArticleByIdResult;
 import org.openapitools.vertxweb.server.model.ArticleFormData;
+import org.openapitools.vertxweb.server.model.ArticleSearchResult;
+import org.openapitools.vertxweb.server.model.ClientError;
 import org.openapitools.vertxweb.server.model.User;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 public class ArticleWebServiceImpl implements ArticleWebService {
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
     private final ArticleRepository articleRepository;
     private final JsonMapper<ArticleFormData> articleFormDataJsonMapper;
     private final RequestContextManagerFactory requestContextManagerFactory;
+    private final CursorService cursorService;
+    private final JsonMapper<ArticleBatch> articleBatchJsonMapper;
+    private final JsonMapper<Article> articleJsonMapper;
+    private final JsonMapper<ArticleSearchResult> articleSearchResultJsonMapper;
+    private final JsonMapper<ArticleByIdResult> articleByIdResultJsonMapper;
 
     public ArticleWebServiceImpl(
             ArticleRepository articleRepository,
             JsonMapper<ArticleFormData> articleFormDataJsonMapper,
-            RequestContextManagerFactory requestContextManagerFactory
+            RequestContextManagerFactory requestContextManagerFactory,
+            CursorService cursorService,
+            JsonMapper<ArticleBatch> articleBatchJsonMapper,
+            JsonMapper<Article> articleJsonMapper,
+            JsonMapper<ArticleSearchResult> articleSearchResultJsonMapper,
+            JsonMapper<ArticleByIdResult> articleByIdResultJsonMapper
     ) {
         this.articleRepository = articleRepository;
         this.articleFormDataJsonMapper = articleFormDataJsonMapper;
         this.requestContextManagerFactory = requestContextManagerFactory;
+        this.cursorService = cursorService;
+        this.articleBatchJsonMapper = articleBatchJsonMapper;
+        this.articleJsonMapper = articleJsonMapper;
+        this.articleSearchResultJsonMapper = articleSearchResultJsonMapper;
+        this.articleByIdResultJsonMapper = articleByIdResultJsonMapper;
     }
 
     public void getAllArticles(
+            String after,
+            Integer limit,
+            List<String> fields,
             OperationRequest operationRequest,
             Handler<AsyncResult<OperationResponse>> handler
     ) {
-        RequestContextManager requestContextManager = requestContextManagerFactory.create(operationRequest, handler);
-        requestContextManager.getContextWithoutUser(requestContext -> {
-            articleRepository.getAll(
-                    requestContext.getSqlConnection(),
-                    requestContext.createHandler((articles) -> {
-                        JsonArray jsonArray = new JsonArray(articles);
-                        requestContext.handleSuccess(OperationResponse.completedWithJson(jsonArray));
+        Set<ArticleField> articleFields = parseFields(fields, ArticleField.SUMMARY);
+        if (articleFields == null) {
+            handler.handle(Future.succeededFuture(createInvalidFieldsResponse()));
+            return;
+        }
+        String afterId = null;
+        if (after != null) {
+            afterId = cursorService.decode(after);
+            if (afterId == null) {
+                handler.handle(Future.succeededFuture(createInvalidCursorResponse()));
+                return;
+            }
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String pageAfterId = afterId;
+        String ifNoneMatch = operationRequest.getHeaders().get("If-None-Match");
+        RequestContextManager requestContextManager = requestContextManagerFactory.createReadOnly(operationRequest, handler);
+        requestContextManager.getPoolContextWithoutUser(requestContext -> {
+            if (ifNoneMatch == null) {
+                sendPage(requestContext, pageAfterId, pageSize, articleFields);
+                return;
+            }
+            // Only the ids and versions are needed to know if the client's copy of the page is up to date
+            articleRepository.getVersionPage(
+                    requestContext.getSqlClient(),
+                    pageAfterId,
+                    pageSize,
+                    requestContext.createHandler((Page<Article> versionPage) -> {
+                        String eTag = toListETag(versionPage, articleFields);
+                        if (!eTagMatches(ifNoneMatch, eTag)) {
+                            sendPage(requestContext, pageAfterId, pageSize, articleFields);
+                            return;
+                        }
+                        OperationResponse operationResponse = new OperationResponse();
+                        operationResponse.setStatusCode(304);
+                        putPageHeaders(operationResponse, versionPage, eTag);
+                        requestContext.handleSuccess(operationResponse);
+                    }));
+        });
+    }
+
+    private void sendPage(RequestContext requestContext, String afterId, int pageSize, Set<ArticleField> fields) {
+        articleRepository.getPage(
+                requestContext.getSqlClient(),
+                afterId,
+                pageSize,
+                fields,
+                requestContext.createHandler((Page<Article> page) -> {
+                    OperationResponse operationResponse = OperationResponse.completedWithJson(
+                            articleJsonMapper.toBuffer(page.getItems())
+                    );
+                    putPageHeaders(operationResponse, page, toListETag(page, fields));
+                    requestContext.handleSuccess(operationResponse);
+                }));
+    }
+
+    private void putPageHeaders(OperationResponse operationResponse, Page<Article> page, String eTag) {
+        operationResponse.putHeader("ETag", eTag);
+        if (page.getNextKey() != null) {
+            operationResponse.putHeader("X-Next-Cursor", cursorService.encode(page.getNextKey()));
+        }
+    }
+
+    public void getArticlesByAuthor(
+            String username,
+            String after,
+            Integer limit,
+            List<String> fields,
+            OperationRequest operationRequest,
+            Handler<AsyncResult<OperationResponse>> handler
+    ) {
+        Set<ArticleField> articleFields = parseFields(fields, ArticleField.SUMMARY);
+        if (articleFields == null) {
+            handler.handle(Future.succeededFuture(createInvalidFieldsResponse()));
+            return;
+        }
+        String afterId = null;
+        if (after != null) {
+            afterId = cursorService.decode(after);
+            if (afterId == null) {
+                handler.handle(Future.succeededFuture(createInvalidCursorResponse()));
+                return;
+            }
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        String pageAfterId = afterId;
+        RequestContextManager requestContextManager = requestContextManagerFactory.createReadOnly(operationRequest, handler);
+        requestContextManager.getPoolContextWithoutUser(requestContext -> {
+            articleRepository.getPageByAuthor(
+                    requestContext.getSqlClient(),
+                    username,
+                    pageAfterId,
+                    pageSize,
+                    articleFields,
+                    requestContext.createHandler((Page<Article> page) -> {
+                        OperationResponse operationResponse = OperationResponse.completedWithJson(
+                                articleJsonMapper.toBuffer(page.getItems())
+                        );
+                        if (page.getNextKey() != null) {
+                            operationResponse.putHeader("X-Next-Cursor", cursorService.encode(page.getNextKey()));
+                        }
+                        requestContext.handleSuccess(operationResponse);
                     }));
         });
     }
 
+    public void searchArticles(
+            String q,
+            String after,
+            Integer limit,
+            OperationRequest operationRequest,
+            Handler<AsyncResult<OperationResponse>> handler
+    ) {
+        // The cursor holds the rank and the id of the last result of the previous page
+        Float afterRank = null;
+        String afterId = null;
+        if (after != null) {
+            String key = cursorService.decode(after);
+            int separatorIndex = key == null ? -1 : key.indexOf(':');
+            if (separatorIndex != -1) {
+                try {
+                    afterRank = Float.valueOf(key.substring(0, separatorIndex));
+                    afterId = key.substring(separatorIndex + 1);
+                } catch (NumberFormatException e) {
+                    afterRank = null;
+                }
+            }
+            if (afterRank == null) {
+                handler.handle(Future.succeededFuture(createInvalidCursorResponse()));
+                return;
+            }
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Float searchAfterRank = afterRank;
+        String searchAfterId = afterId;
+        RequestContextManager requestContextManager = requestContextManagerFactory.createReadOnly(operationRequest, handler);
+        requestContextManager.getPoolContextWithoutUser(requestContext -> {
+            articleRepository.search(
+                    requestContext.getSqlClient(),
+                    q,
+                    searchAfterRank,
+                    searchAfterId,
+                    pageSize,
+                    requestContext.createHandler((Page<ArticleSearchResult> page) -> {
+                        OperationResponse operationResponse = OperationResponse.completedWithJson(
+                                articleSearchResultJsonMapper.toBuffer(page.getItems())
+                        );
+                        if (page.getNextKey() != null) {
+                            ArticleSearchResult last = page.getItems().get(page.getItems().size() - 1);
+                            operationResponse.putHeader(
+                                    "X-Next-Cursor",
+                                    cursorService.encode(last.getRank() + ":" + page.getNextKey())
+                            );
+                        }
+                        requestContext.handleSuccess(operationResponse);
+                    }));
+        });
+    }
+
+    /**
+     * @return the fields to read, defaultFields if none were given, or null if one of them doesn't exist
+     */
+    private static Set<ArticleField> parseFields(List<String> fields, Set<ArticleField> defaultFields) {
+        if (fields == null || fields.isEmpty()) {
+            return defaultFields;
+        }
+        Set<ArticleField> articleFields = EnumSet.noneOf(ArticleField.class);
+        for (String field : fields) {
+            ArticleField articleField = ArticleField.fromName(field);
+            if (articleField == null) {
+                return null;
+            }
+            articleFields.add(articleField);
+        }
+        return articleFields;
+    }
+
+    private static OperationResponse createInvalidFieldsResponse() {
+        OperationResponse operationResponse = OperationResponse.completedWithJson(
+                JsonObject.mapFrom(new ClientError("Unknown field", "fields"))
+        );
+        operationResponse.setStatusCode(400);
+        return operationResponse;
+    }
+
+    private static OperationResponse createInvalidCursorResponse() {
+        OperationResponse operationResponse = OperationResponse.completedWithJson(
+                JsonObject.mapFrom(new ClientError("Invalid cursor", "after"))
+        );
+        operationResponse.setStatusCode(400);
+        return operationResponse;
+    }
+
     public void getArticleById(
             String id,
+            List<String> fields,
             OperationRequest operationRequest,
             Handler<AsyncResult<OperationResponse>> handler
     ) {
-        RequestContextManager requestContextManager = requestContextManagerFactory.create(operationRequest, handler);
-        requestContextManager.getContextWithoutUser(requestContext -> {
-            articleRepository.getById(
-                    requestContext.getSqlConnection(),
+        Set<ArticleField> articleFields = parseFields(fields, ArticleField.ALL);
+        if (articleFields == null) {
+            handler.handle(Future.succeededFuture(createInvalidFieldsResponse()));
+            return;
+        }
+        String ifNoneMatch = operationRequest.getHeaders().get("If-None-Match");
+        RequestContextManager requestContextManager = requestContextManagerFactory.createReadOnly(operationRequest, handler);
+        // The article may be in cache, in which case we don't need a connection at all
+        requestContextManager.getPoolContextWithoutUser(requestContext -> {
+            if (ifNoneMatch == null) {
+                sendArticle(requestContext, id, articleFields);
+                return;
+            }
+            // Checking the version doesn't fetch the content, which is most of the row
+            articleRepository.getVersion(
+                    requestContext.getSqlClient(),
                     id,
-                    requestContext.createHandler((article) -> {
-                        if (article == null) {
+                    requestContext.createHandler((Integer version) -> {
+                        if (version == null) {
                             OperationResponse operationResponse = new OperationResponse();
                             operationResponse.setStatusCode(404);
                             requestContext.handleSuccess(operationResponse);
                             return;
                         }
+                        String eTag = toArticleETag(version, articleFields);
+                        if (!eTagMatches(ifNoneMatch, eTag)) {
+                            sendArticle(requestContext, id, articleFields);
+                            return;
+                        }
+                        OperationResponse operationResponse = new OperationResponse();
+                        operationResponse.setStatusCode(304);
+                        operationResponse.putHeader("ETag", eTag);
+                        requestContext.handleSuccess(operationResponse);
+                    }));
+        });
+    }
+
+    private void sendArticle(RequestContext requestContext, String id, Set<ArticleField> fields) {
+        articleRepository.getById(
+                requestContext.getSqlClient(),
+                id,
+                fields,
+                requestContext.createHandler((Article article) -> {
+                    if (article == null) {
+                        OperationResponse operationResponse = new OperationResponse();
+                        operationResponse.setStatusCode(404);
+                        requestContext.handleSuccess(operationResponse);
+                        return;
+                    }
 
-                        JsonObject jsonObject = JsonObject.mapFrom(article);
-                        requestContext.handleSuccess(OperationResponse.completedWithJson(jsonObject));
+                    OperationResponse operationResponse = OperationResponse.completedWithJson(
+                            articleJsonMapper.toBuffer(article)
+                    );
+                    operationResponse.putHeader("ETag", toArticleETag(article.getVersion(), fields));
+                    requestContext.handleSuccess(operationResponse);
+                }));
+    }
+
+    public void getArticlesByIds(
+            List<String> ids,
+            OperationRequest operationRequest,
+            Handler<AsyncResult<OperationResponse>> handler
+    ) {
+        RequestContextManager requestContextManager = requestContextManagerFactory.createReadOnly(operationRequest, handler);
+        requestContextManager.getPoolContextWithoutUser(requestContext -> {
+            articleRepository.getByIds(
+                    requestContext.getSqlClient(),
+                    new ArrayList<>(new LinkedHashSet<>(ids)),
+                    requestContext.createHandler((articles) -> {
+                        Map<String, Article> articlesById = new HashMap<>();
+                        for (Article article : articles) {
+                            articlesById.put(article.getId(), article);
+                        }
+                        List<ArticleByIdResult> results = new ArrayList<>(ids.size());
+                        for (String id : ids) {
+                            Article article = articlesById.get(id);
+                            results.add(new ArticleByIdResult(id, article != null, article));
+                        }
+                        requestContext.handleSuccess(OperationResponse.completedWithJson(
+                                articleByIdResultJsonMapper.toBuffer(results)
+                        ));
                     }));
         });
     }
@@ -72,7 +366,7 @@ public class ArticleWebServiceImpl implements ArticleWebService {
             Handler<AsyncResult<OperationResponse>> handler
     ) {
         RequestContextManager requestContextManager = requestContextManagerFactory.create(operationRequest, handler);
-        requestContextManager.getContextWithUser(requestContext -> {
+        requestContextManager.getPoolContextWithUser(requestContext -> {
             ArticleFormData articleFormData = articleFormDataJsonMapper.fromJson(body);
             User user = requestContext.getUser();
             Article article = new Article();
@@ -81,12 +375,14 @@ public class ArticleWebServiceImpl implements ArticleWebService {
             article.setTitle(articleFormData.getTitle());
             article.setAuthor(user);
             articleRepository.insert(
-                    requestContext.getSqlConnection(),
+                    requestContext.getSqlClient(),
                     article,
                     requestContext.createHandler((Void result) -> {
-                        OperationResponse operationResponse = new OperationResponse();
-                        operationResponse.setStatusCode(204);
-                        requestContext.handleSuccess(operationResponse);
+                        requestContextManager.recordWrite(requestContext, v -> {
+                            OperationResponse operationResponse = new OperationResponse();
+                            operationResponse.setStatusCode(204);
+                            requestContext.handleSuccess(operationResponse);
+                        });
                     }));
         });
     }
@@ -97,30 +393,206 @@ public class ArticleWebServiceImpl implements ArticleWebService {
             Handler<AsyncResult<OperationResponse>> handler
     ) {
         RequestContextManager requestContextManager = requestContextManagerFactory.create(operationRequest, handler);
-        requestContextManager.getContextWithUser(requestContext -> {
+        // The version check and the update are a single statement, so we don't need to pin a connection
+        requestContextManager.getPoolContextWithUser(requestContext -> {
             ArticleFormData articleFormData = articleFormDataJsonMapper.fromJson(body);
-            articleRepository.getById(
-                    requestContext.getSqlConnection(),
-                    articleFormData.getId(),
-                    requestContext.createHandler((articleInDb) -> {
-                        if (articleInDb == null) {
-                            OperationResponse operationResponse = new OperationResponse();
-                            operationResponse.setStatusCode(404);
-                            requestContext.handleSuccess(operationResponse);
-                            return;
-                        }
-                        articleInDb.setContent(articleFormData.getContent());
-                        articleInDb.setTitle(articleFormData.getTitle());
-
-                        articleRepository.update(
-                                requestContext.getSqlConnection(),
-                                articleInDb,
-                                requestContext.createHandler((Void updateArticleResult) -> {
-                                    OperationResponse operationResponse = new OperationResponse();
+            Integer expectedVersion = articleFormData.getVersion();
+            String ifMatch = operationRequest.getHeaders().get("If-Match");
+            if (ifMatch != null && !ifMatch.trim().equals("*")) {
+                expectedVersion = parseETag(ifMatch);
+                if (expectedVersion == null) {
+                    // A malformed entity tag can't match the current one
+                    OperationResponse operationResponse = new OperationResponse();
+                    operationResponse.setStatusCode(412);
+                    requestContext.handleSuccess(operationResponse);
+                    return;
+                }
+            }
+            Article article = new Article();
+            article.setId(articleFormData.getId());
+            article.setTitle(articleFormData.getTitle());
+            article.setContent(articleFormData.getContent());
+            articleRepository.updateIfVersion(
+                    requestContext.getSqlClient(),
+                    article,
+                    expectedVersion,
+                    requestContext.createHandler((ConditionalUpdateResult updateResult) -> {
+                        OperationResponse operationResponse = new OperationResponse();
+                        switch (updateResult.getStatus()) {
+                            case NOT_FOUND:
+                                operationResponse.setStatusCode(404);
+                                requestContext.handleSuccess(operationResponse);
+                                return;
+                            case VERSION_MISMATCH:
+                                operationResponse.setStatusCode(412);
+                                operationResponse.putHeader("ETag", toETag(updateResult.getVersion()));
+                                requestContext.handleSuccess(operationResponse);
+                                return;
+                            default:
+                                requestContextManager.recordWrite(requestContext, v -> {
                                     operationResponse.setStatusCode(204);
+                                    operationResponse.putHeader("ETag", toETag(updateResult.getVersion()));
                                     requestContext.handleSuccess(operationResponse);
+                                });
+                        }
+                    }));
+        });
+    }
+
+    public void batchArticles(
+            JsonObject body,
+            OperationRequest operationRequest,
+            Handler<AsyncResult<OperationResponse>> handler
+    ) {
+        RequestContextManager requestContextManager = requestContextManagerFactory.create(operationRequest, handler);
+        requestContextManager.getContextWithUser(requestContext -> {
+            ArticleBatch articleBatch = articleBatchJsonMapper.fromJson(body);
+            List<Article> articlesToInsert = new ArrayList<>();
+            if (articleBatch.getInsert() != null) {
+                for (ArticleFormData articleFormData : articleBatch.getInsert()) {
+                    Article article = new Article();
+                    article.setId(articleFormData.getId());
+                    article.setContent(articleFormData.getContent());
+                    article.setTitle(articleFormData.getTitle());
+                    article.setAuthor(requestContext.getUser());
+                    articlesToInsert.add(article);
+                }
+            }
+            List<Article> articlesToUpdate = new ArrayList<>();
+            if (articleBatch.getUpdate() != null) {
+                for (ArticleFormData articleFormData : articleBatch.getUpdate()) {
+                    Article article = new Article();
+                    article.setId(articleFormData.getId());
+                    article.setContent(articleFormData.getContent());
+                    article.setTitle(articleFormData.getTitle());
+                    articlesToUpdate.add(article);
+                }
+            }
+
+            // Closing the connection without committing rolls the transaction back
+            Transaction transaction = requestContext.getSqlConnection().begin();
+            articleRepository.insertBatch(
+                    transaction,
+                    articlesToInsert,
+                    requestContext.createHandler((List<Boolean> inserted) -> {
+                        articleRepository.updateBatch(
+                                transaction,
+                                articlesToUpdate,
+                                requestContext.createHandler((List<Integer> versions) -> {
+                                    transaction.commit(requestContext.createHandler((Void commitResult) -> {
+                                        ArticleBatchResult articleBatchResult = new ArticleBatchResult();
+                                        for (int i = 0; i < articlesToInsert.size(); i++) {
+                                            if (inserted.get(i)) {
+                                                articleRepository.committed(articlesToInsert.get(i).getId(), null);
+                                            }
+                                            articleBatchResult.getInserted().add(new ArticleBatchItemResult(
+                                                    articlesToInsert.get(i).getId(),
+                                                    inserted.get(i) ? "created" : "alreadyExists",
+                                                    null
+                                            ));
+                                        }
+                                        for (int i = 0; i < articlesToUpdate.size(); i++) {
+                                            Integer version = versions.get(i);
+                                            if (version != null) {
+                                                articleRepository.committed(articlesToUpdate.get(i).getId(), version);
+                                            }
+                                            articleBatchResult.getUpdated().add(new ArticleBatchItemResult(
+                                                    articlesToUpdate.get(i).getId(),
+                                                    version == null ? "notFound" : "updated",
+                                                    version
+                                            ));
+                                        }
+                                        requestContextManager.recordWrite(requestContext, v -> {
+                                            requestContext.handleSuccess(OperationResponse.completedWithJson(
+                                                    JsonObject.mapFrom(articleBatchResult)
+                                            ));
+                                        });
+                                    }));
                                 }));
                     }));
         });
     }
+
+    static String toETag(Integer version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * The ETag of an article depends on the fields returned, a projection must not be served from the cache
+     * in place of the full article or of another projection. The full article keeps the plain version,
+     * which If-Match expects when updating it.
+     */
+    static String toArticleETag(Integer version, Set<ArticleField> fields) {
+        if (fields.containsAll(ArticleField.ALL)) {
+            return toETag(version);
+        }
+        // The fields are iterated in their declaration order, whatever the order of the request.
+        // They are joined with dots, If-None-Match separates the entity tags with commas.
+        StringBuilder eTag = new StringBuilder("\"").append(version);
+        char separator = '-';
+        for (ArticleField field : fields) {
+            eTag.append(separator).append(field.getName());
+            separator = '.';
+        }
+        return eTag.append('"').toString();
+    }
+
+    /**
+     * @return the version in a strong or weak entity tag, or null if it isn't one of ours
+     */
+    static Integer parseETag(String eTag) {
+        String value = eTag.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The ETag of a page depends on the ids and versions of its articles, on whether there is a next page,
+     * and on the fields returned.
+     */
+    static String toListETag(Page<Article> page, Set<ArticleField> fields) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Article article : page.getItems()) {
+            digest.update((article.getId() + ":" + article.getVersion() + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((page.getNextKey() == null ? "last" : "more").getBytes(StandardCharsets.UTF_8));
+        for (ArticleField field : fields) {
+            digest.update((":" + field.getName()).getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] hash = Arrays.copyOf(digest.digest(), 16);
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+    }
+
+    /**
+     * If-None-Match uses the weak comparison, and may hold several entity tags.
+     */
+    static boolean eTagMatches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch.trim().equals("*")) {
+            return true;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
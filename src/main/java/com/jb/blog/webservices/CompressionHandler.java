@@ -0,0 +1,68 @@
+package com.jb.blog.webservices;
+
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Decides which responses the server compresses, when compression is enabled in HttpServerOptions.
+ *
+ * The server compresses every response the client accepts compressed, this handler opts out the ones
+ * that aren't worth the CPU: responses smaller than minSize, and responses whose content type isn't in
+ * contentTypes. Setting the content-encoding to identity is how Vert.x is told not to compress a response.
+ * Chunked responses have no known size, they are compressed if their content type allows it.
+ */
+public class CompressionHandler implements Handler<RoutingContext> {
+    private final int minSize;
+    private final Set<String> contentTypes;
+
+    public CompressionHandler(int minSize, Set<String> contentTypes) {
+        this.minSize = minSize;
+        this.contentTypes = new HashSet<>();
+        for (String contentType : contentTypes) {
+            this.contentTypes.add(contentType.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    @Override
+    public void handle(RoutingContext routingContext) {
+        HttpServerResponse response = routingContext.response();
+        // The content-length of complete responses is set before the headers end handlers are called
+        routingContext.addHeadersEndHandler(v -> {
+            if (!shouldCompress(response.headers())) {
+                response.putHeader(HttpHeaders.CONTENT_ENCODING, HttpHeaders.IDENTITY);
+            }
+        });
+        routingContext.next();
+    }
+
+    boolean shouldCompress(MultiMap headers) {
+        if (headers.contains(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+        String contentType = headers.get(HttpHeaders.CONTENT_TYPE);
+        if (contentType == null) {
+            return false;
+        }
+        int parametersIndex = contentType.indexOf(';');
+        String mediaType = parametersIndex == -1 ? contentType : contentType.substring(0, parametersIndex);
+        if (!contentTypes.contains(mediaType.trim().toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+        String contentLength = headers.get(HttpHeaders.CONTENT_LENGTH);
+        if (contentLength == null) {
+            return true;
+        }
+        try {
+            return Long.parseLong(contentLength) >= minSize;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -4,12 +4,13 @@ import com.jb.blog.persistence.HttpSessionRepository;
 import com.jb.blog.persistence.user.UserRepository;
 import com.jb.blog.services.JsonMapper;
 import com.jb.blog.services.OperationRequestService;
+import com.jb.blog.services.PasswordHashingOverloadedException;
+import com.jb.blog.services.PasswordHashingService;
 import com.jb.blog.session.SessionConfiguration;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.http.Cookie;
-import io.vertx.core.http.impl.ServerCookie;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Session;
 import io.vertx.ext.web.api.OperationRequest;
@@ -28,6 +29,7 @@ public class HttpSessionWebServiceImpl implements HttpSessionWebService {
     private final JsonMapper<User> userJsonMapper;
     private final OperationRequestService operationRequestService;
     private final UserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
 
     public HttpSessionWebServiceImpl(
             RequestContextManagerFactory requestContextManagerFactory,
@@ -36,7 +38,8 @@ public class HttpSessionWebServiceImpl implements HttpSessionWebService {
             SessionConfiguration sessionConfiguration,
             JsonMapper<User> userJsonMapper,
             OperationRequestService operationRequestService,
-            UserRepository userRepository
+            UserRepository userRepository,
+            PasswordHashingService passwordHashingService
     ) {
         this.requestContextManagerFactory = requestContextManagerFactory;
         this.loginFormMapper = loginFormMapper;
@@ -45,6 +48,7 @@ public class HttpSessionWebServiceImpl implements HttpSessionWebService {
         this.userJsonMapper = userJsonMapper;
         this.operationRequestService = operationRequestService;
         this.userRepository = userRepository;
+        this.passwordHashingService = passwordHashingService;
     }
 
     public void login(
@@ -53,69 +57,103 @@ public class HttpSessionWebServiceImpl implements HttpSessionWebService {
             Handler<AsyncResult<OperationResponse>> handler
     ) {
         RequestContextManager requestContextManager = requestContextManagerFactory.create(operationRequest, handler);
-        requestContextManager.getContextWithoutUser(requestContext -> {
+        requestContextManager.getPoolContextWithoutUser(requestContext -> {
             LoginForm loginForm = loginFormMapper.fromJson(body);
-            SqlConnection sqlConnection = requestContext.getSqlConnection();
+            SqlClient sqlClient = requestContext.getSqlClient();
             String username = loginForm.getUsername();
 
-            // TODO: password hashing
-            userRepository.getUserById(sqlConnection, username, requestContext.createHandler((user) -> {
-                if (user == null || !user.getPassword().equals(loginForm.getPassword())) {
-                    OperationResponse operationResponse = new OperationResponse();
-                    operationResponse.setStatusCode(400);
-                    requestContext.handleSuccess(operationResponse);
-                    return;
-                }
+            userRepository.getUserById(sqlClient, username, requestContext.createHandler((user) -> {
+                String passwordHash = user == null ? null : user.getPassword();
+                Handler<AsyncResult<Boolean>> verifyHandler = requestContext.createHandler((Boolean matches) -> {
+                    if (user == null || !matches) {
+                        OperationResponse operationResponse = new OperationResponse();
+                        operationResponse.setStatusCode(400);
+                        requestContext.handleSuccess(operationResponse);
+                        return;
+                    }
+                    if (passwordHashingService.needsRehash(passwordHash)) {
+                        upgradePasswordHash(sqlClient, username, passwordHash, loginForm.getPassword());
+                    }
+                    startSession(requestContext, user);
+                });
+                passwordHashingService.verify(loginForm.getPassword(), passwordHash, verifyResult -> {
+                    if (verifyResult.failed() && verifyResult.cause() instanceof PasswordHashingOverloadedException) {
+                        requestContext.handleSuccess(createOverloadedResponse());
+                        return;
+                    }
+                    verifyHandler.handle(verifyResult);
+                });
+            }));
+        });
+    }
 
-                Session session = httpSessionRepository.createSession();
-                session.put("username", user.getUsername());
-                httpSessionRepository.putSession(session, requestContext.createHandler((Void putSessionResult) -> {
-                    OperationResponse operationResponse = new OperationResponse();
-                    Cookie cookie = Cookie.cookie(sessionConfiguration.sessionCookieName, session.id());
-                    cookie.setPath(sessionConfiguration.sessionCookiePath);
-                    cookie.setSecure(sessionConfiguration.sessionCookieSecure);
-                    cookie.setHttpOnly(sessionConfiguration.sessionCookieHttpOnly);
-                    cookie.setSameSite(sessionConfiguration.cookieSameSite);
-                    cookie.setMaxAge(10000000);
-                    operationResponse.putHeader("Set-Cookie", cookie.encode());
-                    operationResponse.setStatusCode(200);
-                    operationResponse.setPayload(userJsonMapper.toJson(user).toBuffer());
+    private void startSession(RequestContext requestContext, User user) {
+        Session session = httpSessionRepository.createSession();
+        session.put("username", user.getUsername());
+        httpSessionRepository.putSession(session, requestContext.createHandler((Void putSessionResult) -> {
+            OperationResponse operationResponse = new OperationResponse();
+            Cookie cookie = Cookie.cookie(sessionConfiguration.sessionCookieName, session.id());
+            cookie.setPath(sessionConfiguration.sessionCookiePath);
+            cookie.setSecure(sessionConfiguration.sessionCookieSecure);
+            cookie.setHttpOnly(sessionConfiguration.sessionCookieHttpOnly);
+            cookie.setSameSite(sessionConfiguration.cookieSameSite);
+            cookie.setMaxAge(10000000);
+            operationResponse.putHeader("Set-Cookie", cookie.encode());
+            operationResponse.setStatusCode(200);
+            operationResponse.setPayload(userJsonMapper.toBuffer(withoutPassword(user)));
 
-                    requestContext.handleSuccess(operationResponse);
-                }));
-            }));
+            requestContext.handleSuccess(operationResponse);
+        }));
+    }
+
+    /**
+     * Replaces the stored hash with one made with the current parameters. This doesn't delay the login:
+     * if it fails, it is done again on the next one.
+     */
+    private void upgradePasswordHash(SqlClient sqlClient, String username, String passwordHash, String password) {
+        passwordHashingService.hash(password, hashResult -> {
+            if (hashResult.succeeded()) {
+                String newPasswordHash = hashResult.result();
+                userRepository.updatePassword(sqlClient, username, passwordHash, newPasswordHash, updateResult -> { });
+            }
         });
     }
 
+    /**
+     * Answered when too many passwords are waiting to be hashed, rather than making the client wait.
+     */
+    static OperationResponse createOverloadedResponse() {
+        OperationResponse operationResponse = new OperationResponse();
+        operationResponse.setStatusCode(503);
+        operationResponse.putHeader("Retry-After", "1");
+        return operationResponse;
+    }
+
+    /**
+     * The users returned to the clients never hold the password hash.
+     */
+    private static User withoutPassword(User user) {
+        return new User(user.getUsername(), null, user.getVersion());
+    }
+
     @Override
     public void getCurrentAuthenticatedUser(
             OperationRequest operationRequest,
             Handler<AsyncResult<OperationResponse>> handler
     ) {
-        RequestContextManager requestContextManager = requestContextManagerFactory.create(operationRequest, handler);
-        requestContextManager.getContextWithUser(requestContext -> {
-            requestContext.handleSuccess(
-                    OperationResponse.completedWithJson(userJsonMapper.toJson(requestContext.getUser()))
-            );
+        RequestContextManager requestContextManager = requestContextManagerFactory.createReadOnly(operationRequest, handler);
+        requestContextManager.getPoolContextWithUser(requestContext -> {
+            User user = withoutPassword(requestContext.getUser());
+            requestContext.handleSuccess(OperationResponse.completedWithJson(userJsonMapper.toBuffer(user)));
         });
     }
 
     @Override
     public void logout(OperationRequest operationRequest, Handler<AsyncResult<OperationResponse>> handler) {
         RequestContextManager requestContextManager = requestContextManagerFactory.create(operationRequest, handler);
-        requestContextManager.getContextWithUser(requestContext -> {
-            OperationResponse operationResponse = requestContextManager.createLogoutResponse(operationRequest);
+        requestContextManager.getPoolContextWithUser(requestContext -> {
+            OperationResponse operationResponse = requestContextManager.createLogoutResponse();
             requestContext.handleSuccess(operationResponse);
         });
     }
-
-    private OperationResponse createLogoutResponse(OperationRequest operationRequest) {
-        OperationResponse operationResponse = new OperationResponse();
-        ServerCookie sessionCookie = httpSessionRepository.getSessionCookie(operationRequest);
-        if (sessionCookie != null) {
-            sessionCookie.setMaxAge(0L);
-            operationResponse.putHeader("Set-Cookie", sessionCookie.encode());
-        }
-        return operationResponse;
-    }
 }
@@ -5,16 +5,34 @@ import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.ext.web.Session;
 import io.vertx.ext.web.api.OperationResponse;
+import io.vertx.sqlclient.SqlClient;
 import io.vertx.sqlclient.SqlConnection;
 import org.openapitools.vertxweb.server.model.User;
 
 public class RequestContext {
+    private final SqlClient sqlClient;
     private final SqlConnection sqlConnection;
     private final Session session;
     private final User user;
     private final Handler<AsyncResult<OperationResponse>> operationResponseHandler;
 
     public RequestContext(SqlConnection sqlConnection, Session session, User user, Handler<AsyncResult<OperationResponse>> operationResponseHandler) {
+        this(sqlConnection, sqlConnection, session, user, operationResponseHandler);
+    }
+
+    /**
+     * @param sqlClient     client used for the queries of the request
+     * @param sqlConnection connection leased for the request, closed when the request ends, may be null
+     *                      if sqlClient is the pool
+     */
+    public RequestContext(
+            SqlClient sqlClient,
+            SqlConnection sqlConnection,
+            Session session,
+            User user,
+            Handler<AsyncResult<OperationResponse>> operationResponseHandler
+    ) {
+        this.sqlClient = sqlClient;
         this.sqlConnection = sqlConnection;
         this.session = session;
         this.user = user;
@@ -22,13 +40,13 @@ public class RequestContext {
     }
 
     public void handleThrowable(Throwable exception) {
-        sqlConnection.close();
+        closeConnection();
         operationResponseHandler.handle(Future.failedFuture(exception));
     }
 
     public <T> void handleAsyncResult(AsyncResult<T> asyncResult, Handler<T> successHandler) {
         if (asyncResult.failed()) {
-            sqlConnection.close();
+            closeConnection();
             operationResponseHandler.handle(Future.failedFuture(asyncResult.cause()));
             return;
         }
@@ -36,7 +54,7 @@ public class RequestContext {
     }
 
     public void handleSuccess(OperationResponse operationResponse) {
-        sqlConnection.close();
+        closeConnection();
         operationResponseHandler.handle(Future.succeededFuture(operationResponse));
     }
 
@@ -49,6 +67,16 @@ public class RequestContext {
         };
     }
 
+    private void closeConnection() {
+        if (sqlConnection != null) {
+            sqlConnection.close();
+        }
+    }
+
+    public SqlClient getSqlClient() {
+        return sqlClient;
+    }
+
     public SqlConnection getSqlConnection() {
         return sqlConnection;
     }
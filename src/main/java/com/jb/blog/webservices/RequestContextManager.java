@@ -1,15 +1,16 @@
 package com.jb.blog.webservices;
 
 import com.jb.blog.persistence.HttpSessionRepository;
+import com.jb.blog.persistence.ReplicaRouter;
 import com.jb.blog.persistence.user.UserRepository;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
-import io.vertx.core.http.impl.ServerCookie;
 import io.vertx.ext.web.Session;
 import io.vertx.ext.web.api.OperationRequest;
 import io.vertx.ext.web.api.OperationResponse;
 import io.vertx.pgclient.PgPool;
+import io.vertx.sqlclient.SqlClient;
 import io.vertx.sqlclient.SqlConnection;
 import org.openapitools.vertxweb.server.model.User;
 
@@ -19,20 +20,35 @@ public class RequestContextManager {
     private final HttpSessionRepository httpSessionRepository;
     private final UserRepository userRepository;
     private final Handler<AsyncResult<OperationResponse>> operationResponseHandler;
+    private final ReplicaRouter replicaRouter;
+    private final boolean readOnly;
+    private boolean sessionIdLookedUp = false;
+    private String sessionId;
 
+    /**
+     * @param readOnly if true, the queries of the pool contexts may run on a read replica
+     */
     public RequestContextManager(
             OperationRequest operationRequest,
             PgPool pool,
             HttpSessionRepository httpSessionRepository,
             UserRepository userRepository,
-            Handler<AsyncResult<OperationResponse>> operationResponseHandler) {
+            Handler<AsyncResult<OperationResponse>> operationResponseHandler,
+            ReplicaRouter replicaRouter,
+            boolean readOnly) {
         this.operationRequest = operationRequest;
         this.pool = pool;
         this.httpSessionRepository = httpSessionRepository;
         this.userRepository = userRepository;
         this.operationResponseHandler = operationResponseHandler;
+        this.replicaRouter = replicaRouter;
+        this.readOnly = readOnly;
     }
 
+    /**
+     * Get a context without user, on a connection leased for the whole request.
+     * Use it for operations running several statements on the same connection, e.g. transactions.
+     */
     public void getContextWithoutUser(Handler<RequestContext> handler) {
         pool.getConnection(getConnectionResult -> {
             if (getConnectionResult.failed()) {
@@ -45,62 +61,195 @@ public class RequestContextManager {
         });
     }
 
-    public void getContextWithUser(Handler<RequestContext> handler) {
-        httpSessionRepository.getFromOperationRequest(operationRequest, getSessionResult -> {
+    /**
+     * Get a context whose queries run directly on the pool: a connection is only
+     * borrowed for the duration of each query.
+     * Only use it for operations that don't need several statements on the same connection.
+     */
+    public void getPoolContextWithoutUser(Handler<RequestContext> handler) {
+        if (!readOnly || !replicaRouter.hasReplicas()) {
+            RequestContext requestContext = new RequestContext(pool, null, null, null, operationResponseHandler);
+            handler.handle(requestContext);
+            return;
+        }
+        // We need the session to know which replicas have the last write of the user
+        getSessionOfRequest(getSessionResult -> {
             if (getSessionResult.failed()) {
                 operationResponseHandler.handle(Future.failedFuture(getSessionResult.cause()));
                 return;
             }
             Session session = getSessionResult.result();
-            if (session == null) {
-                OperationResponse operationResponse = createLogoutResponse(operationRequest);
-                operationResponse.setStatusCode(401);
-                operationResponseHandler.handle(Future.succeededFuture(operationResponse));
-                return;
-            }
+            Long writeLsn = session == null ? null : session.get(ReplicaRouter.WRITE_LSN_SESSION_KEY);
+            SqlClient sqlClient = replicaRouter.getReadClient(writeLsn);
+            RequestContext requestContext = new RequestContext(sqlClient, null, null, null, operationResponseHandler);
+            handler.handle(requestContext);
+        });
+    }
+
+    /**
+     * Get a context with the authenticated user, on a connection leased for the whole request.
+     */
+    public void getContextWithUser(Handler<RequestContext> handler) {
+        getSession(session -> {
             pool.getConnection(getConnectionResult -> {
                 if (getConnectionResult.failed()) {
                     operationResponseHandler.handle(Future.failedFuture(getConnectionResult.cause()));
                     return;
                 }
                 SqlConnection connection = getConnectionResult.result();
-                String username = session.get("username");
-                userRepository.getUserById(connection, username, getUserResult -> {
-                    if (getUserResult.failed()) {
-                        connection.close();
-                        operationResponseHandler.handle(Future.failedFuture(getUserResult.cause()));
+                getUser(connection, connection, session, handler);
+            });
+        });
+    }
+
+    /**
+     * Same as getContextWithUser, but queries, including the one loading the user,
+     * run directly on the pool.
+     * Only use it for operations that don't need several statements on the same connection.
+     */
+    public void getPoolContextWithUser(Handler<RequestContext> handler) {
+        getSession(session -> {
+            SqlClient sqlClient = pool;
+            if (readOnly) {
+                sqlClient = replicaRouter.getReadClient(session.get(ReplicaRouter.WRITE_LSN_SESSION_KEY));
+            }
+            getUser(sqlClient, null, session, handler);
+        });
+    }
+
+    /**
+     * Must be called after the writes of the request have been committed, so that the following
+     * reads of the session see them even if they run on a replica.
+     */
+    public void recordWrite(RequestContext requestContext, Handler<Void> handler) {
+        Session session = requestContext.getSession();
+        if (session == null || !replicaRouter.hasReplicas()) {
+            handler.handle(null);
+            return;
+        }
+        replicaRouter.getWriteLsn(requestContext.createHandler((Long writeLsn) -> {
+            session.put(ReplicaRouter.WRITE_LSN_SESSION_KEY, writeLsn);
+            httpSessionRepository.putSession(session, putSessionResult -> {
+                if (putSessionResult.succeeded()) {
+                    handler.handle(null);
+                    return;
+                }
+                // Another request of the user may have written the session since we read it, try once more on
+                // the current version, unless it already has a later write
+                httpSessionRepository.get(session.id(), requestContext.createHandler((Session currentSession) -> {
+                    Long currentWriteLsn = currentSession == null
+                            ? null
+                            : currentSession.get(ReplicaRouter.WRITE_LSN_SESSION_KEY);
+                    if (currentSession == null || (currentWriteLsn != null && currentWriteLsn >= writeLsn)) {
+                        handler.handle(null);
                         return;
                     }
-                    User user = getUserResult.result();
-                    if (user == null) {
-                        httpSessionRepository.delete(session, deleteResult -> {
-                            if (deleteResult.failed()) {
-                                connection.close();
-                                operationResponseHandler.handle(Future.failedFuture(deleteResult.cause()));
-                                return;
-                            }
-                            OperationResponse operationResponse = createLogoutResponse(operationRequest);
-                            operationResponse.setStatusCode(401);
-                            connection.close();
-                            operationResponseHandler.handle(Future.succeededFuture(operationResponse));
-                        });
+                    currentSession.put(ReplicaRouter.WRITE_LSN_SESSION_KEY, writeLsn);
+                    httpSessionRepository.putSession(
+                            currentSession,
+                            requestContext.createHandler((Void retryResult) -> handler.handle(null))
+                    );
+                }));
+            });
+        }));
+    }
+
+    /**
+     * @see ReplicaRouter#getWriteLsn(Handler)
+     */
+    public void getWriteLsn(Handler<AsyncResult<Long>> handler) {
+        replicaRouter.getWriteLsn(handler);
+    }
+
+    /**
+     * Get the session of the request, or answer 401 if there is none.
+     */
+    private void getSession(Handler<Session> handler) {
+        getSessionOfRequest(getSessionResult -> {
+            if (getSessionResult.failed()) {
+                operationResponseHandler.handle(Future.failedFuture(getSessionResult.cause()));
+                return;
+            }
+            Session session = getSessionResult.result();
+            if (session == null) {
+                OperationResponse operationResponse = createLogoutResponse();
+                operationResponse.setStatusCode(401);
+                operationResponseHandler.handle(Future.succeededFuture(operationResponse));
+                return;
+            }
+            handler.handle(session);
+        });
+    }
+
+    /**
+     * @param connection the connection leased for the request, closed on failure, may be null
+     */
+    private void getUser(
+            SqlClient sqlClient,
+            SqlConnection connection,
+            Session session,
+            Handler<RequestContext> handler
+    ) {
+        String username = session.get("username");
+        userRepository.getUserById(sqlClient, username, getUserResult -> {
+            if (getUserResult.failed()) {
+                closeConnection(connection);
+                operationResponseHandler.handle(Future.failedFuture(getUserResult.cause()));
+                return;
+            }
+            User user = getUserResult.result();
+            if (user == null) {
+                httpSessionRepository.delete(session, deleteResult -> {
+                    if (deleteResult.failed()) {
+                        closeConnection(connection);
+                        operationResponseHandler.handle(Future.failedFuture(deleteResult.cause()));
                         return;
                     }
-
-                    RequestContext requestContext = new RequestContext(connection, session, user, operationResponseHandler);
-                    handler.handle(requestContext);
+                    OperationResponse operationResponse = createLogoutResponse();
+                    operationResponse.setStatusCode(401);
+                    closeConnection(connection);
+                    operationResponseHandler.handle(Future.succeededFuture(operationResponse));
                 });
-            });
+                return;
+            }
+
+            RequestContext requestContext = new RequestContext(sqlClient, connection, session, user, operationResponseHandler);
+            handler.handle(requestContext);
         });
     }
 
-    public OperationResponse createLogoutResponse(OperationRequest operationRequest) {
+    private void closeConnection(SqlConnection connection) {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    public OperationResponse createLogoutResponse() {
         OperationResponse operationResponse = new OperationResponse();
-        ServerCookie sessionCookie = httpSessionRepository.getSessionCookie(operationRequest);
-        if (sessionCookie != null) {
-            sessionCookie.setMaxAge(0L);
-            operationResponse.putHeader("Set-Cookie", sessionCookie.encode());
+        String sessionId = getSessionId();
+        if (sessionId != null) {
+            operationResponse.putHeader("Set-Cookie", httpSessionRepository.createLogoutCookie(sessionId).encode());
         }
         return operationResponse;
     }
+
+    /**
+     * The session cookie is looked up once per request, even when the logout response needs it after the session.
+     */
+    private String getSessionId() {
+        if (!sessionIdLookedUp) {
+            sessionId = httpSessionRepository.getSessionId(operationRequest);
+            sessionIdLookedUp = true;
+        }
+        return sessionId;
+    }
+
+    private void getSessionOfRequest(Handler<AsyncResult<Session>> handler) {
+        String sessionId = getSessionId();
+        if (sessionId == null) {
+            handler.handle(Future.succeededFuture(null));
+            return;
+        }
+        httpSessionRepository.get(sessionId, handler);
+    }
 }
@@ -1,6 +1,7 @@
 package com.jb.blog.webservices;
 
 import com.jb.blog.persistence.HttpSessionRepository;
+import com.jb.blog.persistence.ReplicaRouter;
 import com.jb.blog.persistence.user.UserRepository;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
@@ -12,18 +13,47 @@ public class RequestContextManagerFactory {
     private final PgPool pool;
     private final HttpSessionRepository httpSessionRepository;
     private final UserRepository userRepository;
+    private final ReplicaRouter replicaRouter;
 
     public RequestContextManagerFactory(
             PgPool pool,
             HttpSessionRepository httpSessionRepository,
-            UserRepository userRepository
+            UserRepository userRepository,
+            ReplicaRouter replicaRouter
     ) {
         this.pool = pool;
         this.httpSessionRepository = httpSessionRepository;
         this.userRepository = userRepository;
+        this.replicaRouter = replicaRouter;
     }
 
     public RequestContextManager create(OperationRequest operationRequest, Handler<AsyncResult<OperationResponse>> resultHandler) {
-        return new RequestContextManager(operationRequest, pool, httpSessionRepository, userRepository, resultHandler);
+        return new RequestContextManager(
+                operationRequest,
+                pool,
+                httpSessionRepository,
+                userRepository,
+                resultHandler,
+                replicaRouter,
+                false
+        );
+    }
+
+    /**
+     * Create a manager for an operation that doesn't write anything: its pool contexts run on the read replicas.
+     */
+    public RequestContextManager createReadOnly(
+            OperationRequest operationRequest,
+            Handler<AsyncResult<OperationResponse>> resultHandler
+    ) {
+        return new RequestContextManager(
+                operationRequest,
+                pool,
+                httpSessionRepository,
+                userRepository,
+                resultHandler,
+                replicaRouter,
+                true
+        );
     }
 }
@@ -0,0 +1,14 @@
+package com.jb.blog.webservices;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.ext.web.api.OperationRequest;
+import io.vertx.ext.web.api.OperationResponse;
+
+/**
+ * An operation of a web api service, with its parameters taken from the params of the OperationRequest.
+ */
+@FunctionalInterface
+public interface ServiceOperation {
+    void invoke(OperationRequest operationRequest, Handler<AsyncResult<OperationResponse>> handler);
+}
@@ -0,0 +1,42 @@
+package com.jb.blog.webservices;
+
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.Message;
+import io.vertx.ext.web.api.OperationRequest;
+
+import java.util.Map;
+
+/**
+ * Event bus side of ServiceOperations.mountEventBus: calls the operation named by the action header
+ * and replies with its OperationResponse.
+ */
+public class ServiceOperationConsumer implements Handler<Message<OperationRequest>> {
+    static final String ACTION_HEADER = "action";
+
+    private final Map<String, ServiceOperation> operations;
+
+    public ServiceOperationConsumer(Map<String, ServiceOperation> operations) {
+        this.operations = operations;
+    }
+
+    @Override
+    public void handle(Message<OperationRequest> message) {
+        String action = message.headers().get(ACTION_HEADER);
+        ServiceOperation operation = action == null ? null : operations.get(action);
+        if (operation == null) {
+            message.fail(400, "Unknown action " + action);
+            return;
+        }
+        try {
+            operation.invoke(message.body(), operationResult -> {
+                if (operationResult.failed()) {
+                    message.fail(500, operationResult.cause().getMessage());
+                    return;
+                }
+                message.reply(operationResult.result());
+            });
+        } catch (RuntimeException e) {
+            message.fail(500, e.getMessage());
+        }
+    }
+}
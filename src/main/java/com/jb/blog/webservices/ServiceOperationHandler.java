@@ -0,0 +1,63 @@
+package com.jb.blog.webservices;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.api.OperationRequest;
+import io.vertx.ext.web.api.OperationResponse;
+import io.vertx.ext.web.api.RequestParameters;
+
+/**
+ * Route handler of an operation: builds the OperationRequest and writes the OperationResponse the same way
+ * the handlers mounted by the router factory do, so services can't tell the difference.
+ *
+ * The operation is either the service method itself, called on the event loop of the request,
+ * or a request to a ServiceOperationConsumer over the event bus, see ServiceOperations.
+ */
+public class ServiceOperationHandler implements Handler<RoutingContext> {
+    private final ServiceOperation operation;
+
+    public ServiceOperationHandler(ServiceOperation operation) {
+        this.operation = operation;
+    }
+
+    @Override
+    public void handle(RoutingContext routingContext) {
+        RequestParameters requestParameters = routingContext.get("parsedParameters");
+        OperationRequest operationRequest = new OperationRequest(
+                requestParameters.toJson(),
+                routingContext.request().headers(),
+                routingContext.user() == null ? null : routingContext.user().principal(),
+                null
+        );
+        try {
+            operation.invoke(operationRequest, operationResult -> handleResult(routingContext, operationResult));
+        } catch (RuntimeException e) {
+            routingContext.fail(e);
+        }
+    }
+
+    private static void handleResult(RoutingContext routingContext, AsyncResult<OperationResponse> operationResult) {
+        if (operationResult.failed()) {
+            routingContext.fail(operationResult.cause());
+            return;
+        }
+        OperationResponse operationResponse = operationResult.result();
+        HttpServerResponse response = routingContext.response();
+        if (operationResponse.getStatusCode() != null) {
+            response.setStatusCode(operationResponse.getStatusCode());
+        }
+        if (operationResponse.getStatusMessage() != null) {
+            response.setStatusMessage(operationResponse.getStatusMessage());
+        }
+        if (operationResponse.getHeaders() != null) {
+            operationResponse.getHeaders().forEach(header -> response.putHeader(header.getKey(), header.getValue()));
+        }
+        if (operationResponse.getPayload() != null) {
+            response.end(operationResponse.getPayload());
+        } else {
+            response.end();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.jb.blog.webservices;
+
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.api.OperationResponse;
+import io.vertx.ext.web.api.contract.openapi3.OpenAPI3RouterFactory;
+import io.vertx.serviceproxy.HelperUtils;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.vertx.ext.web.api.generator.ApiHandlerUtils.*;
+
+/**
+ * The operations of the web api services by operation id, the parameters are extracted like the generated
+ * ProxyHandlers do. ServiceOperationsTest checks the maps against the operations of openapi.yaml.
+ */
+public final class ServiceOperations {
+    private ServiceOperations() {
+    }
+
+    /**
+     * The routes call the services on the event loop of the request.
+     */
+    public static void mountDirect(OpenAPI3RouterFactory routerFactory, Map<String, ServiceOperation> operations) {
+        operations.forEach((operationId, operation) ->
+                routerFactory.addHandlerByOperationId(operationId, new ServiceOperationHandler(operation))
+        );
+    }
+
+    /**
+     * The routes send the OperationRequests to the ServiceOperationConsumers registered on address,
+     * see WebApiMessageCodecs. The service itself isn't needed, it may run in another process.
+     *
+     * @param serviceInterface its method names are the operation ids, like for the generated proxies
+     */
+    public static void mountEventBus(
+            OpenAPI3RouterFactory routerFactory,
+            EventBus eventBus,
+            String address,
+            Class<?> serviceInterface
+    ) {
+        for (Method method : serviceInterface.getMethods()) {
+            String operationId = method.getName();
+            DeliveryOptions deliveryOptions = new DeliveryOptions()
+                    .addHeader(ServiceOperationConsumer.ACTION_HEADER, operationId);
+            routerFactory.addHandlerByOperationId(operationId, new ServiceOperationHandler((request, handler) ->
+                    eventBus.<OperationResponse>request(address, request, deliveryOptions, requestResult ->
+                            handler.handle(requestResult.map(Message::body))
+                    )
+            ));
+        }
+    }
+
+    public static Map<String, ServiceOperation> of(ArticleWebService service) {
+        Map<String, ServiceOperation> operations = new LinkedHashMap<>();
+        operations.put("getArticleById", (request, handler) ->
+                service.getArticleById(
+                        (String) searchInJson(request.getParams(), "id"),
+                        getList(request.getParams(), "fields"),
+                        request,
+                        handler
+                )
+        );
+        operations.put("getArticlesByIds", (request, handler) ->
+                service.getArticlesByIds(getList(request.getParams(), "ids"), request, handler)
+        );
+        operations.put("insertArticle", (request, handler) ->
+                service.insertArticle((JsonObject) searchInJson(request.getParams(), "body"), request, handler)
+        );
+        operations.put("updateArticle", (request, handler) ->
+                service.updateArticle((JsonObject) searchInJson(request.getParams(), "body"), request, handler)
+        );
+        operations.put("batchArticles", (request, handler) ->
+                service.batchArticles((JsonObject) searchInJson(request.getParams(), "body"), request, handler)
+        );
+        operations.put("getAllArticles", (request, handler) ->
+                service.getAllArticles(
+                        (String) searchInJson(request.getParams(), "after"),
+                        getInteger(request.getParams(), "limit"),
+                        getList(request.getParams(), "fields"),
+                        request,
+                        handler
+                )
+        );
+        operations.put("searchArticles", (request, handler) ->
+                service.searchArticles(
+                        (String) searchInJson(request.getParams(), "q"),
+                        (String) searchInJson(request.getParams(), "after"),
+                        getInteger(request.getParams(), "limit"),
+                        request,
+                        handler
+                )
+        );
+        operations.put("getArticlesByAuthor", (request, handler) ->
+                service.getArticlesByAuthor(
+                        (String) searchInJson(request.getParams(), "username"),
+                        (String) searchInJson(request.getParams(), "after"),
+                        getInteger(request.getParams(), "limit"),
+                        getList(request.getParams(), "fields"),
+                        request,
+                        handler
+                )
+        );
+        return operations;
+    }
+
+    public static Map<String, ServiceOperation> of(HttpSessionWebService service) {
+        Map<String, ServiceOperation> operations = new LinkedHashMap<>();
+        operations.put("login", (request, handler) ->
+                service.login((JsonObject) searchInJson(request.getParams(), "body"), request, handler)
+        );
+        operations.put("getCurrentAuthenticatedUser", service::getCurrentAuthenticatedUser);
+        operations.put("logout", service::logout);
+        return operations;
+    }
+
+    public static Map<String, ServiceOperation> of(UserWebService service) {
+        Map<String, ServiceOperation> operations = new LinkedHashMap<>();
+        operations.put("register", (request, handler) ->
+                service.register((JsonObject) searchInJson(request.getParams(), "body"), request, handler)
+        );
+        return operations;
+    }
+
+    private static List<String> getList(JsonObject params, String name) {
+        return HelperUtils.convertList(searchOptionalJsonArrayInJson(params, name).map(JsonArray::getList).orElse(null));
+    }
+
+    private static Integer getInteger(JsonObject params, String name) {
+        return searchOptionalLongInJson(params, name).map(Long::intValue).orElse(null);
+    }
+}
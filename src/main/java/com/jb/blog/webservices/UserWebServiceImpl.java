@@ -2,6 +2,8 @@ package com.jb.blog.webservices;
 
 import com.jb.blog.persistence.user.UserRepository;
 import com.jb.blog.services.JsonMapper;
+import com.jb.blog.services.PasswordHashingOverloadedException;
+import com.jb.blog.services.PasswordHashingService;
 import com.jb.blog.services.RegistrationFormService;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
@@ -10,7 +12,6 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.api.OperationRequest;
 import io.vertx.ext.web.api.OperationResponse;
 import io.vertx.pgclient.PgPool;
-import io.vertx.sqlclient.SqlClient;
 import org.openapitools.vertxweb.server.model.RegistrationForm;
 import org.openapitools.vertxweb.server.model.User;
 
@@ -19,16 +20,19 @@ public class UserWebServiceImpl implements UserWebService {
     private final UserRepository userRepository;
     private final JsonMapper<RegistrationForm> registrationFormJsonMapper;
     private final RegistrationFormService registrationFormService;
+    private final PasswordHashingService passwordHashingService;
 
     public UserWebServiceImpl(
             PgPool pool,
             UserRepository userRepository,
             JsonMapper<RegistrationForm> registrationFormJsonMapper,
-            RegistrationFormService registrationFormService) {
+            RegistrationFormService registrationFormService,
+            PasswordHashingService passwordHashingService) {
         this.pool = pool;
         this.userRepository = userRepository;
         this.registrationFormJsonMapper = registrationFormJsonMapper;
         this.registrationFormService = registrationFormService;
+        this.passwordHashingService = passwordHashingService;
     }
 
     @Override
@@ -37,41 +41,51 @@ public class UserWebServiceImpl implements UserWebService {
             OperationRequest operationRequest,
             Handler<AsyncResult<OperationResponse>> handler
     ) {
-        pool.getConnection(getConnectionResult -> {
-            if (getConnectionResult.failed()) {
-                handler.handle(Future.failedFuture(getConnectionResult.cause()));
+        RegistrationForm registrationForm = registrationFormJsonMapper.fromJson(body);
+        // Checked before hashing, so that a taken username doesn't cost a hash. The statements run on the pool,
+        // so that no connection is leased while waiting for a worker
+        userRepository.getUserById(pool, registrationForm.getUsername(), getUserByIdResult -> {
+            if (getUserByIdResult.failed()) {
+                handler.handle(Future.failedFuture(getUserByIdResult.cause()));
                 return;
             }
-            SqlClient connection = getConnectionResult.result();
-            RegistrationForm registrationForm = registrationFormJsonMapper.fromJson(body);
-            userRepository.getUserById(connection, registrationForm.getUsername(), (getUserByIdResult) -> {
-                if (getUserByIdResult.failed()) {
-                    connection.close();
-                    handler.handle(Future.failedFuture(getUserByIdResult.cause()));
-                    return;
-                }
-                User userInDb = getUserByIdResult.result();
-                if (userInDb != null) {
-                    OperationResponse operationResponse = new OperationResponse();
-                    operationResponse.setStatusCode(400);
-                    connection.close();
-                    handler.handle(Future.succeededFuture(operationResponse));
-                }
-                // TODO: password hashing
-                User newUser = registrationFormService.toUser(registrationForm);
-                userRepository.insert(connection, newUser, insertResult -> {
-                    if (insertResult.failed()) {
-                        connection.close();
-                        handler.handle(Future.failedFuture(insertResult.cause()));
+            if (getUserByIdResult.result() != null) {
+                OperationResponse operationResponse = new OperationResponse();
+                operationResponse.setStatusCode(400);
+                handler.handle(Future.succeededFuture(operationResponse));
+                return;
+            }
+            passwordHashingService.hash(registrationForm.getPassword(), hashResult -> {
+                if (hashResult.failed()) {
+                    if (hashResult.cause() instanceof PasswordHashingOverloadedException) {
+                        handler.handle(Future.succeededFuture(HttpSessionWebServiceImpl.createOverloadedResponse()));
                         return;
                     }
-                    OperationResponse operationResponse = new OperationResponse();
-                    operationResponse.setStatusCode(204);
-                    connection.close();
-                    handler.handle(Future.succeededFuture(operationResponse));
-                });
+                    handler.handle(Future.failedFuture(hashResult.cause()));
+                    return;
+                }
+                insertUser(registrationForm, hashResult.result(), handler);
             });
         });
+    }
 
+    /**
+     * A username registered since the check makes the insert fail on the primary key.
+     */
+    private void insertUser(
+            RegistrationForm registrationForm,
+            String passwordHash,
+            Handler<AsyncResult<OperationResponse>> handler
+    ) {
+        User newUser = registrationFormService.toUser(registrationForm, passwordHash);
+        userRepository.insert(pool, newUser, insertResult -> {
+            if (insertResult.failed()) {
+                handler.handle(Future.failedFuture(insertResult.cause()));
+                return;
+            }
+            OperationResponse operationResponse = new OperationResponse();
+            operationResponse.setStatusCode(204);
+            handler.handle(Future.succeededFuture(operationResponse));
+        });
     }
 }
@@ -0,0 +1,185 @@
+package com.jb.blog.webservices;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.api.OperationRequest;
+import io.vertx.ext.web.api.OperationResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event bus codecs of OperationRequest and OperationResponse, used by ServiceOperations.mountEventBus.
+ *
+ * Locally, the instance is delivered as is: the sender must not modify it after sending it.
+ * On the wire, each field is written with its length first (-1 when null, like a null status code), strings
+ * as UTF-8 and the payload of the OperationResponse as raw bytes, so it's not base64 encoded like in JSON.
+ * Only the params, user and extra of the OperationRequest are JSON.
+ */
+public final class WebApiMessageCodecs {
+    private static final int NULL = -1;
+
+    private WebApiMessageCodecs() {
+    }
+
+    /**
+     * Must be called once per Vertx instance, before sending any OperationRequest or OperationResponse.
+     */
+    public static void register(EventBus eventBus) {
+        eventBus.registerDefaultCodec(OperationRequest.class, new OperationRequestCodec());
+        eventBus.registerDefaultCodec(OperationResponse.class, new OperationResponseCodec());
+    }
+
+    static class OperationRequestCodec implements MessageCodec<OperationRequest, OperationRequest> {
+        @Override
+        public void encodeToWire(Buffer buffer, OperationRequest operationRequest) {
+            writeJson(buffer, operationRequest.getParams());
+            writeHeaders(buffer, operationRequest.getHeaders());
+            writeJson(buffer, operationRequest.getUser());
+            writeJson(buffer, operationRequest.getExtra());
+        }
+
+        @Override
+        public OperationRequest decodeFromWire(int pos, Buffer buffer) {
+            int[] position = {pos};
+            JsonObject params = readJson(buffer, position);
+            MultiMap headers = readHeaders(buffer, position);
+            JsonObject user = readJson(buffer, position);
+            JsonObject extra = readJson(buffer, position);
+            return new OperationRequest(params, headers, user, extra);
+        }
+
+        @Override
+        public OperationRequest transform(OperationRequest operationRequest) {
+            return operationRequest;
+        }
+
+        @Override
+        public String name() {
+            return "OperationRequest";
+        }
+
+        @Override
+        public byte systemCodecID() {
+            return -1;
+        }
+    }
+
+    static class OperationResponseCodec implements MessageCodec<OperationResponse, OperationResponse> {
+        @Override
+        public void encodeToWire(Buffer buffer, OperationResponse operationResponse) {
+            buffer.appendInt(operationResponse.getStatusCode() == null ? NULL : operationResponse.getStatusCode());
+            writeString(buffer, operationResponse.getStatusMessage());
+            writeHeaders(buffer, operationResponse.getHeaders());
+            Buffer payload = operationResponse.getPayload();
+            if (payload == null) {
+                buffer.appendInt(NULL);
+            } else {
+                buffer.appendInt(payload.length()).appendBuffer(payload);
+            }
+        }
+
+        @Override
+        public OperationResponse decodeFromWire(int pos, Buffer buffer) {
+            int[] position = {pos};
+            int statusCode = readInt(buffer, position);
+            String statusMessage = readString(buffer, position);
+            MultiMap headers = readHeaders(buffer, position);
+            int payloadLength = readInt(buffer, position);
+            Buffer payload = null;
+            if (payloadLength != NULL) {
+                payload = buffer.getBuffer(position[0], position[0] + payloadLength);
+                position[0] += payloadLength;
+            }
+            return new OperationResponse(statusCode == NULL ? null : statusCode, statusMessage, payload, headers);
+        }
+
+        @Override
+        public OperationResponse transform(OperationResponse operationResponse) {
+            return operationResponse;
+        }
+
+        @Override
+        public String name() {
+            return "OperationResponse";
+        }
+
+        @Override
+        public byte systemCodecID() {
+            return -1;
+        }
+    }
+
+    private static void writeString(Buffer buffer, String value) {
+        if (value == null) {
+            buffer.appendInt(NULL);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.appendInt(bytes.length).appendBytes(bytes);
+    }
+
+    private static void writeJson(Buffer buffer, JsonObject value) {
+        if (value == null) {
+            buffer.appendInt(NULL);
+            return;
+        }
+        Buffer json = value.toBuffer();
+        buffer.appendInt(json.length()).appendBuffer(json);
+    }
+
+    private static void writeHeaders(Buffer buffer, MultiMap headers) {
+        if (headers == null) {
+            buffer.appendInt(NULL);
+            return;
+        }
+        List<Map.Entry<String, String>> entries = headers.entries();
+        buffer.appendInt(entries.size());
+        for (Map.Entry<String, String> header : entries) {
+            writeString(buffer, header.getKey());
+            writeString(buffer, header.getValue());
+        }
+    }
+
+    private static int readInt(Buffer buffer, int[] position) {
+        int value = buffer.getInt(position[0]);
+        position[0] += 4;
+        return value;
+    }
+
+    private static String readString(Buffer buffer, int[] position) {
+        int length = readInt(buffer, position);
+        if (length == NULL) {
+            return null;
+        }
+        String value = buffer.getString(position[0], position[0] + length, "UTF-8");
+        position[0] += length;
+        return value;
+    }
+
+    private static JsonObject readJson(Buffer buffer, int[] position) {
+        int length = readInt(buffer, position);
+        if (length == NULL) {
+            return null;
+        }
+        JsonObject value = new JsonObject(buffer.getBuffer(position[0], position[0] + length));
+        position[0] += length;
+        return value;
+    }
+
+    private static MultiMap readHeaders(Buffer buffer, int[] position) {
+        int size = readInt(buffer, position);
+        if (size == NULL) {
+            return null;
+        }
+        MultiMap headers = MultiMap.caseInsensitiveMultiMap();
+        for (int i = 0; i < size; i++) {
+            headers.add(readString(buffer, position), readString(buffer, position));
+        }
+        return headers;
+    }
+}
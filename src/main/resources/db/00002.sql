@@ -0,0 +1,10 @@
+-- Full-text search on the articles, needs PostgreSQL 12 for the generated column
+alter table article
+    add column search_vector tsvector
+        generated always as (
+            setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+            setweight(to_tsvector('english', coalesce(content, '')), 'B')
+        ) stored;
+
+create index article_search_vector_index
+    on article using gin (search_vector);
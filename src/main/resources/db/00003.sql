@@ -0,0 +1,3 @@
+-- Articles of an author, in the order of the keyset pagination
+create index article_author_id_id_index
+    on article (author_id, id);
@@ -0,0 +1,13 @@
+-- Sessions stored by PgSessionStore: data is the serialized session, expires_at its last access time
+-- plus its timeout, in milliseconds since the epoch. The table was unused until now.
+delete from http_session;
+
+alter table http_session
+    alter column id type varchar(255),
+    alter column username drop not null,
+    add column data       bytea   not null,
+    add column version    integer not null,
+    add column expires_at bigint  not null;
+
+create index http_session_expires_at_index
+    on http_session (expires_at);
@@ -0,0 +1,4 @@
+-- The salt is part of the password hash, see PasswordHashingServiceImpl.
+-- The passwords stored before hashing are replaced by a hash on the next login of their user.
+alter table appuser
+    drop column password_salt;
@@ -0,0 +1,127 @@
+package com.jb.blog.benchmark;
+
+import com.jb.blog.services.DefaultJsonMapperImpl;
+import com.jb.blog.services.GeneratedJsonMapperImpl;
+import com.jb.blog.services.JacksonJsonMapperImpl;
+import com.jb.blog.services.JsonMapper;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openapitools.vertxweb.server.model.Article;
+import org.openapitools.vertxweb.server.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding of an article and of a page of articles (the default page size), and decoding of the body of an article
+ * creation: through a JsonObject or a JsonArray, like before, against the cached readers and writers
+ * of JacksonJsonMapperImpl and the codecs generated with the models (GeneratedJsonMapperImpl).
+ *
+ * Run the main method, with the test classpath. The GC profiler reports the allocations per operation
+ * (gc.alloc.rate.norm, in bytes/op).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArticlePageEncodingBenchmark {
+    private JsonMapper<Article> defaultJsonMapper;
+    private JsonMapper<Article> jacksonJsonMapper;
+    private JsonMapper<Article> generatedJsonMapper;
+    private List<Article> page;
+    private JsonObject body;
+
+    @Setup
+    public void setUp() {
+        defaultJsonMapper = new DefaultJsonMapperImpl<>(Article.class);
+        jacksonJsonMapper = new JacksonJsonMapperImpl<>(Article.class);
+        generatedJsonMapper = new GeneratedJsonMapperImpl<>(Article.JsonWriter.INSTANCE, Article.JsonReader.INSTANCE);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            content.append("A few sentences of the content of the article. ");
+        }
+        page = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            page.add(new Article(
+                    "article" + i,
+                    "Title of the article " + i,
+                    content.toString() + i,
+                    new User("author" + i, null, 1),
+                    i
+            ));
+        }
+        body = JsonObject.mapFrom(page.get(0));
+        body.remove("author");
+    }
+
+    @Benchmark
+    public Buffer pageThroughJsonArray() {
+        return new JsonArray(page).toBuffer();
+    }
+
+    @Benchmark
+    public Buffer articleThroughJsonObject() {
+        return JsonObject.mapFrom(page.get(0)).toBuffer();
+    }
+
+    @Benchmark
+    public Buffer articleWithJacksonJsonMapper() {
+        return jacksonJsonMapper.toBuffer(page.get(0));
+    }
+
+    @Benchmark
+    public Buffer articleWithGeneratedJsonMapper() {
+        return generatedJsonMapper.toBuffer(page.get(0));
+    }
+
+    @Benchmark
+    public Buffer pageWithJacksonJsonMapper() {
+        return jacksonJsonMapper.toBuffer(page);
+    }
+
+    @Benchmark
+    public Buffer pageWithGeneratedJsonMapper() {
+        return generatedJsonMapper.toBuffer(page);
+    }
+
+    @Benchmark
+    public Article bodyWithDefaultJsonMapper() {
+        return defaultJsonMapper.fromJson(body);
+    }
+
+    @Benchmark
+    public Article bodyWithJacksonJsonMapper() {
+        return jacksonJsonMapper.fromJson(body);
+    }
+
+    @Benchmark
+    public Article bodyWithGeneratedJsonMapper() {
+        return generatedJsonMapper.fromJson(body);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ArticlePageEncodingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+}
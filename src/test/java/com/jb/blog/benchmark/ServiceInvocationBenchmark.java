@@ -0,0 +1,305 @@
+package com.jb.blog.benchmark;
+
+import com.jb.blog.webservices.ArticleWebService;
+import com.jb.blog.webservices.ServiceOperation;
+import com.jb.blog.webservices.ServiceOperationConsumer;
+import com.jb.blog.webservices.ServiceOperations;
+import com.jb.blog.webservices.WebApiMessageCodecs;
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.api.OperationRequest;
+import io.vertx.ext.web.api.OperationResponse;
+import io.vertx.ext.web.api.contract.openapi3.OpenAPI3RouterFactory;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+import io.vertx.serviceproxy.ServiceBinder;
+import org.openapitools.vertxweb.server.model.Article;
+import org.openapitools.vertxweb.server.model.User;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of the same endpoints depending on how the services are called, see Mode.
+ *
+ * The services answer a canned payload without touching the database, so only the routing, the validation and
+ * the invocation of the service are measured. The servers are started on the same Vert.x instance and measured
+ * one after the other, with the same client.
+ *
+ * Run the main method, with the test classpath.
+ */
+public class ServiceInvocationBenchmark {
+    private static final String[] PATHS = {"/article/5f1d7c0e9b1e8a3d4c2b1a00", "/article?limit=10"};
+    private static final int CONNECTIONS = 16;
+    private static final int IN_FLIGHT = 64;
+    private static final long WARMUP_MILLIS = 5000;
+    private static final long MEASUREMENT_MILLIS = 10000;
+
+    private enum Mode {
+        /**
+         * The generated proxies, which send the OperationRequests and OperationResponses as JSON
+         */
+        JSON_EVENT_BUS,
+        /**
+         * The "eventBus" service invocation of MainVerticle, with WebApiMessageCodecs
+         */
+        EVENT_BUS,
+        /**
+         * The "direct" service invocation of MainVerticle
+         */
+        DIRECT
+    }
+
+    public static void main(String[] args) throws Exception {
+        Vertx vertx = Vertx.vertx();
+        WebApiMessageCodecs.register(vertx.eventBus());
+        try {
+            Map<Mode, Integer> ports = new EnumMap<>(Mode.class);
+            for (Mode mode : Mode.values()) {
+                ports.put(mode, deploy(vertx, mode));
+            }
+            WebClient client = WebClient.create(vertx, new WebClientOptions()
+                    .setKeepAlive(true)
+                    .setMaxPoolSize(CONNECTIONS));
+            for (String path : PATHS) {
+                for (Mode mode : Mode.values()) {
+                    run(client, ports.get(mode), path, WARMUP_MILLIS);
+                }
+                for (Mode mode : Mode.values()) {
+                    long count = run(client, ports.get(mode), path, MEASUREMENT_MILLIS);
+                    System.out.printf("GET %s, %s: %.0f req/s%n", path, mode, count * 1000.0 / MEASUREMENT_MILLIS);
+                }
+            }
+        } finally {
+            vertx.close();
+        }
+    }
+
+    private static int deploy(Vertx vertx, Mode mode) throws Exception {
+        ServerVerticle verticle = new ServerVerticle(mode);
+        CompletableFuture<Void> deployed = new CompletableFuture<>();
+        vertx.deployVerticle(verticle, deployResult -> {
+            if (deployResult.succeeded()) {
+                deployed.complete(null);
+            } else {
+                deployed.completeExceptionally(deployResult.cause());
+            }
+        });
+        deployed.get(30, TimeUnit.SECONDS);
+        return verticle.port;
+    }
+
+    /**
+     * @return the number of successful requests
+     */
+    private static long run(WebClient client, int port, String path, long durationMillis) throws InterruptedException {
+        AtomicLong count = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(IN_FLIGHT);
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            send(client, port, path, end, count, done);
+        }
+        done.await();
+        return count.get();
+    }
+
+    private static void send(WebClient client, int port, String path, long end, AtomicLong count, CountDownLatch done) {
+        client.get(port, "localhost", path).send(sendResult -> {
+            if (sendResult.failed() || sendResult.result().statusCode() != 200) {
+                System.err.println("GET " + path + " failed: "
+                        + (sendResult.failed() ? sendResult.cause() : sendResult.result().statusCode()));
+                done.countDown();
+                return;
+            }
+            count.incrementAndGet();
+            if (System.nanoTime() < end) {
+                send(client, port, path, end, count, done);
+            } else {
+                done.countDown();
+            }
+        });
+    }
+
+    /**
+     * Like MainVerticle, the server and the services of an instance run on the same event loop.
+     */
+    private static class ServerVerticle extends AbstractVerticle {
+        private final Mode mode;
+        private volatile int port;
+
+        ServerVerticle(Mode mode) {
+            this.mode = mode;
+        }
+
+        @Override
+        public void start(Promise<Void> promise) {
+            ArticleWebService articleWebService = new StubArticleWebService();
+            Map<String, ServiceOperation> operations = ServiceOperations.of(articleWebService);
+            String address = "article_service." + mode;
+            if (mode == Mode.JSON_EVENT_BUS) {
+                new ServiceBinder(vertx).setAddress(address).registerLocal(ArticleWebService.class, articleWebService);
+            } else if (mode == Mode.EVENT_BUS) {
+                vertx.eventBus().localConsumer(address, new ServiceOperationConsumer(operations));
+            }
+            OpenAPI3RouterFactory.create(vertx, "/openapi.yaml", createResult -> {
+                if (createResult.failed()) {
+                    promise.fail(createResult.cause());
+                    return;
+                }
+                OpenAPI3RouterFactory routerFactory = createResult.result();
+                routerFactory.addSecurityHandler("cookieAuth", routingContext -> routingContext.next());
+                if (mode == Mode.JSON_EVENT_BUS) {
+                    routerFactory.mountServiceInterface(ArticleWebService.class, address);
+                } else if (mode == Mode.EVENT_BUS) {
+                    ServiceOperations.mountEventBus(routerFactory, vertx.eventBus(), address, ArticleWebService.class);
+                } else {
+                    ServiceOperations.mountDirect(routerFactory, operations);
+                }
+                vertx.createHttpServer()
+                        .requestHandler(routerFactory.getRouter())
+                        .listen(0, "localhost", (AsyncResult<HttpServer> listenResult) -> {
+                            if (listenResult.failed()) {
+                                promise.fail(listenResult.cause());
+                                return;
+                            }
+                            port = listenResult.result().actualPort();
+                            promise.complete();
+                        });
+            });
+        }
+    }
+
+    private static class StubArticleWebService implements ArticleWebService {
+        private final Buffer article;
+        private final Buffer articles;
+
+        StubArticleWebService() {
+            JsonArray page = new JsonArray();
+            for (int i = 0; i < 10; i++) {
+                page.add(JsonObject.mapFrom(createArticle(i)));
+            }
+            article = Json.encodeToBuffer(createArticle(0));
+            articles = page.toBuffer();
+        }
+
+        private static Article createArticle(int i) {
+            StringBuilder content = new StringBuilder();
+            for (int j = 0; j < 20; j++) {
+                content.append("Lorem ipsum dolor sit amet, consectetur adipiscing elit. ");
+            }
+            return new Article(
+                    String.format("5f1d7c0e9b1e8a3d4c2b1a%02d", i),
+                    "Title " + i,
+                    content.toString(),
+                    new User("author", null, 1),
+                    1
+            );
+        }
+
+        private static void succeed(Buffer payload, Handler<AsyncResult<OperationResponse>> handler) {
+            handler.handle(Future.succeededFuture(new OperationResponse()
+                    .setStatusCode(200)
+                    .putHeader("content-type", "application/json")
+                    .putHeader("ETag", "\"1\"")
+                    .setPayload(payload)));
+        }
+
+        private static void unsupported(Handler<AsyncResult<OperationResponse>> handler) {
+            handler.handle(Future.failedFuture(new UnsupportedOperationException()));
+        }
+
+        @Override
+        public void getArticleById(
+                String id,
+                List<String> fields,
+                OperationRequest operationRequest,
+                Handler<AsyncResult<OperationResponse>> handler
+        ) {
+            succeed(article, handler);
+        }
+
+        @Override
+        public void getAllArticles(
+                String after,
+                Integer limit,
+                List<String> fields,
+                OperationRequest operationRequest,
+                Handler<AsyncResult<OperationResponse>> handler
+        ) {
+            succeed(articles, handler);
+        }
+
+        @Override
+        public void getArticlesByIds(
+                List<String> ids,
+                OperationRequest operationRequest,
+                Handler<AsyncResult<OperationResponse>> handler
+        ) {
+            unsupported(handler);
+        }
+
+        @Override
+        public void insertArticle(
+                JsonObject body,
+                OperationRequest operationRequest,
+                Handler<AsyncResult<OperationResponse>> handler
+        ) {
+            unsupported(handler);
+        }
+
+        @Override
+        public void updateArticle(
+                JsonObject body,
+                OperationRequest operationRequest,
+                Handler<AsyncResult<OperationResponse>> handler
+        ) {
+            unsupported(handler);
+        }
+
+        @Override
+        public void batchArticles(
+                JsonObject body,
+                OperationRequest operationRequest,
+                Handler<AsyncResult<OperationResponse>> handler
+        ) {
+            unsupported(handler);
+        }
+
+        @Override
+        public void searchArticles(
+                String q,
+                String after,
+                Integer limit,
+                OperationRequest operationRequest,
+                Handler<AsyncResult<OperationResponse>> handler
+        ) {
+            unsupported(handler);
+        }
+
+        @Override
+        public void getArticlesByAuthor(
+                String username,
+                String after,
+                Integer limit,
+                List<String> fields,
+                OperationRequest operationRequest,
+                Handler<AsyncResult<OperationResponse>> handler
+        ) {
+            unsupported(handler);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.jb.blog.benchmark;
+
+import com.jb.blog.services.OperationRequestService;
+import com.jb.blog.services.OperationRequestServiceImpl;
+import com.jb.blog.session.SessionConfiguration;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.impl.ServerCookie;
+import io.vertx.ext.web.api.OperationRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup of the session cookie of a request: decoding all the cookies with extractCookies, like before,
+ * against scanning the header for the session cookie only with getCookieValue.
+ *
+ * Run the main method, with the test classpath. The GC profiler reports the allocations per lookup
+ * (gc.alloc.rate.norm, in bytes/op).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionCookieLookupBenchmark {
+    private static final String SESSION_COOKIE = "vertx-web.session=7f3c1e0a9b2d4c6e8f0a1b2c3d4e5f60";
+
+    /**
+     * Cookies sent along with the session cookie, e.g. by the analytics of the front-end
+     */
+    @Param({"0", "4"})
+    public int otherCookies;
+
+    private OperationRequestService operationRequestService;
+    private OperationRequest operationRequest;
+    private String sessionCookieName;
+
+    @Setup
+    public void setUp() {
+        operationRequestService = new OperationRequestServiceImpl();
+        sessionCookieName = SessionConfiguration.createDefault().sessionCookieName;
+        StringBuilder cookieHeader = new StringBuilder();
+        for (int i = 0; i < otherCookies; i++) {
+            cookieHeader.append("_cookie").append(i).append("=GA1.2.1234567890.1600000000; ");
+        }
+        cookieHeader.append(SESSION_COOKIE);
+        MultiMap headers = MultiMap.caseInsensitiveMultiMap().add("Cookie", cookieHeader.toString());
+        operationRequest = new OperationRequest(null, headers, null, null);
+    }
+
+    @Benchmark
+    public String extractCookies() {
+        ServerCookie sessionCookie = operationRequestService.extractCookies(operationRequest).get(sessionCookieName);
+        return sessionCookie == null ? null : sessionCookie.getValue();
+    }
+
+    @Benchmark
+    public String getCookieValue() {
+        return operationRequestService.getCookieValue(operationRequest, sessionCookieName);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SessionCookieLookupBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,188 @@
+package com.jb.blog.metrics;
+
+import com.jb.blog.Holder;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.pgclient.PgPool;
+import io.vertx.sqlclient.PoolOptions;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Tuple;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class PoolMetricsTest {
+    @Test
+    public void gaugesCountAcquisitionsUntilTheyComplete() {
+        // arrange
+        PgPool pool = mock(PgPool.class);
+        Holder<Handler<AsyncResult<SqlConnection>>> poolHandler = new Holder<>();
+        doAnswer(invocationOnMock -> {
+            poolHandler.value = invocationOnMock.getArgument(0);
+            return null;
+        }).when(pool).getConnection(any(Handler.class));
+        PoolMetrics poolMetrics = new PoolMetrics();
+        MeteredPgPool meteredPgPool = new MeteredPgPool(pool, new PoolOptions().setMaxSize(3), poolMetrics);
+        Holder<SqlConnection> connection = new Holder<>();
+
+        // act
+        meteredPgPool.getConnection(getConnectionResult -> connection.value = getConnectionResult.result());
+        int waiting = poolMetrics.getWaiting();
+        poolHandler.value.handle(Future.succeededFuture(mock(SqlConnection.class)));
+
+        // assert
+        assertEquals(1, waiting);
+        assertEquals(0, poolMetrics.getWaiting());
+        assertEquals(1, poolMetrics.getInUse());
+        assertEquals(3, (int) poolMetrics.toJson().getInteger("maxSize"));
+        connection.value.close();
+        connection.value.close();
+        assertEquals(0, poolMetrics.getInUse());
+    }
+
+    @Test
+    public void gaugesWhenConnectionCantBeLeased() {
+        // arrange
+        PgPool pool = mock(PgPool.class);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<SqlConnection>> handler = invocationOnMock.getArgument(0);
+            handler.handle(Future.failedFuture("Connection refused"));
+            return null;
+        }).when(pool).getConnection(any(Handler.class));
+        PoolMetrics poolMetrics = new PoolMetrics();
+        MeteredPgPool meteredPgPool = new MeteredPgPool(pool, new PoolOptions(), poolMetrics);
+
+        // act
+        meteredPgPool.getConnection(getConnectionResult -> { });
+
+        // assert
+        assertEquals(0, poolMetrics.getWaiting());
+        assertEquals(0, poolMetrics.getInUse());
+        assertEquals(1, poolMetrics.getAcquireLatency().getCount());
+    }
+
+    @Test
+    public void getConnectionRecordsAcquireLatency() {
+        // arrange
+        PgPool pool = mock(PgPool.class);
+        SqlConnection connection = mock(SqlConnection.class);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<SqlConnection>> handler = invocationOnMock.getArgument(0);
+            handler.handle(Future.succeededFuture(connection));
+            return null;
+        }).when(pool).getConnection(any(Handler.class));
+        PoolMetrics poolMetrics = new PoolMetrics();
+        MeteredPgPool meteredPgPool = new MeteredPgPool(pool, new PoolOptions(), poolMetrics);
+        Handler<AsyncResult<SqlConnection>> handler = mock(Handler.class);
+
+        // act
+        meteredPgPool.getConnection(handler);
+
+        // assert
+        verify(handler).handle(any());
+        assertEquals(1, poolMetrics.getAcquireLatency().getCount());
+    }
+
+    @Test
+    public void preparedQueryRunsOnALeasedConnection() {
+        // arrange
+        PgPool pool = mock(PgPool.class);
+        SqlConnection connection = mock(SqlConnection.class);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<SqlConnection>> handler = invocationOnMock.getArgument(0);
+            handler.handle(Future.succeededFuture(connection));
+            return null;
+        }).when(pool).getConnection(any(Handler.class));
+        PreparedQuery<RowSet<Row>> preparedQuery = mock(PreparedQuery.class);
+        RowSet<Row> rowSet = mock(RowSet.class);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<RowSet<Row>>> handler = invocationOnMock.getArgument(1);
+            handler.handle(Future.succeededFuture(rowSet));
+            return null;
+        }).when(preparedQuery).execute(any(Tuple.class), any(Handler.class));
+        when(connection.preparedQuery("select 1")).thenReturn(preparedQuery);
+        PoolMetrics poolMetrics = new PoolMetrics();
+        MeteredPgPool meteredPgPool = new MeteredPgPool(pool, new PoolOptions(), poolMetrics);
+        Holder<AsyncResult<RowSet<Row>>> holder = new Holder<>();
+
+        // act
+        meteredPgPool.preparedQuery("select 1").execute(Tuple.tuple(), executeResult -> holder.value = executeResult);
+
+        // assert
+        assertSame(rowSet, holder.value.result());
+        verify(connection).close();
+        verify(pool, never()).preparedQuery(anyString());
+        assertEquals(1, poolMetrics.getAcquireLatency().getCount());
+        assertEquals(1, poolMetrics.getQueryLatency().getCount());
+        assertEquals(0, poolMetrics.getInUse());
+    }
+
+    @Test
+    public void queryFailsWhenNoConnectionCanBeLeased() {
+        // arrange
+        PgPool pool = mock(PgPool.class);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<SqlConnection>> handler = invocationOnMock.getArgument(0);
+            handler.handle(Future.failedFuture("Connection refused"));
+            return null;
+        }).when(pool).getConnection(any(Handler.class));
+        PoolMetrics poolMetrics = new PoolMetrics();
+        MeteredPgPool meteredPgPool = new MeteredPgPool(pool, new PoolOptions(), poolMetrics);
+        Holder<AsyncResult<RowSet<Row>>> holder = new Holder<>();
+
+        // act
+        meteredPgPool.query("select 1").execute(executeResult -> holder.value = executeResult);
+
+        // assert
+        assertEquals("Connection refused", holder.value.cause().getMessage());
+        assertEquals(1, poolMetrics.getAcquireLatency().getCount());
+        assertEquals(0, poolMetrics.getQueryLatency().getCount());
+    }
+
+    @Test
+    public void metricsAreSharedByThePoolsOfAllTheInstances() {
+        // arrange
+        PoolMetrics poolMetrics = new PoolMetrics();
+        PoolOptions poolOptions = new PoolOptions().setMaxSize(4).setMaxWaitQueueSize(10);
+        MeteredPgPool first = new MeteredPgPool(mock(PgPool.class), poolOptions, poolMetrics);
+        new MeteredPgPool(mock(PgPool.class), poolOptions, poolMetrics);
+
+        // act
+        JsonObject json = poolMetrics.toJson();
+        first.close();
+
+        // assert
+        assertEquals(2, (int) json.getInteger("pools"));
+        assertEquals(8, (int) json.getInteger("maxSize"));
+        assertEquals(20, (int) json.getInteger("maxWaitQueueSize"));
+        assertEquals(1, poolMetrics.getPools());
+        assertEquals(4, poolMetrics.getMaxSize());
+        new MeteredPgPool(mock(PgPool.class), new PoolOptions(), poolMetrics);
+        assertEquals(-1, poolMetrics.getMaxWaitQueueSize());
+    }
+
+    @Test
+    public void histogramPutsLatenciesInTheRightBucket() {
+        // arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // act
+        histogram.record(500_000L);
+        histogram.record(3_000_000L);
+        histogram.record(5_000_000_000L);
+
+        // assert
+        JsonObject json = histogram.toJson();
+        assertEquals(3, (long) json.getLong("count"));
+        assertEquals(1, (long) json.getJsonArray("buckets").getJsonObject(0).getLong("count"));
+        assertEquals(1, (long) json.getJsonArray("buckets").getJsonObject(2).getLong("count"));
+        assertEquals("+Inf", json.getJsonArray("buckets").getJsonObject(10).getString("le"));
+        assertEquals(1, (long) json.getJsonArray("buckets").getJsonObject(10).getLong("count"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.jb.blog.persistence;
+
+import io.vertx.pgclient.PgPool;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaRouterTest {
+    private PgPool primary;
+    private PgPool replica0;
+    private PgPool replica1;
+    private ReplicaRouter replicaRouter;
+
+    @Before
+    public void setUp() {
+        primary = mock(PgPool.class);
+        replica0 = mock(PgPool.class);
+        replica1 = mock(PgPool.class);
+        replicaRouter = new ReplicaRouter(primary, Arrays.asList(replica0, replica1));
+    }
+
+    @Test
+    public void getReadClientWhenNoReplicas() {
+        // arrange
+        ReplicaRouter routerWithoutReplicas = new ReplicaRouter(primary, Collections.emptyList());
+
+        // act
+        Object readClient = routerWithoutReplicas.getReadClient(null);
+
+        // assert
+        assertSame(primary, readClient);
+        assertFalse(routerWithoutReplicas.hasReplicas());
+    }
+
+    @Test
+    public void getReadClientWhenReplicasHaveNotBeenPolledYet() {
+        // act
+        Object readClient = replicaRouter.getReadClient(null);
+
+        // assert
+        assertSame(primary, readClient);
+    }
+
+    @Test
+    public void getReadClientAlternatesBetweenReplicas() {
+        // arrange
+        replicaRouter.setReplayedLsn(0, 10);
+        replicaRouter.setReplayedLsn(1, 10);
+
+        // act
+        Object first = replicaRouter.getReadClient(null);
+        Object second = replicaRouter.getReadClient(null);
+
+        // assert
+        assertSame(replica0, first);
+        assertSame(replica1, second);
+    }
+
+    @Test
+    public void getReadClientSkipsReplicasThatAreBehindTheSessionWrite() {
+        // arrange
+        replicaRouter.setReplayedLsn(0, 10);
+        replicaRouter.setReplayedLsn(1, 20);
+
+        // act
+        Object first = replicaRouter.getReadClient(15L);
+        Object second = replicaRouter.getReadClient(15L);
+        Object third = replicaRouter.getReadClient(25L);
+
+        // assert
+        assertSame(replica1, first);
+        assertSame(replica1, second);
+        assertSame(primary, third);
+    }
+}
@@ -0,0 +1,255 @@
+package com.jb.blog.persistence.article;
+
+import com.jb.blog.Holder;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.sqlclient.SqlClient;
+import org.junit.Before;
+import org.junit.Test;
+import org.openapitools.vertxweb.server.model.Article;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class CachedArticleRepositoryTest {
+    private ArticleRepository articleRepository;
+    private SqlClient sqlClient;
+    private Holder<Long> now;
+    private CachedArticleRepository cachedArticleRepository;
+
+    @Before
+    public void setUp() {
+        articleRepository = mock(ArticleRepository.class);
+        sqlClient = mock(SqlClient.class);
+        now = new Holder<>();
+        now.value = 0L;
+        cachedArticleRepository = new CachedArticleRepository(articleRepository, 2, 1000, () -> now.value);
+    }
+
+    @Test
+    public void getByIdWhenArticleIsInCache() {
+        // arrange
+        mockGetById(createArticle("id", 0));
+        getById("id");
+
+        // act
+        Article article = getById("id");
+
+        // assert
+        assertEquals("id", article.getId());
+        verify(articleRepository, times(1)).getById(eq(sqlClient), eq("id"), any(Handler.class));
+        assertEquals(1, cachedArticleRepository.getHitCount());
+        assertEquals(1, cachedArticleRepository.getMissCount());
+    }
+
+    @Test
+    public void getByIdWhenEntryIsExpired() {
+        // arrange
+        mockGetById(createArticle("id", 0));
+        getById("id");
+        now.value = 2000L * 1_000_000;
+
+        // act
+        getById("id");
+
+        // assert
+        verify(articleRepository, times(2)).getById(eq(sqlClient), eq("id"), any(Handler.class));
+        assertEquals(1, cachedArticleRepository.getEvictionCount());
+    }
+
+    @Test
+    public void getByIdWhenCacheIsFull() {
+        // arrange
+        mockGetById(createArticle("a", 0));
+        getById("a");
+        mockGetById(createArticle("b", 0));
+        getById("b");
+        mockGetById(createArticle("c", 0));
+
+        // act
+        getById("c");
+
+        // assert
+        assertEquals(2, cachedArticleRepository.size());
+        assertEquals(1, cachedArticleRepository.getEvictionCount());
+        assertNull(cachedArticleRepository.getIfPresent("a"));
+    }
+
+    @Test
+    public void updateInvalidatesEntryAndRejectsOlderVersions() {
+        // arrange
+        Article article = createArticle("id", 0);
+        mockGetById(article);
+        getById("id");
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Integer>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.succeededFuture(1));
+            return null;
+        }).when(articleRepository).update(eq(sqlClient), eq(article), any(Handler.class));
+
+        // act
+        cachedArticleRepository.update(sqlClient, article, mock(Handler.class));
+        // a read that started before the update finishes after it
+        cachedArticleRepository.put(createArticle("id", 0));
+
+        // assert
+        assertNull(cachedArticleRepository.getIfPresent("id"));
+        cachedArticleRepository.put(createArticle("id", 1));
+        assertEquals(1, (int) cachedArticleRepository.getIfPresent("id").getVersion());
+    }
+
+    @Test
+    public void updateNotifiesInvalidationListener() {
+        // arrange
+        Article article = createArticle("id", 0);
+        Holder<String> invalidatedId = new Holder<>();
+        Holder<Integer> invalidatedVersion = new Holder<>();
+        cachedArticleRepository.setInvalidationListener((id, version) -> {
+            invalidatedId.value = id;
+            invalidatedVersion.value = version;
+        });
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Integer>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.succeededFuture(1));
+            return null;
+        }).when(articleRepository).update(eq(sqlClient), eq(article), any(Handler.class));
+
+        // act
+        cachedArticleRepository.update(sqlClient, article, mock(Handler.class));
+
+        // assert
+        assertEquals("id", invalidatedId.value);
+        assertEquals(1, (int) invalidatedVersion.value);
+    }
+
+    @Test
+    public void updateBatchInvalidatesNothingUntilCommitted() {
+        // arrange
+        Article article = createArticle("id", 0);
+        mockGetById(article);
+        getById("id");
+        Holder<String> invalidatedId = new Holder<>();
+        cachedArticleRepository.setInvalidationListener((id, version) -> invalidatedId.value = id);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<List<Integer>>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.succeededFuture(Collections.singletonList(1)));
+            return null;
+        }).when(articleRepository).updateBatch(eq(sqlClient), any(List.class), any(Handler.class));
+
+        // act
+        cachedArticleRepository.updateBatch(sqlClient, Collections.singletonList(article), mock(Handler.class));
+
+        // assert
+        assertNull(invalidatedId.value);
+        assertEquals(0, (int) cachedArticleRepository.getIfPresent("id").getVersion());
+        cachedArticleRepository.committed("id", 1);
+        assertEquals("id", invalidatedId.value);
+        assertNull(cachedArticleRepository.getIfPresent("id"));
+    }
+
+    @Test
+    public void getByIdsOnlyQueriesArticlesNotInCache() {
+        // arrange
+        mockGetById(createArticle("a", 0));
+        getById("a");
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<List<Article>>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.succeededFuture(Collections.singletonList(createArticle("b", 0))));
+            return null;
+        }).when(articleRepository).getByIds(eq(sqlClient), eq(Arrays.asList("b", "c")), any(Handler.class));
+        Holder<List<Article>> holder = new Holder<>();
+
+        // act
+        cachedArticleRepository.getByIds(
+                sqlClient,
+                Arrays.asList("a", "b", "c"),
+                getByIdsResult -> holder.value = getByIdsResult.result()
+        );
+
+        // assert
+        assertEquals(2, holder.value.size());
+        assertNotNull(cachedArticleRepository.getIfPresent("b"));
+    }
+
+    @Test
+    public void cachedArticlesCantBeModifiedByCallers() {
+        // arrange
+        mockGetById(createArticle("id", 0));
+        getById("id");
+
+        // act
+        getById("id").setTitle("modified");
+
+        // assert
+        assertEquals("title", getById("id").getTitle());
+    }
+
+    @Test
+    public void getVersionIsServedFromCacheAndTombstones() {
+        // arrange
+        mockGetById(createArticle("a", 0));
+        getById("a");
+        cachedArticleRepository.invalidate("b", 4);
+        Holder<Integer> versionOfA = new Holder<>();
+        Holder<Integer> versionOfB = new Holder<>();
+
+        // act
+        cachedArticleRepository.getVersion(sqlClient, "a", getVersionResult -> versionOfA.value = getVersionResult.result());
+        cachedArticleRepository.getVersion(sqlClient, "b", getVersionResult -> versionOfB.value = getVersionResult.result());
+
+        // assert
+        assertEquals(0, (int) versionOfA.value);
+        assertEquals(4, (int) versionOfB.value);
+        verify(articleRepository, never()).getVersion(any(), any(), any(Handler.class));
+    }
+
+    @Test
+    public void getByIdWithFieldsIsServedFromCachedArticle() {
+        // arrange
+        mockGetById(createArticle("id", 0));
+        getById("id");
+        Holder<Article> holder = new Holder<>();
+
+        // act
+        cachedArticleRepository.getById(
+                sqlClient,
+                "id",
+                EnumSet.of(ArticleField.ID, ArticleField.VERSION),
+                getByIdResult -> holder.value = getByIdResult.result()
+        );
+
+        // assert
+        assertEquals("id", holder.value.getId());
+        assertNull(holder.value.getTitle());
+        assertEquals("title", getById("id").getTitle());
+        verify(articleRepository, never()).getById(any(), any(), any(), any(Handler.class));
+    }
+
+    private Article createArticle(String id, int version) {
+        Article article = new Article();
+        article.setId(id);
+        article.setTitle("title");
+        article.setVersion(version);
+        return article;
+    }
+
+    private void mockGetById(Article article) {
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Article>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.succeededFuture(article));
+            return null;
+        }).when(articleRepository).getById(eq(sqlClient), eq(article.getId()), any(Handler.class));
+    }
+
+    private Article getById(String id) {
+        Holder<Article> holder = new Holder<>();
+        cachedArticleRepository.getById(sqlClient, id, getByIdResult -> holder.value = getByIdResult.result());
+        return holder.value;
+    }
+}
@@ -0,0 +1,176 @@
+package com.jb.blog.persistence.session;
+
+import com.jb.blog.Holder;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Session;
+import io.vertx.ext.web.sstore.SessionStore;
+import io.vertx.ext.web.sstore.impl.SharedDataSessionImpl;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlClient;
+import io.vertx.sqlclient.Tuple;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class PgSessionStoreTest {
+    private SqlClient sqlClient;
+    private SessionNearCache sessionNearCache;
+    private PgSessionStore pgSessionStore;
+
+    @Before
+    public void setUp() {
+        sqlClient = mock(SqlClient.class);
+        sessionNearCache = new SessionNearCache(10, 1000);
+        pgSessionStore = new PgSessionStore(mock(Vertx.class), sqlClient, sessionNearCache, () -> 0L);
+    }
+
+    @Test
+    public void putThenGetIsServedFromNearCache() {
+        // arrange
+        SharedDataSessionImpl session = (SharedDataSessionImpl) pgSessionStore.createSession(30_000, 16);
+        session.put("username", "username");
+        mockUpsert(1);
+        put(session);
+        Holder<SharedDataSessionImpl> holder = new Holder<>();
+
+        // act
+        pgSessionStore.get(session.id(), getResult -> holder.value = (SharedDataSessionImpl) getResult.result());
+
+        // assert
+        assertEquals("username", holder.value.get("username"));
+        assertEquals(1, holder.value.version());
+        assertEquals(1, session.version());
+        verify(sqlClient, times(1)).preparedQuery(anyString());
+    }
+
+    @Test
+    public void putWhenSessionIsUnchanged() {
+        // arrange
+        SharedDataSessionImpl session = (SharedDataSessionImpl) pgSessionStore.createSession(30_000, 16);
+        session.put("username", "username");
+        mockUpsert(1);
+        put(session);
+
+        // act
+        AsyncResult<Void> result = put(session);
+
+        // assert
+        assertTrue(result.succeeded());
+        assertEquals(1, session.version());
+        verify(sqlClient, times(1)).preparedQuery(anyString());
+    }
+
+    @Test
+    public void putWhenSessionWasWrittenSinceItWasRead() {
+        // arrange
+        SharedDataSessionImpl session = (SharedDataSessionImpl) pgSessionStore.createSession(30_000, 16);
+        mockUpsert(0);
+
+        // act
+        AsyncResult<Void> result = put(session);
+
+        // assert
+        assertTrue(result.failed());
+        assertEquals("Version mismatch", result.cause().getMessage());
+        assertEquals(0, session.version());
+        assertEquals(0, sessionNearCache.size());
+    }
+
+    @Test
+    public void putAgainAfterVersionMismatch() {
+        // arrange
+        SharedDataSessionImpl session = (SharedDataSessionImpl) pgSessionStore.createSession(30_000, 16);
+        session.put("username", "username");
+        PreparedQuery<RowSet<Row>> preparedQuery = mock(PreparedQuery.class);
+        RowSet<Row> mismatch = mock(RowSet.class);
+        when(mismatch.rowCount()).thenReturn(0);
+        RowSet<Row> written = mock(RowSet.class);
+        when(written.rowCount()).thenReturn(1);
+        List<Tuple> tuples = new ArrayList<>();
+        doAnswer(invocationOnMock -> {
+            tuples.add(invocationOnMock.getArgument(0));
+            Handler<AsyncResult<RowSet<Row>>> handler = invocationOnMock.getArgument(1);
+            handler.handle(Future.succeededFuture(tuples.size() == 1 ? mismatch : written));
+            return null;
+        }).when(preparedQuery).execute(any(Tuple.class), any(Handler.class));
+        when(sqlClient.preparedQuery(startsWith("insert into http_session"))).thenReturn(preparedQuery);
+        assertTrue(put(session).failed());
+
+        // act
+        AsyncResult<Void> result = put(session);
+
+        // assert
+        assertTrue(result.succeeded());
+        for (Tuple tuple : tuples) {
+            assertEquals(1, (int) tuple.getInteger(3));
+            assertEquals(0, (int) tuple.getInteger(5));
+        }
+        assertEquals(1, session.version());
+        SharedDataSessionImpl stored = new SharedDataSessionImpl();
+        stored.readFromBuffer(0, tuples.get(1).getBuffer(2));
+        assertEquals(1, stored.version());
+        assertEquals("username", stored.get("username"));
+    }
+
+    @Test
+    public void putWhenDataDidNotChangeStillMovesToTheVersionOfTheRow() {
+        // arrange
+        SharedDataSessionImpl session = (SharedDataSessionImpl) pgSessionStore.createSession(30_000, 16);
+        mockUpsert(1);
+
+        // act
+        AsyncResult<Void> result = put(session);
+
+        // assert
+        assertTrue(result.succeeded());
+        assertEquals(1, session.version());
+    }
+
+    @Test
+    public void initOpensItsOwnPool() {
+        // arrange
+        Vertx vertx = Vertx.vertx();
+        JsonObject options = new JsonObject()
+                .put("database", new JsonObject().put("host", "localhost"))
+                .put("nearCacheMaxSize", 10)
+                .put("sweepIntervalMillis", 0L);
+
+        // act
+        SessionStore sessionStore = new PgSessionStore().init(vertx, options);
+
+        // assert
+        assertTrue(sessionStore instanceof PgSessionStore);
+        assertEquals(30_000, sessionStore.createSession(30_000).timeout());
+        sessionStore.close();
+        vertx.close();
+    }
+
+    private void mockUpsert(int rowCount) {
+        PreparedQuery<RowSet<Row>> preparedQuery = mock(PreparedQuery.class);
+        RowSet<Row> rowSet = mock(RowSet.class);
+        when(rowSet.rowCount()).thenReturn(rowCount);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<RowSet<Row>>> handler = invocationOnMock.getArgument(1);
+            handler.handle(Future.succeededFuture(rowSet));
+            return null;
+        }).when(preparedQuery).execute(any(Tuple.class), any(Handler.class));
+        when(sqlClient.preparedQuery(startsWith("insert into http_session"))).thenReturn(preparedQuery);
+    }
+
+    private AsyncResult<Void> put(Session session) {
+        Holder<AsyncResult<Void>> holder = new Holder<>();
+        pgSessionStore.put(session, putResult -> holder.value = putResult);
+        return holder.value;
+    }
+}
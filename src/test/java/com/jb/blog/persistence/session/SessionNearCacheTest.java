@@ -0,0 +1,145 @@
+package com.jb.blog.persistence.session;
+
+import com.jb.blog.Holder;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.Session;
+import io.vertx.ext.web.sstore.impl.SharedDataSessionImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SessionNearCacheTest {
+    private Holder<Long> now;
+    private SessionNearCache sessionNearCache;
+
+    @Before
+    public void setUp() {
+        now = new Holder<>();
+        now.value = 0L;
+        sessionNearCache = new SessionNearCache(2, 1000, () -> now.value);
+    }
+
+    @Test
+    public void getReturnsCopies() {
+        // arrange
+        sessionNearCache.put(createSession("id", 0));
+
+        // act
+        sessionNearCache.get("id", 0).put("username", "modified");
+
+        // assert
+        assertEquals("username", sessionNearCache.get("id", 0).get("username"));
+    }
+
+    @Test
+    public void getWhenEntryIsExpired() {
+        // arrange
+        sessionNearCache.put(createSession("id", 0));
+        now.value = 2000L * 1_000_000;
+
+        // act
+        Session session = sessionNearCache.get("id", 0);
+
+        // assert
+        assertNull(session);
+        assertEquals(0, sessionNearCache.size());
+    }
+
+    @Test
+    public void getWhenSessionHasTimedOut() {
+        // arrange
+        sessionNearCache.put(createSession("id", 0));
+
+        // act
+        Session session = sessionNearCache.get("id", 60_000);
+
+        // assert
+        assertNull(session);
+    }
+
+    @Test
+    public void putDoesntReplaceNewerVersion() {
+        // arrange
+        sessionNearCache.put(createSession("id", 2));
+
+        // act
+        // a read that started before the write finishes after it
+        sessionNearCache.put(createSession("id", 1));
+
+        // assert
+        assertEquals(2, sessionNearCache.get("id", 0).version());
+    }
+
+    @Test
+    public void invalidateOnlyRemovesOlderVersions() {
+        // arrange
+        sessionNearCache.put(createSession("id", 1));
+
+        // act
+        sessionNearCache.invalidate("id", 1);
+
+        // assert
+        assertNotNull(sessionNearCache.get("id", 0));
+        sessionNearCache.invalidate("id", 2);
+        assertNull(sessionNearCache.get("id", 0));
+    }
+
+    @Test
+    public void putAndNotifyNotifiesInvalidationListener() {
+        // arrange
+        Holder<String> invalidatedId = new Holder<>();
+        Holder<Integer> invalidatedVersion = new Holder<>();
+        sessionNearCache.setInvalidationListener((id, version) -> {
+            invalidatedId.value = id;
+            invalidatedVersion.value = version;
+        });
+
+        // act
+        sessionNearCache.putAndNotify("id", 3, 0, 30_000, Buffer.buffer());
+
+        // assert
+        assertEquals("id", invalidatedId.value);
+        assertEquals(3, (int) invalidatedVersion.value);
+    }
+
+    @Test
+    public void isUnchanged() {
+        // arrange
+        SharedDataSessionImpl session = createSession("id", 0);
+        sessionNearCache.put(session);
+        SharedDataSessionImpl cached = sessionNearCache.get("id", 0);
+
+        // act / assert
+        assertTrue(sessionNearCache.isUnchanged(cached));
+        cached.put("writeLsn", 42L);
+        assertFalse(sessionNearCache.isUnchanged(cached));
+    }
+
+    @Test
+    public void isUnchangedWhenExpiryMovesBackTooMuch() {
+        // arrange
+        SharedDataSessionImpl session = createSession("id", 0);
+        sessionNearCache.put(session);
+        SharedDataSessionImpl cached = sessionNearCache.get("id", 0);
+
+        // act
+        cached.setAccessed();
+
+        // assert
+        assertFalse(sessionNearCache.isUnchanged(cached));
+    }
+
+    private SharedDataSessionImpl createSession(String id, int version) {
+        SharedDataSessionImpl session = new SharedDataSessionImpl() {
+            {
+                setId(id);
+                setTimeout(30_000);
+                setLastAccessed(0);
+                setVersion(version);
+            }
+        };
+        session.put("username", "username");
+        return session;
+    }
+}
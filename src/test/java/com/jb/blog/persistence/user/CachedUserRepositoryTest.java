@@ -0,0 +1,124 @@
+package com.jb.blog.persistence.user;
+
+import com.jb.blog.Holder;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.sqlclient.SqlClient;
+import org.junit.Before;
+import org.junit.Test;
+import org.openapitools.vertxweb.server.model.User;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class CachedUserRepositoryTest {
+    private UserRepository userRepository;
+    private SqlClient sqlClient;
+    private Holder<Long> now;
+    private CachedUserRepository cachedUserRepository;
+
+    @Before
+    public void setUp() {
+        userRepository = mock(UserRepository.class);
+        sqlClient = mock(SqlClient.class);
+        now = new Holder<>();
+        now.value = 0L;
+        cachedUserRepository = new CachedUserRepository(userRepository, 2, 1000, () -> now.value);
+    }
+
+    @Test
+    public void getUserByIdWhenUserIsInCache() {
+        // arrange
+        mockGetUserById(new User("username", "password", 0));
+        getUserById("username");
+
+        // act
+        User user = getUserById("username");
+
+        // assert
+        assertEquals("username", user.getUsername());
+        verify(userRepository, times(1)).getUserById(eq(sqlClient), eq("username"), any(Handler.class));
+        assertEquals(1, cachedUserRepository.getHitCount());
+    }
+
+    @Test
+    public void getUserByIdWhenEntryIsExpired() {
+        // arrange
+        mockGetUserById(new User("username", "password", 0));
+        getUserById("username");
+        now.value = 2000L * 1_000_000;
+
+        // act
+        getUserById("username");
+
+        // assert
+        verify(userRepository, times(2)).getUserById(eq(sqlClient), eq("username"), any(Handler.class));
+    }
+
+    @Test
+    public void cachedUsersCantBeModifiedByCallers() {
+        // arrange
+        mockGetUserById(new User("username", "password", 0));
+        getUserById("username");
+
+        // act
+        getUserById("username").setPassword("modified");
+
+        // assert
+        assertEquals("password", getUserById("username").getPassword());
+    }
+
+    @Test
+    public void invalidateRejectsUsersReadBeforeIt() {
+        // arrange
+        now.value = 10L;
+        cachedUserRepository.invalidate("username");
+
+        // act
+        // a read that started before the invalidation finishes after it
+        cachedUserRepository.put(new User("username", "password", 0), 5L);
+
+        // assert
+        assertNull(cachedUserRepository.getIfPresent("username"));
+        cachedUserRepository.put(new User("username", "password", 1), 11L);
+        assertEquals(1, (int) cachedUserRepository.getIfPresent("username").getVersion());
+    }
+
+    @Test
+    public void insertNotifiesInvalidationListener() {
+        // arrange
+        User user = new User("username", "password", 0);
+        Holder<String> invalidatedUsername = new Holder<>();
+        cachedUserRepository.setInvalidationListener(username -> invalidatedUsername.value = username);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Void>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.succeededFuture());
+            return null;
+        }).when(userRepository).insert(eq(sqlClient), eq(user), any(Handler.class));
+
+        // act
+        cachedUserRepository.insert(sqlClient, user, mock(Handler.class));
+
+        // assert
+        assertEquals("username", invalidatedUsername.value);
+    }
+
+    private void mockGetUserById(User user) {
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<User>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.succeededFuture(user));
+            return null;
+        }).when(userRepository).getUserById(eq(sqlClient), eq(user.getUsername()), any(Handler.class));
+    }
+
+    private User getUserById(String username) {
+        Holder<User> holder = new Holder<>();
+        cachedUserRepository.getUserById(
+                sqlClient,
+                username,
+                getUserByIdResult -> holder.value = getUserByIdResult.result()
+        );
+        return holder.value;
+    }
+}
@@ -0,0 +1,108 @@
+package com.jb.blog.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+import org.openapitools.vertxweb.server.model.Article;
+import org.openapitools.vertxweb.server.model.ArticleBatch;
+import org.openapitools.vertxweb.server.model.ArticleFormData;
+import org.openapitools.vertxweb.server.model.ArticleSearchResult;
+import org.openapitools.vertxweb.server.model.User;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class GeneratedJsonMapperImplTest {
+    private final JsonMapper<Article> articleJsonMapper = new GeneratedJsonMapperImpl<>(
+            Article.JsonWriter.INSTANCE,
+            Article.JsonReader.INSTANCE
+    );
+    private final JsonMapper<ArticleBatch> articleBatchJsonMapper = new GeneratedJsonMapperImpl<>(
+            ArticleBatch.JsonWriter.INSTANCE,
+            ArticleBatch.JsonReader.INSTANCE
+    );
+
+    @Test
+    public void toBufferEncodesLikeObjectMapper() {
+        // arrange
+        Article article = new Article("id", "title \"quoted\" \u00e9", null, new User("username", null, 1), 3);
+
+        // act
+        Buffer buffer = articleJsonMapper.toBuffer(article);
+
+        // assert
+        assertEquals(JsonObject.mapFrom(article), new JsonObject(buffer));
+        assertFalse(new JsonObject(buffer).containsKey("content"));
+    }
+
+    @Test
+    public void toBufferEncodesListsAndNumbers() {
+        // arrange
+        JsonMapper<ArticleSearchResult> jsonMapper = new GeneratedJsonMapperImpl<>(
+                ArticleSearchResult.JsonWriter.INSTANCE,
+                ArticleSearchResult.JsonReader.INSTANCE
+        );
+        ArticleSearchResult first = new ArticleSearchResult("a", "title a", "snippet", null, 1, 0.5f);
+        User author = new User("username", null, 0);
+        ArticleSearchResult second = new ArticleSearchResult("b", "title b", null, author, 2, 0.25f);
+
+        // act
+        Buffer buffer = jsonMapper.toBuffer(Arrays.asList(first, second));
+
+        // assert
+        JsonArray expected = new JsonArray().add(JsonObject.mapFrom(first)).add(JsonObject.mapFrom(second));
+        assertEquals(expected, new JsonArray(buffer));
+    }
+
+    @Test
+    public void fromJsonReadsNestedObjectsAndLists() {
+        // arrange
+        JsonObject json = new JsonObject()
+                .put("insert", new JsonArray().add(new JsonObject().put("title", "title").put("content", "content")))
+                .put("update", new JsonArray().add(new JsonObject().put("id", "id").put("version", 2)));
+
+        // act
+        ArticleBatch articleBatch = articleBatchJsonMapper.fromJson(json);
+
+        // assert
+        assertEquals(json.mapTo(ArticleBatch.class), articleBatch);
+        assertEquals(
+                Arrays.asList(new ArticleFormData("id", null, null, 2)),
+                articleBatch.getUpdate()
+        );
+    }
+
+    @Test(expected = DecodeException.class)
+    public void fromJsonWhenPropertyIsUnknown() {
+        articleJsonMapper.fromJson(new JsonObject().put("id", "id").put("unknown", "value"));
+    }
+
+    @Test(expected = DecodeException.class)
+    public void fromJsonWhenTypeIsWrong() {
+        articleJsonMapper.fromJson(new JsonObject().put("version", "not a number"));
+    }
+
+    @Test
+    public void objectMapperUsesGeneratedCodecsOnceModuleIsRegistered() throws IOException {
+        // arrange
+        ArticleFormData articleFormData = new ArticleFormData(null, "title", "content", 1);
+        ArticleBatch articleBatch = new ArticleBatch(Arrays.asList(articleFormData), new ArrayList<>());
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new GeneratedJsonModule());
+
+        // act
+        ArticleBatch decoded = mapper.readValue(mapper.writeValueAsBytes(articleBatch), ArticleBatch.class);
+
+        // assert
+        assertEquals(articleBatch, decoded);
+        assertSame(ArticleBatch.JsonWriter.INSTANCE, mapper.getSerializerProviderInstance().findValueSerializer(
+                ArticleBatch.class
+        ));
+    }
+}
@@ -0,0 +1,65 @@
+package com.jb.blog.services;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+import org.openapitools.vertxweb.server.model.Article;
+import org.openapitools.vertxweb.server.model.ArticleFormData;
+import org.openapitools.vertxweb.server.model.User;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class JacksonJsonMapperImplTest {
+    @Test
+    public void fromJson() {
+        // arrange
+        JsonMapper<ArticleFormData> jsonMapper = new JacksonJsonMapperImpl<>(ArticleFormData.class);
+        JsonObject json = new JsonObject().put("title", "title").put("content", "content").put("version", 2);
+
+        // act
+        ArticleFormData articleFormData = jsonMapper.fromJson(json);
+
+        // assert
+        assertNull(articleFormData.getId());
+        assertEquals("title", articleFormData.getTitle());
+        assertEquals("content", articleFormData.getContent());
+        assertEquals(2, (int) articleFormData.getVersion());
+    }
+
+    @Test(expected = DecodeException.class)
+    public void fromJsonWhenPropertyIsUnknown() {
+        new JacksonJsonMapperImpl<>(ArticleFormData.class).fromJson(new JsonObject().put("unknown", "value"));
+    }
+
+    @Test
+    public void toBufferEncodesLikeJsonObject() {
+        // arrange
+        JsonMapper<Article> jsonMapper = new JacksonJsonMapperImpl<>(Article.class);
+        Article article = new Article("id", "title", "content", new User("username", null, 1), 3);
+
+        // act
+        Buffer buffer = jsonMapper.toBuffer(article);
+
+        // assert
+        assertEquals(JsonObject.mapFrom(article), new JsonObject(buffer));
+        assertFalse(new JsonObject(buffer).getJsonObject("author").containsKey("password"));
+    }
+
+    @Test
+    public void toBufferEncodesListsLikeJsonArray() {
+        // arrange
+        JsonMapper<Article> jsonMapper = new JacksonJsonMapperImpl<>(Article.class);
+        Article first = new Article("a", "title a", null, null, 1);
+        Article second = new Article("b", "title b", "content b", null, 2);
+
+        // act
+        Buffer buffer = jsonMapper.toBuffer(Arrays.asList(first, second));
+
+        // assert
+        assertEquals(new JsonArray(new JsonArray(Arrays.asList(first, second)).encode()), new JsonArray(buffer));
+    }
+}
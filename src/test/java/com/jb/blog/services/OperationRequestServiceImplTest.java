@@ -0,0 +1,64 @@
+package com.jb.blog.services;
+
+import io.vertx.core.MultiMap;
+import io.vertx.ext.web.api.OperationRequest;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OperationRequestServiceImplTest {
+    private final OperationRequestService operationRequestService = new OperationRequestServiceImpl();
+
+    @Test
+    public void getCookieValue() {
+        // arrange
+        OperationRequest operationRequest = createOperationRequest("a=1; vertx-web.session=abc; b=2");
+
+        // act
+        String value = operationRequestService.getCookieValue(operationRequest, "vertx-web.session");
+
+        // assert
+        assertEquals("abc", value);
+        assertEquals(
+                operationRequestService.extractCookies(operationRequest).get("vertx-web.session").getValue(),
+                value
+        );
+    }
+
+    @Test
+    public void getCookieValueOnlyMatchesWholeNames() {
+        // arrange
+        OperationRequest operationRequest = createOperationRequest("xsession=a;session;sessionx=b; session=c");
+
+        // act
+        String value = operationRequestService.getCookieValue(operationRequest, "session");
+
+        // assert
+        assertEquals("c", value);
+    }
+
+    @Test
+    public void getCookieValueWhenValueIsQuotedOrEmpty() {
+        // arrange
+        OperationRequest operationRequest = createOperationRequest("a=\"quoted\"; b=");
+
+        // act / assert
+        assertEquals("quoted", operationRequestService.getCookieValue(operationRequest, "a"));
+        assertEquals("", operationRequestService.getCookieValue(operationRequest, "b"));
+    }
+
+    @Test
+    public void getCookieValueWhenCookieIsMissing() {
+        // act / assert
+        assertNull(operationRequestService.getCookieValue(createOperationRequest("a=1"), "session"));
+        assertNull(operationRequestService.getCookieValue(
+                new OperationRequest(null, MultiMap.caseInsensitiveMultiMap(), null, null),
+                "session"
+        ));
+    }
+
+    private OperationRequest createOperationRequest(String cookieHeader) {
+        MultiMap headers = MultiMap.caseInsensitiveMultiMap().add("Cookie", cookieHeader);
+        return new OperationRequest(null, headers, null, null);
+    }
+}
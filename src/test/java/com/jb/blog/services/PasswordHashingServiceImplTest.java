@@ -0,0 +1,98 @@
+package com.jb.blog.services;
+
+import com.jb.blog.Holder;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.WorkerExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+public class PasswordHashingServiceImplTest {
+    private WorkerExecutor workerExecutor;
+    private PasswordHashingService passwordHashingService;
+
+    @Before
+    public void setUp() {
+        workerExecutor = mock(WorkerExecutor.class);
+        // The blocking code runs in the calling thread
+        doAnswer(invocationOnMock -> {
+            Handler<Promise<Object>> blockingCodeHandler = invocationOnMock.getArgument(0);
+            Handler<AsyncResult<Object>> resultHandler = invocationOnMock.getArgument(2);
+            Promise<Object> promise = Promise.promise();
+            blockingCodeHandler.handle(promise);
+            resultHandler.handle(promise.future());
+            return null;
+        }).when(workerExecutor).executeBlocking(any(Handler.class), anyBoolean(), any(Handler.class));
+        passwordHashingService = new PasswordHashingServiceImpl(workerExecutor, 1000, 10);
+    }
+
+    @Test
+    public void verifyHashedPassword() {
+        // arrange
+        String passwordHash = hashPassword("password");
+
+        // act / assert
+        assertTrue(passwordHash.startsWith("$pbkdf2-sha256$i=1000$"));
+        assertNotEquals(hashPassword("password"), passwordHash);
+        assertTrue(verifyPassword("password", passwordHash));
+        assertFalse(verifyPassword("Password", passwordHash));
+        assertFalse(passwordHashingService.needsRehash(passwordHash));
+    }
+
+    @Test
+    public void verifyWhenUserDoesNotExist() {
+        // act / assert
+        assertFalse(verifyPassword("password", null));
+        assertFalse(passwordHashingService.needsRehash(null));
+    }
+
+    @Test
+    public void passwordsStoredBeforeHashingAndOldHashesNeedRehash() {
+        // arrange
+        PasswordHashingService previousService = new PasswordHashingServiceImpl(workerExecutor, 500, 10);
+        Holder<String> previousHash = new Holder<>();
+        previousService.hash("password", hashResult -> previousHash.value = hashResult.result());
+
+        // act / assert
+        assertTrue(verifyPassword("password", "password"));
+        assertFalse(verifyPassword("other", "password"));
+        assertTrue(passwordHashingService.needsRehash("password"));
+        assertTrue(verifyPassword("password", previousHash.value));
+        assertTrue(passwordHashingService.needsRehash(previousHash.value));
+    }
+
+    @Test
+    public void hashFailsWhenQueueIsFull() {
+        // arrange
+        WorkerExecutor busyWorkerExecutor = mock(WorkerExecutor.class);
+        PasswordHashingService passwordHashingService = new PasswordHashingServiceImpl(busyWorkerExecutor, 1000, 2);
+        passwordHashingService.hash("first", hashResult -> { });
+        passwordHashingService.hash("second", hashResult -> { });
+        Holder<AsyncResult<String>> holder = new Holder<>();
+
+        // act
+        passwordHashingService.hash("third", hashResult -> holder.value = hashResult);
+
+        // assert
+        assertTrue(holder.value.cause() instanceof PasswordHashingOverloadedException);
+        verify(busyWorkerExecutor, times(2)).executeBlocking(any(Handler.class), anyBoolean(), any(Handler.class));
+    }
+
+    private String hashPassword(String password) {
+        Holder<String> holder = new Holder<>();
+        passwordHashingService.hash(password, hashResult -> holder.value = hashResult.result());
+        return holder.value;
+    }
+
+    private boolean verifyPassword(String password, String passwordHash) {
+        Holder<Boolean> holder = new Holder<>();
+        passwordHashingService.verify(password, passwordHash, verifyResult -> holder.value = verifyResult.result());
+        return holder.value;
+    }
+}
@@ -0,0 +1,129 @@
+package com.jb.blog.webservices;
+
+import com.jb.blog.persistence.EntityStream;
+import com.jb.blog.persistence.article.ArticleRepository;
+import com.jb.blog.services.GeneratedJsonMapperImpl;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonArray;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.pgclient.PgPool;
+import io.vertx.sqlclient.SqlConnection;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.openapitools.vertxweb.server.model.Article;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ArticleExportHandlerTest {
+    private PgPool pool;
+    private ArticleRepository articleRepository;
+    private RoutingContext routingContext;
+    private HttpServerResponse response;
+    private SqlConnection connection;
+    private EntityStream<Article> stream;
+    private ArticleExportHandler articleExportHandler;
+
+    @Before
+    public void setUp() {
+        pool = mock(PgPool.class);
+        articleRepository = mock(ArticleRepository.class);
+        routingContext = mock(RoutingContext.class);
+        response = mock(HttpServerResponse.class);
+        connection = mock(SqlConnection.class);
+        stream = mock(EntityStream.class);
+        when(routingContext.response()).thenReturn(response);
+        articleExportHandler = new ArticleExportHandler(
+                pool,
+                articleRepository,
+                new GeneratedJsonMapperImpl<>(Article.JsonWriter.INSTANCE, Article.JsonReader.INSTANCE)
+        );
+    }
+
+    @Test
+    public void handleWhenErrorWhenGettingConnection() {
+        // arrange
+        Exception exception = new RuntimeException();
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<SqlConnection>> handler = invocationOnMock.getArgument(0);
+            handler.handle(Future.failedFuture(exception));
+            return null;
+        }).when(pool).getConnection(any(Handler.class));
+
+        // act
+        articleExportHandler.handle(routingContext);
+
+        // assert
+        verify(routingContext).fail(exception);
+        verifyNoInteractions(articleRepository);
+    }
+
+    @Test
+    public void handleWritesAllArticlesAsJsonArray() {
+        // arrange
+        mockSuccessfulGettingStream();
+        ArgumentCaptor<Handler<Article>> articleHandlerCaptor = ArgumentCaptor.forClass(Handler.class);
+        ArgumentCaptor<Handler<Void>> endHandlerCaptor = ArgumentCaptor.forClass(Handler.class);
+
+        // act
+        articleExportHandler.handle(routingContext);
+        verify(stream).handler(articleHandlerCaptor.capture());
+        verify(stream).endHandler(endHandlerCaptor.capture());
+        for (int i = 0; i < 3; i++) {
+            Article article = new Article();
+            article.setId("id" + i);
+            articleHandlerCaptor.getValue().handle(article);
+        }
+        endHandlerCaptor.getValue().handle(null);
+
+        // assert
+        verify(response).setChunked(true);
+        ArgumentCaptor<Buffer> bufferCaptor = ArgumentCaptor.forClass(Buffer.class);
+        verify(response).end(bufferCaptor.capture());
+        JsonArray jsonArray = new JsonArray(bufferCaptor.getValue());
+        assertEquals(3, jsonArray.size());
+        assertEquals("id2", jsonArray.getJsonObject(2).getString("id"));
+        verify(connection).close();
+    }
+
+    @Test
+    public void handlePausesStreamWhenWriteQueueIsFull() {
+        // arrange
+        mockSuccessfulGettingStream();
+        when(response.writeQueueFull()).thenReturn(true);
+        ArgumentCaptor<Handler<Article>> articleHandlerCaptor = ArgumentCaptor.forClass(Handler.class);
+        ArgumentCaptor<Handler<Void>> drainHandlerCaptor = ArgumentCaptor.forClass(Handler.class);
+        Article article = new Article();
+        article.setContent(new String(new char[ArticleExportHandler.CHUNK_SIZE]).replace('\0', 'a'));
+
+        // act
+        articleExportHandler.handle(routingContext);
+        verify(stream).handler(articleHandlerCaptor.capture());
+        articleHandlerCaptor.getValue().handle(article);
+
+        // assert
+        verify(response).write(any(Buffer.class));
+        verify(stream).pause();
+        verify(response).drainHandler(drainHandlerCaptor.capture());
+        drainHandlerCaptor.getValue().handle(null);
+        verify(stream).resume();
+    }
+
+    private void mockSuccessfulGettingStream() {
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<SqlConnection>> handler = invocationOnMock.getArgument(0);
+            handler.handle(Future.succeededFuture(connection));
+            return null;
+        }).when(pool).getConnection(any(Handler.class));
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<EntityStream<Article>>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.succeededFuture(stream));
+            return null;
+        }).when(articleRepository).getAllAsStream(eq(connection), eq(ArticleExportHandler.FETCH_SIZE), any(Handler.class));
+    }
+}
@@ -1,16 +1,23 @@
 package com.jb.blog.webservices;
 
+import com.jb.blog.persistence.ConditionalUpdateResult;
+import com.jb.blog.persistence.Page;
+import com.jb.blog.persistence.article.ArticleField;
 import com.jb.blog.persistence.article.ArticleRepository;
+import com.jb.blog.services.CursorService;
+import com.jb.blog.services.GeneratedJsonMapperImpl;
 import com.jb.blog.services.JsonMapper;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.api.OperationRequest;
 import io.vertx.ext.web.api.OperationResponse;
 import io.vertx.pgclient.PgPool;
 import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Transaction;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.Before;
 import org.junit.Test;
@@ -18,9 +25,16 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.openapitools.vertxweb.server.model.Article;
+import org.openapitools.vertxweb.server.model.ArticleBatch;
+import org.openapitools.vertxweb.server.model.ArticleBatchResult;
+import org.openapitools.vertxweb.server.model.ArticleByIdResult;
 import org.openapitools.vertxweb.server.model.ArticleFormData;
+import org.openapitools.vertxweb.server.model.ArticleSearchResult;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -38,6 +52,9 @@ public class ArticleWebServiceImplTest {
     private RequestContextManagerFactory requestContextManagerFactory;
     private RequestContextManager requestContextManager;
     private RequestContext requestContext;
+    private CursorService cursorService;
+    private JsonMapper<ArticleBatch> articleBatchJsonMapper;
+    private MultiMap headers;
 
     @Before
     public void beforeEach() {
@@ -50,12 +67,32 @@ public class ArticleWebServiceImplTest {
         requestContextManager = mock(RequestContextManager.class);
         requestContext = mock(RequestContext.class);
         operationRequest = mock(OperationRequest.class);
+        cursorService = mock(CursorService.class);
+        articleBatchJsonMapper = mock(JsonMapper.class);
+        headers = MultiMap.caseInsensitiveMultiMap();
+        when(operationRequest.getHeaders()).thenReturn(headers);
         when(requestContextManagerFactory.create(operationRequest, handler)).thenReturn(requestContextManager);
-        articleWebService = new ArticleWebServiceImpl(articleRepository, articleFormDataJsonMapper, requestContextManagerFactory);
+        when(requestContextManagerFactory.createReadOnly(operationRequest, handler)).thenReturn(requestContextManager);
+        doAnswer(invocationOnMock -> {
+            Handler<Void> recordWriteHandler = invocationOnMock.getArgument(1);
+            recordWriteHandler.handle(null);
+            return null;
+        }).when(requestContextManager).recordWrite(any(RequestContext.class), any(Handler.class));
+        articleWebService = new ArticleWebServiceImpl(
+                articleRepository,
+                articleFormDataJsonMapper,
+                requestContextManagerFactory,
+                cursorService,
+                articleBatchJsonMapper,
+                new GeneratedJsonMapperImpl<>(Article.JsonWriter.INSTANCE, Article.JsonReader.INSTANCE),
+                new GeneratedJsonMapperImpl<>(ArticleSearchResult.JsonWriter.INSTANCE, ArticleSearchResult.JsonReader.INSTANCE),
+                new GeneratedJsonMapperImpl<>(ArticleByIdResult.JsonWriter.INSTANCE, ArticleByIdResult.JsonReader.INSTANCE)
+        );
     }
 
     private void mockRequestContextWithConnection() {
         when(requestContext.getSqlConnection()).thenReturn(sqlConnection);
+        when(requestContext.getSqlClient()).thenReturn(sqlConnection);
         when(requestContext.createHandler(any(Handler.class))).thenAnswer(new Answer<Handler>() {
             @Override
             public Handler answer(InvocationOnMock invocationOnMock) throws Throwable {
@@ -63,12 +100,29 @@ public class ArticleWebServiceImplTest {
                 return new Handler<AsyncResult>() {
                     @Override
                     public void handle(AsyncResult event) {
+                        if (event.failed()) {
+                            requestContext.handleThrowable(event.cause());
+                            return;
+                        }
                         handler.handle(event.result());
                     }
                 };
             }
         });
     }
+    private void mockUpdateIfVersion(Integer expectedVersion, ConditionalUpdateResult result) {
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<ConditionalUpdateResult>> handler = invocationOnMock.getArgument(3);
+            handler.handle(Future.succeededFuture(result));
+            return null;
+        }).when(articleRepository).updateIfVersion(
+                eq(sqlConnection),
+                any(Article.class),
+                eq(expectedVersion),
+                any(Handler.class)
+        );
+    }
+
     private void mockGetContextWithoutUser() {
         mockRequestContextWithConnection();
         doAnswer(new Answer() {
@@ -81,6 +135,15 @@ public class ArticleWebServiceImplTest {
         }).when(requestContextManager).getContextWithoutUser(any(Handler.class));
     }
 
+    private void mockGetPoolContextWithoutUser() {
+        mockRequestContextWithConnection();
+        doAnswer(invocationOnMock -> {
+            Handler<RequestContext> handler = invocationOnMock.getArgument(0);
+            handler.handle(requestContext);
+            return null;
+        }).when(requestContextManager).getPoolContextWithoutUser(any(Handler.class));
+    }
+
     private void mockGetContextWithUser() {
         mockRequestContextWithConnection();
         doAnswer(new Answer() {
@@ -93,10 +156,19 @@ public class ArticleWebServiceImplTest {
         }).when(requestContextManager).getContextWithUser(any(Handler.class));
     }
 
+    private void mockGetPoolContextWithUser() {
+        mockRequestContextWithConnection();
+        doAnswer(invocationOnMock -> {
+            Handler<RequestContext> handler = invocationOnMock.getArgument(0);
+            handler.handle(requestContext);
+            return null;
+        }).when(requestContextManager).getPoolContextWithUser(any(Handler.class));
+    }
+
     @Test
     public void getAllArticlesWhenThereIsNoError() {
         // arrange
-        mockGetContextWithoutUser();
+        mockGetPoolContextWithoutUser();
         List<Article> articles = new ArrayList<>();
         for (int i = 0 ; i < 4 ; i++) {
             Article article = new Article();
@@ -105,13 +177,13 @@ public class ArticleWebServiceImplTest {
         }
 
         doAnswer(invocationOnMock -> {
-            Handler<AsyncResult<List<Article>>> handler = invocationOnMock.getArgument(1);
-            handler.handle(Future.succeededFuture(articles));
+            Handler<AsyncResult<Page<Article>>> handler = invocationOnMock.getArgument(4);
+            handler.handle(Future.succeededFuture(new Page<>(articles, null)));
             return null;
-        }).when(articleRepository).getAll(eq(sqlConnection), any(Handler.class));
+        }).when(articleRepository).getPage(eq(sqlConnection), isNull(), eq(20), eq(ArticleField.SUMMARY), any(Handler.class));
 
         // act
-        articleWebService.getAllArticles(operationRequest, handler);
+        articleWebService.getAllArticles(null, null, null, operationRequest, handler);
 
         // assert
         ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
@@ -125,23 +197,179 @@ public class ArticleWebServiceImplTest {
             responseArticles.add(articleJsonObject.mapTo(Article.class));
         }
         assertEquals(articles, responseArticles);
+        assertNull(operationResponse.getHeaders().get("X-Next-Cursor"));
+    }
+
+    @Test
+    public void getAllArticlesWhenThereIsANextPage() {
+        // arrange
+        mockGetPoolContextWithoutUser();
+        List<Article> articles = new ArrayList<>();
+        Article article = new Article();
+        article.setId("b");
+        articles.add(article);
+        when(cursorService.decode("cursorA")).thenReturn("a");
+        when(cursorService.encode("b")).thenReturn("cursorB");
+
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Page<Article>>> handler = invocationOnMock.getArgument(4);
+            handler.handle(Future.succeededFuture(new Page<>(articles, "b")));
+            return null;
+        }).when(articleRepository).getPage(eq(sqlConnection), eq("a"), eq(1), eq(ArticleField.SUMMARY), any(Handler.class));
+
+        // act
+        articleWebService.getAllArticles("cursorA", 1, null, operationRequest, handler);
+
+        // assert
+        ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
+        verify(requestContext).handleSuccess(futureArgumentCaptor.capture());
+        OperationResponse operationResponse = futureArgumentCaptor.getValue();
+        assertEquals(200, (int)operationResponse.getStatusCode());
+        assertEquals("cursorB", operationResponse.getHeaders().get("X-Next-Cursor"));
+    }
+
+    @Test
+    public void getAllArticlesWithFields() {
+        // arrange
+        mockGetPoolContextWithoutUser();
+        Article article = new Article();
+        article.setId("a");
+        article.setContent("content");
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Page<Article>>> handler = invocationOnMock.getArgument(4);
+            handler.handle(Future.succeededFuture(new Page<>(Collections.singletonList(article), null)));
+            return null;
+        }).when(articleRepository).getPage(
+                eq(sqlConnection),
+                isNull(),
+                eq(20),
+                eq(EnumSet.of(ArticleField.ID, ArticleField.CONTENT)),
+                any(Handler.class)
+        );
+
+        // act
+        articleWebService.getAllArticles(null, null, Arrays.asList("id", "content"), operationRequest, handler);
+
+        // assert
+        ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
+        verify(requestContext).handleSuccess(futureArgumentCaptor.capture());
+        JsonObject articleJson = new JsonArray(futureArgumentCaptor.getValue().getPayload()).getJsonObject(0);
+        assertEquals("content", articleJson.getString("content"));
+        assertFalse(articleJson.containsKey("title"));
+    }
+
+    @Test
+    public void getAllArticlesWhenFieldIsUnknown() {
+        // arrange
+        ArgumentCaptor<Future<OperationResponse>> futureArgumentCaptor = ArgumentCaptor.forClass(Future.class);
+
+        // act
+        articleWebService.getAllArticles(null, null, Collections.singletonList("password"), operationRequest, handler);
+
+        // assert
+        verify(handler).handle(futureArgumentCaptor.capture());
+        assertEquals(400, (int)futureArgumentCaptor.getValue().result().getStatusCode());
+        verifyNoInteractions(articleRepository);
+    }
+
+    @Test
+    public void getAllArticlesWhenCursorIsInvalid() {
+        // arrange
+        when(cursorService.decode("invalid")).thenReturn(null);
+        ArgumentCaptor<Future<OperationResponse>> futureArgumentCaptor = ArgumentCaptor.forClass(Future.class);
+
+        // act
+        articleWebService.getAllArticles("invalid", null, null, operationRequest, handler);
+
+        // assert
+        verify(handler).handle(futureArgumentCaptor.capture());
+        OperationResponse operationResponse = futureArgumentCaptor.getValue().result();
+        assertEquals(400, (int)operationResponse.getStatusCode());
+        verifyNoInteractions(articleRepository);
+    }
+
+    @Test
+    public void getArticlesByAuthorWhenThereIsANextPage() {
+        // arrange
+        mockGetPoolContextWithoutUser();
+        Article article = new Article();
+        article.setId("b");
+        when(cursorService.decode("cursorA")).thenReturn("a");
+        when(cursorService.encode("b")).thenReturn("cursorB");
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Page<Article>>> handler = invocationOnMock.getArgument(5);
+            handler.handle(Future.succeededFuture(new Page<>(Collections.singletonList(article), "b")));
+            return null;
+        }).when(articleRepository).getPageByAuthor(eq(sqlConnection), eq("author"), eq("a"), eq(1), eq(ArticleField.SUMMARY), any(Handler.class));
+
+        // act
+        articleWebService.getArticlesByAuthor("author", "cursorA", 1, null, operationRequest, handler);
+
+        // assert
+        ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
+        verify(requestContext).handleSuccess(futureArgumentCaptor.capture());
+        OperationResponse operationResponse = futureArgumentCaptor.getValue();
+        assertEquals(200, (int)operationResponse.getStatusCode());
+        assertEquals("cursorB", operationResponse.getHeaders().get("X-Next-Cursor"));
+        assertEquals("b", new JsonArray(operationResponse.getPayload()).getJsonObject(0).getString("id"));
+    }
+
+    @Test
+    public void searchArticlesWhenThereIsANextPage() {
+        // arrange
+        mockGetPoolContextWithoutUser();
+        when(cursorService.decode("cursorA")).thenReturn("0.5:a");
+        when(cursorService.encode("0.25:b")).thenReturn("cursorB");
+        ArticleSearchResult result = new ArticleSearchResult("b", "title", "<mark>vertx</mark>", null, 0, 0.25f);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Page<ArticleSearchResult>>> handler = invocationOnMock.getArgument(5);
+            handler.handle(Future.succeededFuture(new Page<>(Collections.singletonList(result), "b")));
+            return null;
+        }).when(articleRepository).search(eq(sqlConnection), eq("vertx"), eq(0.5f), eq("a"), eq(1), any(Handler.class));
+
+        // act
+        articleWebService.searchArticles("vertx", "cursorA", 1, operationRequest, handler);
+
+        // assert
+        ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
+        verify(requestContext).handleSuccess(futureArgumentCaptor.capture());
+        OperationResponse operationResponse = futureArgumentCaptor.getValue();
+        assertEquals(200, (int)operationResponse.getStatusCode());
+        assertEquals("cursorB", operationResponse.getHeaders().get("X-Next-Cursor"));
+        JsonArray responseJson = new JsonArray(operationResponse.getPayload());
+        assertEquals("<mark>vertx</mark>", responseJson.getJsonObject(0).getString("snippet"));
+    }
+
+    @Test
+    public void searchArticlesWhenCursorIsInvalid() {
+        // arrange
+        when(cursorService.decode("invalid")).thenReturn("not a rank:a");
+        ArgumentCaptor<Future<OperationResponse>> futureArgumentCaptor = ArgumentCaptor.forClass(Future.class);
+
+        // act
+        articleWebService.searchArticles("vertx", "invalid", null, operationRequest, handler);
+
+        // assert
+        verify(handler).handle(futureArgumentCaptor.capture());
+        assertEquals(400, (int)futureArgumentCaptor.getValue().result().getStatusCode());
+        verifyNoInteractions(articleRepository);
     }
 
     @Test
     public void getArticleByIdWhenArticleExists() {
         // arrange
-        mockGetContextWithoutUser();
+        mockGetPoolContextWithoutUser();
         String id = "test";
         Article article = new Article();
         article.setId(id);
         doAnswer(invocationOnMock -> {
-            Handler<AsyncResult<Article>> handler = invocationOnMock.getArgument(2);
+            Handler<AsyncResult<Article>> handler = invocationOnMock.getArgument(3);
             handler.handle(Future.succeededFuture(article));
             return null;
-        }).when(articleRepository).getById(eq(sqlConnection), eq(id), any(Handler.class));
+        }).when(articleRepository).getById(eq(sqlConnection), eq(id), eq(ArticleField.ALL), any(Handler.class));
 
         // act
-        articleWebService.getArticleById(id, operationRequest, handler);
+        articleWebService.getArticleById(id, null, operationRequest, handler);
 
         // assert
         ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
@@ -155,18 +383,18 @@ public class ArticleWebServiceImplTest {
     @Test
     public void getArticleByIdWhenArticleDoesNotExists() {
         // arrange
-        mockGetContextWithoutUser();
+        mockGetPoolContextWithoutUser();
         String id = "test";
         Article article = new Article();
         article.setId(id);
         doAnswer(invocationOnMock -> {
-            Handler<AsyncResult<Article>> handler = invocationOnMock.getArgument(2);
+            Handler<AsyncResult<Article>> handler = invocationOnMock.getArgument(3);
             handler.handle(Future.succeededFuture(null));
             return null;
-        }).when(articleRepository).getById(eq(sqlConnection), eq(id), any(Handler.class));
+        }).when(articleRepository).getById(eq(sqlConnection), eq(id), eq(ArticleField.ALL), any(Handler.class));
 
         // act
-        articleWebService.getArticleById(id, operationRequest, handler);
+        articleWebService.getArticleById(id, null, operationRequest, handler);
 
         // assert
         ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
@@ -175,10 +403,213 @@ public class ArticleWebServiceImplTest {
         assertEquals(404, (int)operationResponse.getStatusCode());
     }
 
+    @Test
+    public void getArticleByIdWhenIfNoneMatchIsUpToDate() {
+        // arrange
+        mockGetPoolContextWithoutUser();
+        String id = "test";
+        headers.add("If-None-Match", "\"1\", W/\"3\"");
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Integer>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.succeededFuture(3));
+            return null;
+        }).when(articleRepository).getVersion(eq(sqlConnection), eq(id), any(Handler.class));
+
+        // act
+        articleWebService.getArticleById(id, null, operationRequest, handler);
+
+        // assert
+        ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
+        verify(requestContext).handleSuccess(futureArgumentCaptor.capture());
+        OperationResponse operationResponse = futureArgumentCaptor.getValue();
+        assertEquals(304, (int)operationResponse.getStatusCode());
+        assertEquals("\"3\"", operationResponse.getHeaders().get("ETag"));
+        assertNull(operationResponse.getPayload());
+        verify(articleRepository, never()).getById(any(), any(), any(), any(Handler.class));
+    }
+
+    @Test
+    public void getArticleByIdWhenIfNoneMatchIsOutdated() {
+        // arrange
+        mockGetPoolContextWithoutUser();
+        String id = "test";
+        headers.add("If-None-Match", "\"2\"");
+        Article article = new Article();
+        article.setId(id);
+        article.setVersion(3);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Integer>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.succeededFuture(3));
+            return null;
+        }).when(articleRepository).getVersion(eq(sqlConnection), eq(id), any(Handler.class));
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Article>> handler = invocationOnMock.getArgument(3);
+            handler.handle(Future.succeededFuture(article));
+            return null;
+        }).when(articleRepository).getById(eq(sqlConnection), eq(id), eq(ArticleField.ALL), any(Handler.class));
+
+        // act
+        articleWebService.getArticleById(id, null, operationRequest, handler);
+
+        // assert
+        ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
+        verify(requestContext).handleSuccess(futureArgumentCaptor.capture());
+        OperationResponse operationResponse = futureArgumentCaptor.getValue();
+        assertEquals(200, (int)operationResponse.getStatusCode());
+        assertEquals("\"3\"", operationResponse.getHeaders().get("ETag"));
+    }
+
+    @Test
+    public void getArticleByIdWhenIfNoneMatchIsForTheFullArticleAndFieldsAreSelected() {
+        // arrange
+        mockGetPoolContextWithoutUser();
+        String id = "test";
+        headers.add("If-None-Match", "\"3\"");
+        Article article = new Article();
+        article.setId(id);
+        article.setTitle("title");
+        article.setVersion(3);
+        mockGetArticleVersion(id, 3);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Article>> handler = invocationOnMock.getArgument(3);
+            handler.handle(Future.succeededFuture(article));
+            return null;
+        }).when(articleRepository).getById(
+                eq(sqlConnection),
+                eq(id),
+                eq(EnumSet.of(ArticleField.ID, ArticleField.TITLE, ArticleField.VERSION)),
+                any(Handler.class)
+        );
+
+        // act
+        articleWebService.getArticleById(id, Arrays.asList("version", "title", "id"), operationRequest, handler);
+
+        // assert
+        ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
+        verify(requestContext).handleSuccess(futureArgumentCaptor.capture());
+        OperationResponse operationResponse = futureArgumentCaptor.getValue();
+        assertEquals(200, (int)operationResponse.getStatusCode());
+        assertEquals("\"3-id.title.version\"", operationResponse.getHeaders().get("ETag"));
+    }
+
+    @Test
+    public void getArticleByIdWhenIfNoneMatchIsForAProjection() {
+        // arrange
+        mockGetPoolContextWithoutUser();
+        String id = "test";
+        headers.add("If-None-Match", ArticleWebServiceImpl.toArticleETag(
+                3,
+                EnumSet.of(ArticleField.ID, ArticleField.TITLE, ArticleField.VERSION)
+        ));
+        Article article = new Article();
+        article.setId(id);
+        article.setVersion(3);
+        mockGetArticleVersion(id, 3);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Article>> handler = invocationOnMock.getArgument(3);
+            handler.handle(Future.succeededFuture(article));
+            return null;
+        }).when(articleRepository).getById(eq(sqlConnection), eq(id), eq(ArticleField.ALL), any(Handler.class));
+
+        // act
+        articleWebService.getArticleById(id, null, operationRequest, handler);
+
+        // assert
+        ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
+        verify(requestContext).handleSuccess(futureArgumentCaptor.capture());
+        OperationResponse operationResponse = futureArgumentCaptor.getValue();
+        assertEquals(200, (int)operationResponse.getStatusCode());
+        assertEquals("\"3\"", operationResponse.getHeaders().get("ETag"));
+    }
+
+    private void mockGetArticleVersion(String id, Integer version) {
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Integer>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.succeededFuture(version));
+            return null;
+        }).when(articleRepository).getVersion(eq(sqlConnection), eq(id), any(Handler.class));
+    }
+
+    @Test
+    public void getAllArticlesWhenIfNoneMatchIsUpToDate() {
+        // arrange
+        mockGetPoolContextWithoutUser();
+        Article article = new Article();
+        article.setId("a");
+        article.setVersion(1);
+        Page<Article> page = new Page<>(Collections.singletonList(article), null);
+        headers.add("If-None-Match", ArticleWebServiceImpl.toListETag(page, ArticleField.SUMMARY));
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Page<Article>>> handler = invocationOnMock.getArgument(3);
+            handler.handle(Future.succeededFuture(page));
+            return null;
+        }).when(articleRepository).getVersionPage(eq(sqlConnection), isNull(), eq(20), any(Handler.class));
+
+        // act
+        articleWebService.getAllArticles(null, null, null, operationRequest, handler);
+
+        // assert
+        ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
+        verify(requestContext).handleSuccess(futureArgumentCaptor.capture());
+        OperationResponse operationResponse = futureArgumentCaptor.getValue();
+        assertEquals(304, (int)operationResponse.getStatusCode());
+        verify(articleRepository, never()).getPage(any(), any(), anyInt(), any(), any(Handler.class));
+    }
+
+    @Test
+    public void listETagChangesWhenAVersionChanges() {
+        // arrange
+        Article article = new Article();
+        article.setId("a");
+        article.setVersion(1);
+        Article updatedArticle = new Article();
+        updatedArticle.setId("a");
+        updatedArticle.setVersion(2);
+
+        // act
+        String eTag = ArticleWebServiceImpl.toListETag(new Page<>(Collections.singletonList(article), null), ArticleField.SUMMARY);
+        String updatedETag = ArticleWebServiceImpl.toListETag(new Page<>(Collections.singletonList(updatedArticle), null), ArticleField.SUMMARY);
+
+        // assert
+        assertNotEquals(eTag, updatedETag);
+    }
+
+    @Test
+    public void getArticlesByIdsReturnsResultsInRequestOrder() {
+        // arrange
+        mockGetPoolContextWithoutUser();
+        Article a = new Article();
+        a.setId("a");
+        Article b = new Article();
+        b.setId("b");
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<List<Article>>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.succeededFuture(Arrays.asList(a, b)));
+            return null;
+        }).when(articleRepository).getByIds(eq(sqlConnection), eq(Arrays.asList("b", "missing", "a")), any(Handler.class));
+
+        // act
+        articleWebService.getArticlesByIds(Arrays.asList("b", "missing", "a", "b"), operationRequest, handler);
+
+        // assert
+        ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
+        verify(requestContext).handleSuccess(futureArgumentCaptor.capture());
+        OperationResponse operationResponse = futureArgumentCaptor.getValue();
+        assertEquals(200, (int)operationResponse.getStatusCode());
+        JsonArray responseJson = new JsonArray(operationResponse.getPayload());
+        assertEquals(4, responseJson.size());
+        assertEquals("b", responseJson.getJsonObject(0).getJsonObject("article").getString("id"));
+        assertEquals("missing", responseJson.getJsonObject(1).getString("id"));
+        assertFalse(responseJson.getJsonObject(1).getBoolean("found"));
+        assertNull(responseJson.getJsonObject(1).getJsonObject("article"));
+        assertTrue(responseJson.getJsonObject(2).getBoolean("found"));
+        assertEquals("b", responseJson.getJsonObject(3).getString("id"));
+    }
+
     @Test
     public void insertArticleWhenItWorks() {
         // arrange
-        mockGetContextWithUser();
+        mockGetPoolContextWithUser();
         JsonObject body = new JsonObject();
         ArticleFormData article = new ArticleFormData();
         when(articleFormDataJsonMapper.fromJson(body)).thenReturn(article);
@@ -201,22 +632,12 @@ public class ArticleWebServiceImplTest {
     @Test
     public void updateArticleWhenItWorks() {
         // arrange
-        mockGetContextWithUser();
+        mockGetPoolContextWithUser();
         JsonObject body = new JsonObject();
         ArticleFormData articleFormData = new ArticleFormData();
         articleFormData.setId("id");
         when(articleFormDataJsonMapper.fromJson(body)).thenReturn(articleFormData);
-        Article article = new Article();
-        doAnswer(invocationOnMock -> {
-            Handler<AsyncResult<Article>> handler = invocationOnMock.getArgument(2);
-            handler.handle(Future.succeededFuture(article));
-            return null;
-        }).when(articleRepository).getById(eq(sqlConnection), eq(articleFormData.getId()), any(Handler.class));
-        doAnswer(invocationOnMock -> {
-            Handler<AsyncResult<Article>> handler = invocationOnMock.getArgument(2);
-            handler.handle(Future.succeededFuture());
-            return null;
-        }).when(articleRepository).update(eq(sqlConnection), any(Article.class), any(Handler.class));
+        mockUpdateIfVersion(null, new ConditionalUpdateResult(ConditionalUpdateResult.Status.UPDATED, 2));
 
         // act
         articleWebService.updateArticle(body, operationRequest, handler);
@@ -226,21 +647,20 @@ public class ArticleWebServiceImplTest {
         verify(requestContext).handleSuccess(futureArgumentCaptor.capture());
         OperationResponse operationResponse = futureArgumentCaptor.getValue();
         assertEquals(204, (int)operationResponse.getStatusCode());
+        assertEquals("\"2\"", operationResponse.getHeaders().get("ETag"));
+        verify(requestContextManager).recordWrite(eq(requestContext), any(Handler.class));
+        verify(articleRepository, never()).getById(any(), any(), any(Handler.class));
     }
 
     @Test
     public void updateArticleWhenArticleDoesntExist() {
         // arrange
-        mockGetContextWithUser();
+        mockGetPoolContextWithUser();
         JsonObject body = new JsonObject();
         ArticleFormData articleFormData = new ArticleFormData();
         articleFormData.setId("id");
         when(articleFormDataJsonMapper.fromJson(body)).thenReturn(articleFormData);
-        doAnswer(invocationOnMock -> {
-            Handler<AsyncResult<Article>> handler = invocationOnMock.getArgument(2);
-            handler.handle(Future.succeededFuture(null));
-            return null;
-        }).when(articleRepository).getById(eq(sqlConnection), eq(articleFormData.getId()), any(Handler.class));
+        mockUpdateIfVersion(null, new ConditionalUpdateResult(ConditionalUpdateResult.Status.NOT_FOUND, null));
 
         // act
         articleWebService.updateArticle(body, operationRequest, handler);
@@ -251,4 +671,156 @@ public class ArticleWebServiceImplTest {
         OperationResponse operationResponse = futureArgumentCaptor.getValue();
         assertEquals(404, (int)operationResponse.getStatusCode());
     }
+
+    @Test
+    public void updateArticleWhenIfMatchDoesntMatchCurrentVersion() {
+        // arrange
+        mockGetPoolContextWithUser();
+        JsonObject body = new JsonObject();
+        ArticleFormData articleFormData = new ArticleFormData();
+        articleFormData.setId("id");
+        articleFormData.setVersion(1);
+        when(articleFormDataJsonMapper.fromJson(body)).thenReturn(articleFormData);
+        headers.add("If-Match", "W/\"3\"");
+        mockUpdateIfVersion(3, new ConditionalUpdateResult(ConditionalUpdateResult.Status.VERSION_MISMATCH, 4));
+
+        // act
+        articleWebService.updateArticle(body, operationRequest, handler);
+
+        // assert
+        ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
+        verify(requestContext).handleSuccess(futureArgumentCaptor.capture());
+        OperationResponse operationResponse = futureArgumentCaptor.getValue();
+        assertEquals(412, (int)operationResponse.getStatusCode());
+        assertEquals("\"4\"", operationResponse.getHeaders().get("ETag"));
+        verify(requestContextManager, never()).recordWrite(any(), any());
+    }
+
+    @Test
+    public void updateArticleUsesVersionOfBodyWhenNoIfMatch() {
+        // arrange
+        mockGetPoolContextWithUser();
+        JsonObject body = new JsonObject();
+        ArticleFormData articleFormData = new ArticleFormData();
+        articleFormData.setId("id");
+        articleFormData.setVersion(1);
+        when(articleFormDataJsonMapper.fromJson(body)).thenReturn(articleFormData);
+        mockUpdateIfVersion(1, new ConditionalUpdateResult(ConditionalUpdateResult.Status.UPDATED, 2));
+
+        // act
+        articleWebService.updateArticle(body, operationRequest, handler);
+
+        // assert
+        ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
+        verify(requestContext).handleSuccess(futureArgumentCaptor.capture());
+        assertEquals(204, (int)futureArgumentCaptor.getValue().getStatusCode());
+    }
+
+    @Test
+    public void updateArticleWhenIfMatchIsMalformed() {
+        // arrange
+        mockGetPoolContextWithUser();
+        JsonObject body = new JsonObject();
+        when(articleFormDataJsonMapper.fromJson(body)).thenReturn(new ArticleFormData());
+        headers.add("If-Match", "not an etag");
+
+        // act
+        articleWebService.updateArticle(body, operationRequest, handler);
+
+        // assert
+        ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
+        verify(requestContext).handleSuccess(futureArgumentCaptor.capture());
+        assertEquals(412, (int)futureArgumentCaptor.getValue().getStatusCode());
+        verifyNoInteractions(articleRepository);
+    }
+
+    @Test
+    public void updateArticleWhenIfMatchIsMalformedAndUserIsNotAuthenticated() {
+        // arrange
+        // The request context manager answers 401 itself, without calling back
+        JsonObject body = new JsonObject();
+        headers.add("If-Match", "not an etag");
+
+        // act
+        articleWebService.updateArticle(body, operationRequest, handler);
+
+        // assert
+        verify(requestContextManager).getPoolContextWithUser(any(Handler.class));
+        verify(handler, never()).handle(any());
+        verifyNoInteractions(articleFormDataJsonMapper, articleRepository);
+    }
+
+    @Test
+    public void batchArticlesWhenItWorks() {
+        // arrange
+        JsonObject body = new JsonObject();
+        Transaction transaction = mockBatch(body);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Void>> handler = invocationOnMock.getArgument(0);
+            handler.handle(Future.succeededFuture());
+            return null;
+        }).when(transaction).commit(any(Handler.class));
+
+        // act
+        articleWebService.batchArticles(body, operationRequest, handler);
+
+        // assert
+        ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
+        verify(requestContext).handleSuccess(futureArgumentCaptor.capture());
+        OperationResponse operationResponse = futureArgumentCaptor.getValue();
+        assertEquals(200, (int)operationResponse.getStatusCode());
+        ArticleBatchResult result = new JsonObject(operationResponse.getPayload()).mapTo(ArticleBatchResult.class);
+        assertEquals("created", result.getInserted().get(0).getStatus());
+        assertEquals("alreadyExists", result.getInserted().get(1).getStatus());
+        assertEquals("updated", result.getUpdated().get(0).getStatus());
+        assertEquals(3, (int) result.getUpdated().get(0).getVersion());
+        assertEquals("notFound", result.getUpdated().get(1).getStatus());
+        verify(articleRepository).committed("new", null);
+        verify(articleRepository).committed("updated", 3);
+        verify(articleRepository, times(2)).committed(anyString(), any());
+    }
+
+    @Test
+    public void batchArticlesWhenCommitFails() {
+        // arrange
+        JsonObject body = new JsonObject();
+        Transaction transaction = mockBatch(body);
+        RuntimeException commitFailure = new RuntimeException("Connection closed");
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Void>> handler = invocationOnMock.getArgument(0);
+            handler.handle(Future.failedFuture(commitFailure));
+            return null;
+        }).when(transaction).commit(any(Handler.class));
+
+        // act
+        articleWebService.batchArticles(body, operationRequest, handler);
+
+        // assert
+        verify(requestContext).handleThrowable(commitFailure);
+        verify(requestContext, never()).handleSuccess(any());
+        verify(articleRepository, never()).committed(anyString(), any());
+    }
+
+    private Transaction mockBatch(JsonObject body) {
+        mockGetContextWithUser();
+        ArticleBatch articleBatch = new ArticleBatch();
+        articleBatch.getInsert().add(new ArticleFormData("new", "title", "content", null));
+        articleBatch.getInsert().add(new ArticleFormData("existing", "title", "content", null));
+        articleBatch.getUpdate().add(new ArticleFormData("updated", "title", "content", null));
+        articleBatch.getUpdate().add(new ArticleFormData("missing", "title", "content", null));
+        when(articleBatchJsonMapper.fromJson(body)).thenReturn(articleBatch);
+        Transaction transaction = mock(Transaction.class);
+        when(sqlConnection.begin()).thenReturn(transaction);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<List<Boolean>>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.succeededFuture(Arrays.asList(true, false)));
+            return null;
+        }).when(articleRepository).insertBatch(eq(transaction), any(List.class), any(Handler.class));
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<List<Integer>>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.succeededFuture(Arrays.asList(3, null)));
+            return null;
+        }).when(articleRepository).updateBatch(eq(transaction), any(List.class), any(Handler.class));
+        return transaction;
+    }
 }
@@ -0,0 +1,81 @@
+package com.jb.blog.webservices;
+
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class CompressionHandlerTest {
+    private RoutingContext routingContext;
+    private HttpServerResponse response;
+    private MultiMap headers;
+    private CompressionHandler compressionHandler;
+
+    @Before
+    public void setUp() {
+        routingContext = mock(RoutingContext.class);
+        response = mock(HttpServerResponse.class);
+        headers = MultiMap.caseInsensitiveMultiMap();
+        when(routingContext.response()).thenReturn(response);
+        when(response.headers()).thenReturn(headers);
+        compressionHandler = new CompressionHandler(1024, new HashSet<>(Arrays.asList("application/json")));
+    }
+
+    @Test
+    public void handleOptsOutSmallResponses() {
+        // arrange
+        headers.add("content-type", "application/json");
+        headers.add("content-length", "20");
+
+        // act
+        endHeaders();
+
+        // assert
+        verify(response).putHeader(HttpHeaders.CONTENT_ENCODING, HttpHeaders.IDENTITY);
+    }
+
+    @Test
+    public void handleOptsOutContentTypesNotInAllowList() {
+        // arrange
+        headers.add("content-type", "image/png");
+        headers.add("content-length", "100000");
+
+        // act
+        endHeaders();
+
+        // assert
+        verify(response).putHeader(HttpHeaders.CONTENT_ENCODING, HttpHeaders.IDENTITY);
+    }
+
+    @Test
+    public void handleLetsLargeAndChunkedJsonResponsesBeCompressed() {
+        // arrange
+        headers.add("content-type", "application/json; charset=utf-8");
+
+        // act
+        endHeaders();
+        headers.add("content-length", "100000");
+        endHeaders();
+
+        // assert
+        verify(response, never()).putHeader(any(CharSequence.class), any(CharSequence.class));
+        verify(routingContext, times(2)).next();
+    }
+
+    private void endHeaders() {
+        ArgumentCaptor<Handler<Void>> headersEndHandlerCaptor = ArgumentCaptor.forClass(Handler.class);
+        compressionHandler.handle(routingContext);
+        verify(routingContext, atLeastOnce()).addHeadersEndHandler(headersEndHandlerCaptor.capture());
+        headersEndHandlerCaptor.getValue().handle(null);
+    }
+}
@@ -4,6 +4,8 @@ import com.jb.blog.persistence.HttpSessionRepository;
 import com.jb.blog.persistence.user.UserRepository;
 import com.jb.blog.services.JsonMapper;
 import com.jb.blog.services.OperationRequestService;
+import com.jb.blog.services.PasswordHashingOverloadedException;
+import com.jb.blog.services.PasswordHashingService;
 import com.jb.blog.session.SessionConfiguration;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
@@ -38,6 +40,7 @@ public class HttpSessionWebServiceImplTest {
     JsonMapper<User> userJsonMapper;
     OperationRequestService operationRequestService;
     UserRepository userRepository;
+    PasswordHashingService passwordHashingService;
     JsonObject body;
     OperationRequest operationRequest;
     Handler<AsyncResult<OperationResponse>> handler;
@@ -58,6 +61,8 @@ public class HttpSessionWebServiceImplTest {
         userJsonMapper = mock(JsonMapper.class);
         operationRequestService = mock(OperationRequestService.class);
         userRepository = mock(UserRepository.class);
+        passwordHashingService = mock(PasswordHashingService.class);
+        mockVerifyPassword();
         handler = mock(Handler.class);
         operationResponseArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
         requestContext = mock(RequestContext.class);
@@ -65,6 +70,7 @@ public class HttpSessionWebServiceImplTest {
         requestContextManager = mock(RequestContextManager.class);
         requestContextManagerFactory = mock(RequestContextManagerFactory.class);
         when(requestContextManagerFactory.create(operationRequest, handler)).thenReturn(requestContextManager);
+        when(requestContextManagerFactory.createReadOnly(operationRequest, handler)).thenReturn(requestContextManager);
         user.setUsername("toto");
 
         httpSessionWebService = new HttpSessionWebServiceImpl(
@@ -74,11 +80,13 @@ public class HttpSessionWebServiceImplTest {
                 sessionConfiguration,
                 userJsonMapper,
                 operationRequestService,
-                userRepository);
+                userRepository,
+                passwordHashingService);
     }
 
     private void mockRequestContextWithConnection() {
         when(requestContext.getSqlConnection()).thenReturn(sqlConnection);
+        when(requestContext.getSqlClient()).thenReturn(sqlConnection);
         when(requestContext.createHandler(any(Handler.class))).thenAnswer(new Answer<Handler>() {
             @Override
             public Handler answer(InvocationOnMock invocationOnMock) throws Throwable {
@@ -93,7 +101,7 @@ public class HttpSessionWebServiceImplTest {
         });
     }
 
-    private void mockGetContextWithoutUser() {
+    private void mockGetPoolContextWithoutUser() {
         mockRequestContextWithConnection();
         doAnswer(new Answer() {
             @Override
@@ -102,10 +110,10 @@ public class HttpSessionWebServiceImplTest {
                 handler.handle(requestContext);
                 return null;
             }
-        }).when(requestContextManager).getContextWithoutUser(any(Handler.class));
+        }).when(requestContextManager).getPoolContextWithoutUser(any(Handler.class));
     }
 
-    private void mockGetContextWithUser() {
+    private void mockGetPoolContextWithUser() {
         mockRequestContextWithConnection();
         when(requestContext.getUser()).thenReturn(user);
         doAnswer(new Answer() {
@@ -115,14 +123,14 @@ public class HttpSessionWebServiceImplTest {
                 handler.handle(requestContext);
                 return null;
             }
-        }).when(requestContextManager).getContextWithUser(any(Handler.class));
+        }).when(requestContextManager).getPoolContextWithUser(any(Handler.class));
     }
 
 
     @Test
     public void loginWhenUserNotFound() {
         // arrange
-        mockGetContextWithoutUser();
+        mockGetPoolContextWithoutUser();
         LoginForm loginForm = mockLoginForm();
         mockGetUserById(sqlConnection, loginForm.getUsername(), Future.succeededFuture(null));
 
@@ -139,7 +147,7 @@ public class HttpSessionWebServiceImplTest {
     @Test
     public void loginWhenPasswordNotEqual() {
         // arrange
-        mockGetContextWithoutUser();
+        mockGetPoolContextWithoutUser();
         LoginForm loginForm = mockLoginForm();
         User user = new User();
         user.setPassword("different");
@@ -158,7 +166,7 @@ public class HttpSessionWebServiceImplTest {
     @Test
     public void loginWhenNoError() {
         // arrange
-        mockGetContextWithoutUser();
+        mockGetPoolContextWithoutUser();
         LoginForm loginForm = mockLoginForm();
         User user = new User();
         user.setPassword(loginForm.getPassword());
@@ -166,10 +174,8 @@ public class HttpSessionWebServiceImplTest {
         mockGetUserById(sqlConnection, loginForm.getUsername(), Future.succeededFuture(user));
         Session session = mockCreateSession();
         mockPutSession(session, Future.succeededFuture());
-        JsonObject userAsJson = mock(JsonObject.class);
         Buffer userAsJsonBuffer = mock(Buffer.class);
-        when(userAsJson.toBuffer()).thenReturn(userAsJsonBuffer);
-        when(userJsonMapper.toJson(user)).thenReturn(userAsJson);
+        when(userJsonMapper.toBuffer(new User(loginForm.getUsername(), null, null))).thenReturn(userAsJsonBuffer);
 
         // act
         httpSessionWebService.login(body, operationRequest, handler);
@@ -185,6 +191,61 @@ public class HttpSessionWebServiceImplTest {
         boolean match = headers.matches(regex);
         assertTrue(match);
         verify(session).put("username", user.getUsername());
+        verify(userRepository, never()).updatePassword(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void loginWhenPasswordHashingIsOverloaded() {
+        // arrange
+        mockGetPoolContextWithoutUser();
+        LoginForm loginForm = mockLoginForm();
+        mockGetUserById(sqlConnection, loginForm.getUsername(), Future.succeededFuture(new User("username", "hash", 0)));
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Boolean>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.failedFuture(new PasswordHashingOverloadedException()));
+            return null;
+        }).when(passwordHashingService).verify(any(), any(), any(Handler.class));
+
+        // act
+        httpSessionWebService.login(body, operationRequest, handler);
+
+        // assert
+        verify(requestContext).handleSuccess(operationResponseArgumentCaptor.capture());
+        OperationResponse operationResponse = operationResponseArgumentCaptor.getValue();
+        assertEquals(503, (int) operationResponse.getStatusCode());
+        assertEquals("1", operationResponse.getHeaders().get("Retry-After"));
+        verify(httpSessionRepository, never()).createSession();
+    }
+
+    @Test
+    public void loginUpgradesPasswordHash() {
+        // arrange
+        mockGetPoolContextWithoutUser();
+        LoginForm loginForm = mockLoginForm();
+        User user = new User(loginForm.getUsername(), loginForm.getPassword(), 0);
+        mockGetUserById(sqlConnection, loginForm.getUsername(), Future.succeededFuture(user));
+        Session session = mockCreateSession();
+        mockPutSession(session, Future.succeededFuture());
+        when(passwordHashingService.needsRehash(loginForm.getPassword())).thenReturn(true);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<String>> handler = invocationOnMock.getArgument(1);
+            handler.handle(Future.succeededFuture("new hash"));
+            return null;
+        }).when(passwordHashingService).hash(eq(loginForm.getPassword()), any(Handler.class));
+
+        // act
+        httpSessionWebService.login(body, operationRequest, handler);
+
+        // assert
+        verify(userRepository).updatePassword(
+                eq(sqlConnection),
+                eq(loginForm.getUsername()),
+                eq(loginForm.getPassword()),
+                eq("new hash"),
+                any(Handler.class)
+        );
+        verify(requestContext).handleSuccess(operationResponseArgumentCaptor.capture());
+        assertEquals(200, (int) operationResponseArgumentCaptor.getValue().getStatusCode());
     }
 
     private Session mockCreateSession() {
@@ -197,9 +258,9 @@ public class HttpSessionWebServiceImplTest {
     @Test
     public void getCurrentAuthenticatedUserWhenNoError() {
         // arrange
-        mockGetContextWithUser();
-        JsonObject responseJson = new JsonObject();
-        when(userJsonMapper.toJson(user)).thenReturn(responseJson);
+        mockGetPoolContextWithUser();
+        Buffer responseJson = new JsonObject().toBuffer();
+        when(userJsonMapper.toBuffer(user)).thenReturn(responseJson);
 
         // act
         httpSessionWebService.getCurrentAuthenticatedUser(operationRequest, handler);
@@ -208,7 +269,7 @@ public class HttpSessionWebServiceImplTest {
         ArgumentCaptor<OperationResponse> futureArgumentCaptor = ArgumentCaptor.forClass(OperationResponse.class);
         verify(requestContext).handleSuccess(futureArgumentCaptor.capture());
         OperationResponse operationResponse = futureArgumentCaptor.getValue();
-        assertEquals(responseJson.toBuffer(), operationResponse.getPayload());
+        assertEquals(responseJson, operationResponse.getPayload());
     }
 
     @Test
@@ -224,6 +285,19 @@ public class HttpSessionWebServiceImplTest {
         }).when(userRepository).getUserById(eq(connection), eq(username), any(Handler.class));
     }
 
+    /**
+     * The stored "hash" of the users of these tests is their password
+     */
+    private void mockVerifyPassword() {
+        doAnswer(invocationOnMock -> {
+            String password = invocationOnMock.getArgument(0);
+            String passwordHash = invocationOnMock.getArgument(1);
+            Handler<AsyncResult<Boolean>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.succeededFuture(password.equals(passwordHash)));
+            return null;
+        }).when(passwordHashingService).verify(any(), any(), any(Handler.class));
+    }
+
     private LoginForm mockLoginForm() {
         LoginForm loginForm = new LoginForm();
         loginForm.setUsername("username");
@@ -1,12 +1,13 @@
 package com.jb.blog.webservices;
 
 import com.jb.blog.persistence.HttpSessionRepository;
+import com.jb.blog.persistence.ReplicaRouter;
 import com.jb.blog.persistence.user.UserRepository;
 import com.jb.blog.services.JsonMapper;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
-import io.vertx.core.http.impl.ServerCookie;
+import io.vertx.core.http.Cookie;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Session;
 import io.vertx.ext.web.api.OperationRequest;
@@ -29,6 +30,7 @@ public class RequestContextManagerTest {
     private PgPool pgPool;
     private HttpSessionRepository httpSessionRepository;
     private UserRepository userRepository;
+    private ReplicaRouter replicaRouter;
     private Handler<AsyncResult<OperationResponse>> operationResponseHandler;
     private RequestContextManager requestContextManager;
     private Handler<RequestContext> handler;
@@ -45,7 +47,16 @@ public class RequestContextManagerTest {
         httpSessionRepository = mock(HttpSessionRepository.class);
         userRepository = mock(UserRepository.class);
         operationResponseHandler = mock(Handler.class);
-        requestContextManager = new RequestContextManager(operationRequest, pgPool, httpSessionRepository, userRepository, operationResponseHandler);
+        replicaRouter = mock(ReplicaRouter.class);
+        requestContextManager = new RequestContextManager(
+                operationRequest,
+                pgPool,
+                httpSessionRepository,
+                userRepository,
+                operationResponseHandler,
+                replicaRouter,
+                false
+        );
     }
 
     @Test
@@ -72,7 +83,7 @@ public class RequestContextManagerTest {
     public void getContextWithUserWhenNoSessionButCookie() {
         // arrange
         mockGetSessionFromOperationRequest(Future.succeededFuture(null));
-        ServerCookie cookie = mockRequestCookies();
+        Cookie cookie = mockRequestCookies();
 
         // act
         requestContextManager.getContextWithUser(handler);
@@ -84,14 +95,13 @@ public class RequestContextManagerTest {
         OperationResponse operationResponse = future.result();
         assertEquals(401, (int)operationResponse.getStatusCode());
         assertEquals("Set-Cookie: " + cookie.encode() + "\n", operationResponse.getHeaders().toString());
-        verify(cookie).setMaxAge(0);
+        verify(httpSessionRepository).createLogoutCookie("sessionid");
+        // the session cookie is looked up once for the session and the logout response
+        verify(httpSessionRepository, times(1)).getSessionId(operationRequest);
     }
 
     @Test
     public void getCurrentAuthenticatedUserWhenNoSessionAndNoCookie() {
-        // arrange
-        mockGetSessionFromOperationRequest(Future.succeededFuture(null));
-
         // act
         requestContextManager.getContextWithUser(handler);
 
@@ -102,6 +112,7 @@ public class RequestContextManagerTest {
         OperationResponse operationResponse = future.result();
         assertEquals(401, (int)operationResponse.getStatusCode());
         assertEquals("", operationResponse.getHeaders().toString());
+        verify(httpSessionRepository, never()).get(any(), any(Handler.class));
     }
 
     @Test
@@ -152,7 +163,7 @@ public class RequestContextManagerTest {
             handler.handle(Future.succeededFuture());
             return null;
         }).when(httpSessionRepository).delete(eq(session), any(Handler.class));
-        ServerCookie cookie = mockRequestCookies();
+        Cookie cookie = mockRequestCookies();
 
         // act
         requestContextManager.getContextWithUser(handler);
@@ -165,7 +176,7 @@ public class RequestContextManagerTest {
         assertEquals(401, (int)operationResponse.getStatusCode());
         verify(connection).close();
         assertEquals("Set-Cookie: " + cookie.encode() + "\n", operationResponse.getHeaders().toString());
-        verify(cookie).setMaxAge(0);
+        verify(httpSessionRepository).createLogoutCookie("sessionid");
     }
 
     @Test
@@ -218,6 +229,184 @@ public class RequestContextManagerTest {
         assertSame(operationResponseHandler, requestContext.getOperationResponseHandler());
     }
 
+    @Test
+    public void getPoolContextWithUserWhenNoError() {
+        // arrange
+        String username = "username";
+        Session session = mockSuccessfulGetSessionFromOperationRequest(username);
+        User user = new User();
+        user.setUsername(username);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<User>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.succeededFuture(user));
+            return null;
+        }).when(userRepository).getUserById(eq(pgPool), eq(username), any(Handler.class));
+
+        // act
+        requestContextManager.getPoolContextWithUser(handler);
+
+        // assert
+        ArgumentCaptor<RequestContext> requestContextArgumentCaptor = ArgumentCaptor.forClass(RequestContext.class);
+        verify(handler).handle(requestContextArgumentCaptor.capture());
+        RequestContext requestContext = requestContextArgumentCaptor.getValue();
+        assertSame(pgPool, requestContext.getSqlClient());
+        assertNull(requestContext.getSqlConnection());
+        assertSame(session, requestContext.getSession());
+        assertSame(user, requestContext.getUser());
+        verify(pgPool, never()).getConnection(any(Handler.class));
+    }
+
+    @Test
+    public void getPoolContextWithUserWhenExceptionWhenGettingUserOfSession() {
+        // arrange
+        String username = "username";
+        mockSuccessfulGetSessionFromOperationRequest(username);
+        Exception exception = new RuntimeException();
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<User>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.failedFuture(exception));
+            return null;
+        }).when(userRepository).getUserById(eq(pgPool), eq(username), any(Handler.class));
+
+        // act
+        requestContextManager.getPoolContextWithUser(handler);
+
+        // assert
+        verify(operationResponseHandler).handle(operationResponseArgumentCaptor.capture());
+        Future<OperationResponse> future = operationResponseArgumentCaptor.getValue();
+        assertTrue(future.failed());
+        assertSame(exception, future.cause());
+        verify(handler, never()).handle(any());
+    }
+
+    @Test
+    public void getPoolContextWithoutUserWhenReadOnlyUsesReplicaThatHasTheLastWriteOfTheSession() {
+        // arrange
+        RequestContextManager readOnlyRequestContextManager = createReadOnlyRequestContextManager();
+        when(replicaRouter.hasReplicas()).thenReturn(true);
+        Session session = mockSuccessfulGetSessionFromOperationRequest("username");
+        when(session.get(ReplicaRouter.WRITE_LSN_SESSION_KEY)).thenReturn(42L);
+        PgPool replica = mock(PgPool.class);
+        when(replicaRouter.getReadClient(42L)).thenReturn(replica);
+
+        // act
+        readOnlyRequestContextManager.getPoolContextWithoutUser(handler);
+
+        // assert
+        ArgumentCaptor<RequestContext> requestContextArgumentCaptor = ArgumentCaptor.forClass(RequestContext.class);
+        verify(handler).handle(requestContextArgumentCaptor.capture());
+        assertSame(replica, requestContextArgumentCaptor.getValue().getSqlClient());
+    }
+
+    @Test
+    public void getPoolContextWithUserWhenReadOnlyLoadsUserFromReplica() {
+        // arrange
+        RequestContextManager readOnlyRequestContextManager = createReadOnlyRequestContextManager();
+        String username = "username";
+        Session session = mockSuccessfulGetSessionFromOperationRequest(username);
+        when(session.get(ReplicaRouter.WRITE_LSN_SESSION_KEY)).thenReturn(null);
+        PgPool replica = mock(PgPool.class);
+        when(replicaRouter.getReadClient(null)).thenReturn(replica);
+        User user = new User();
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<User>> handler = invocationOnMock.getArgument(2);
+            handler.handle(Future.succeededFuture(user));
+            return null;
+        }).when(userRepository).getUserById(eq(replica), eq(username), any(Handler.class));
+
+        // act
+        readOnlyRequestContextManager.getPoolContextWithUser(handler);
+
+        // assert
+        ArgumentCaptor<RequestContext> requestContextArgumentCaptor = ArgumentCaptor.forClass(RequestContext.class);
+        verify(handler).handle(requestContextArgumentCaptor.capture());
+        assertSame(replica, requestContextArgumentCaptor.getValue().getSqlClient());
+        assertSame(user, requestContextArgumentCaptor.getValue().getUser());
+    }
+
+    @Test
+    public void recordWriteStoresWriteLsnInSession() {
+        // arrange
+        Session session = mock(Session.class);
+        RequestContext requestContext = new RequestContext(pgPool, null, session, new User(), operationResponseHandler);
+        when(replicaRouter.hasReplicas()).thenReturn(true);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Long>> handler = invocationOnMock.getArgument(0);
+            handler.handle(Future.succeededFuture(42L));
+            return null;
+        }).when(replicaRouter).getWriteLsn(any(Handler.class));
+        mockPutSession(session, Future.succeededFuture());
+        Handler<Void> recordWriteHandler = mock(Handler.class);
+
+        // act
+        requestContextManager.recordWrite(requestContext, recordWriteHandler);
+
+        // assert
+        verify(session).put(ReplicaRouter.WRITE_LSN_SESSION_KEY, 42L);
+        verify(httpSessionRepository).putSession(eq(session), any(Handler.class));
+        verify(recordWriteHandler).handle(null);
+    }
+
+    @Test
+    public void recordWriteRetriesOnCurrentSessionWhenPutFails() {
+        // arrange
+        Session session = mock(Session.class);
+        when(session.id()).thenReturn("id");
+        Session currentSession = mock(Session.class);
+        when(currentSession.get(ReplicaRouter.WRITE_LSN_SESSION_KEY)).thenReturn(41L);
+        RequestContext requestContext = new RequestContext(pgPool, null, session, new User(), operationResponseHandler);
+        when(replicaRouter.hasReplicas()).thenReturn(true);
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Long>> handler = invocationOnMock.getArgument(0);
+            handler.handle(Future.succeededFuture(42L));
+            return null;
+        }).when(replicaRouter).getWriteLsn(any(Handler.class));
+        mockPutSession(session, Future.failedFuture("Version mismatch"));
+        doAnswer(invocationOnMock -> {
+            Handler<AsyncResult<Session>> handler = invocationOnMock.getArgument(1);
+            handler.handle(Future.succeededFuture(currentSession));
+            return null;
+        }).when(httpSessionRepository).get(eq("id"), any(Handler.class));
+        mockPutSession(currentSession, Future.succeededFuture());
+        Handler<Void> recordWriteHandler = mock(Handler.class);
+
+        // act
+        requestContextManager.recordWrite(requestContext, recordWriteHandler);
+
+        // assert
+        verify(currentSession).put(ReplicaRouter.WRITE_LSN_SESSION_KEY, 42L);
+        verify(recordWriteHandler).handle(null);
+        verify(operationResponseHandler, never()).handle(any());
+    }
+
+    @Test
+    public void recordWriteWhenNoReplicas() {
+        // arrange
+        Session session = mock(Session.class);
+        RequestContext requestContext = new RequestContext(pgPool, null, session, new User(), operationResponseHandler);
+        Handler<Void> recordWriteHandler = mock(Handler.class);
+
+        // act
+        requestContextManager.recordWrite(requestContext, recordWriteHandler);
+
+        // assert
+        verify(recordWriteHandler).handle(null);
+        verifyNoInteractions(session);
+        verify(replicaRouter, never()).getWriteLsn(any(Handler.class));
+    }
+
+    private RequestContextManager createReadOnlyRequestContextManager() {
+        return new RequestContextManager(
+                operationRequest,
+                pgPool,
+                httpSessionRepository,
+                userRepository,
+                operationResponseHandler,
+                replicaRouter,
+                true
+        );
+    }
+
     private void mockPutSession(Session session, AsyncResult<Void> result) {
         doAnswer(invocationOnMock -> {
             Handler<AsyncResult<Void>> handler = invocationOnMock.getArgument(1);
@@ -227,21 +416,18 @@ public class RequestContextManagerTest {
     }
 
     private void mockGetSessionFromOperationRequest(AsyncResult<Session> result) {
+        when(httpSessionRepository.getSessionId(operationRequest)).thenReturn("sessionid");
         doAnswer(invocationOnMock -> {
             Handler<AsyncResult<Session>> handler = invocationOnMock.getArgument(1);
             handler.handle(result);
             return null;
-        }).when(httpSessionRepository).getFromOperationRequest(eq(operationRequest), any(Handler.class));
+        }).when(httpSessionRepository).get(eq("sessionid"), any(Handler.class));
     }
 
     private Session mockSuccessfulGetSessionFromOperationRequest(String username) {
         Session session = mock(Session.class);
         when(session.get("username")).thenReturn(username);
-        doAnswer(invocationOnMock -> {
-            Handler<AsyncResult<Session>> handler = invocationOnMock.getArgument(1);
-            handler.handle(Future.succeededFuture(session));
-            return null;
-        }).when(httpSessionRepository).getFromOperationRequest(eq(operationRequest), any(Handler.class));
+        mockGetSessionFromOperationRequest(Future.succeededFuture(session));
         return session;
     }
 
@@ -272,11 +458,11 @@ public class RequestContextManagerTest {
         return exception;
     }
 
-    private ServerCookie mockRequestCookies() {
-        ServerCookie serverCookie = mock(ServerCookie.class);
+    private Cookie mockRequestCookies() {
+        Cookie cookie = mock(Cookie.class);
         String cookieAsString = "toto";
-        when(serverCookie.encode()).thenReturn(cookieAsString);
-        when(httpSessionRepository.getSessionCookie(operationRequest)).thenReturn(serverCookie);
-        return serverCookie;
+        when(cookie.encode()).thenReturn(cookieAsString);
+        when(httpSessionRepository.createLogoutCookie("sessionid")).thenReturn(cookie);
+        return cookie;
     }
 }
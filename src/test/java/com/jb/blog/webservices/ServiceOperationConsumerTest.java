@@ -0,0 +1,72 @@
+package com.jb.blog.webservices;
+
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.eventbus.Message;
+import io.vertx.ext.web.api.OperationRequest;
+import io.vertx.ext.web.api.OperationResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+public class ServiceOperationConsumerTest {
+    private Message<OperationRequest> message;
+    private OperationRequest operationRequest;
+    private Map<String, ServiceOperation> operations;
+    private ServiceOperationConsumer consumer;
+
+    @Before
+    public void setUp() {
+        message = mock(Message.class);
+        operationRequest = new OperationRequest();
+        operations = new HashMap<>();
+        when(message.body()).thenReturn(operationRequest);
+        when(message.headers()).thenReturn(MultiMap.caseInsensitiveMultiMap().add("action", "getArticleById"));
+        consumer = new ServiceOperationConsumer(operations);
+    }
+
+    @Test
+    public void handleRepliesWithOperationResponse() {
+        // arrange
+        OperationResponse operationResponse = new OperationResponse().setStatusCode(200);
+        operations.put("getArticleById", (request, handler) -> {
+            if (request == operationRequest) {
+                handler.handle(Future.succeededFuture(operationResponse));
+            }
+        });
+
+        // act
+        consumer.handle(message);
+
+        // assert
+        verify(message).reply(operationResponse);
+    }
+
+    @Test
+    public void handleWhenOperationFails() {
+        // arrange
+        operations.put("getArticleById", (request, handler) ->
+                handler.handle(Future.failedFuture(new RuntimeException("error")))
+        );
+
+        // act
+        consumer.handle(message);
+
+        // assert
+        verify(message).fail(500, "error");
+    }
+
+    @Test
+    public void handleWhenActionIsUnknown() {
+        // act
+        consumer.handle(message);
+
+        // assert
+        verify(message).fail(anyInt(), anyString());
+        verify(message, never()).reply(any());
+    }
+}
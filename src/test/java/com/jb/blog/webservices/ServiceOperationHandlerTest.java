@@ -0,0 +1,108 @@
+package com.jb.blog.webservices;
+
+import com.jb.blog.Holder;
+import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.api.OperationRequest;
+import io.vertx.ext.web.api.OperationResponse;
+import io.vertx.ext.web.api.RequestParameters;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ServiceOperationHandlerTest {
+    private RoutingContext routingContext;
+    private HttpServerResponse response;
+    private MultiMap headers;
+    private JsonObject params;
+
+    @Before
+    public void setUp() {
+        routingContext = mock(RoutingContext.class);
+        response = mock(HttpServerResponse.class);
+        HttpServerRequest request = mock(HttpServerRequest.class);
+        RequestParameters requestParameters = mock(RequestParameters.class);
+        headers = MultiMap.caseInsensitiveMultiMap().add("If-None-Match", "\"1\"");
+        params = new JsonObject().put("path", new JsonObject().put("id", "a"));
+        when(routingContext.get("parsedParameters")).thenReturn(requestParameters);
+        when(routingContext.request()).thenReturn(request);
+        when(routingContext.response()).thenReturn(response);
+        when(request.headers()).thenReturn(headers);
+        when(requestParameters.toJson()).thenReturn(params);
+    }
+
+    @Test
+    public void handlePassesParamsAndHeadersToService() {
+        // arrange
+        Holder<OperationRequest> holder = new Holder<>();
+        ServiceOperationHandler handler = new ServiceOperationHandler((operationRequest, resultHandler) ->
+                holder.value = operationRequest
+        );
+
+        // act
+        handler.handle(routingContext);
+
+        // assert
+        assertEquals(params, holder.value.getParams());
+        assertEquals("\"1\"", holder.value.getHeaders().get("if-none-match"));
+    }
+
+    @Test
+    public void handleWritesOperationResponse() {
+        // arrange
+        Buffer payload = Buffer.buffer("{}");
+        OperationResponse operationResponse = new OperationResponse()
+                .setStatusCode(201)
+                .putHeader("ETag", "\"2\"")
+                .setPayload(payload);
+        ServiceOperationHandler handler = new ServiceOperationHandler((operationRequest, resultHandler) ->
+                resultHandler.handle(Future.succeededFuture(operationResponse))
+        );
+
+        // act
+        handler.handle(routingContext);
+
+        // assert
+        verify(response).setStatusCode(201);
+        verify(response).putHeader("ETag", "\"2\"");
+        verify(response).end(payload);
+    }
+
+    @Test
+    public void handleWhenServiceFails() {
+        // arrange
+        Exception exception = new RuntimeException();
+        ServiceOperationHandler handler = new ServiceOperationHandler((operationRequest, resultHandler) ->
+                resultHandler.handle(Future.failedFuture(exception))
+        );
+
+        // act
+        handler.handle(routingContext);
+
+        // assert
+        verify(routingContext).fail(exception);
+        verifyNoInteractions(response);
+    }
+
+    @Test
+    public void handleWhenServiceThrows() {
+        // arrange
+        RuntimeException exception = new RuntimeException();
+        ServiceOperationHandler handler = new ServiceOperationHandler((operationRequest, resultHandler) -> {
+            throw exception;
+        });
+
+        // act
+        handler.handle(routingContext);
+
+        // assert
+        verify(routingContext).fail(exception);
+    }
+}
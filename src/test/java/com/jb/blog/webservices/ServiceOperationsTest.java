@@ -0,0 +1,118 @@
+package com.jb.blog.webservices;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.vertx.core.MultiMap;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.api.OperationRequest;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.invocation.Invocation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The operations are mapped by hand, these tests check them against the operations of openapi.yaml,
+ * so that an operation added to the spec but not to ServiceOperations fails the build rather than the requests.
+ */
+public class ServiceOperationsTest {
+    private static Map<String, Set<String>> operationIdsByAddress;
+
+    @BeforeClass
+    public static void readSpec() throws IOException {
+        JsonNode spec;
+        try (InputStream inputStream = ServiceOperationsTest.class.getResourceAsStream("/openapi.yaml")) {
+            spec = new ObjectMapper(new YAMLFactory()).readTree(inputStream);
+        }
+        operationIdsByAddress = new HashMap<>();
+        for (JsonNode pathItem : spec.get("paths")) {
+            for (JsonNode operation : pathItem) {
+                JsonNode address = operation.get("x-vertx-event-bus");
+                if (address != null) {
+                    operationIdsByAddress.computeIfAbsent(address.asText(), key -> new HashSet<>())
+                            .add(operation.get("operationId").asText());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void specHasNoOtherService() {
+        assertEquals(
+                new HashSet<>(Arrays.asList("article_service", "session_service", "user_service")),
+                operationIdsByAddress.keySet()
+        );
+    }
+
+    @Test
+    public void articleServiceOperationsMatchSpec() {
+        ArticleWebService service = mock(ArticleWebService.class);
+        assertOperationsMatchSpec("article_service", ArticleWebService.class, service, ServiceOperations.of(service));
+    }
+
+    @Test
+    public void sessionServiceOperationsMatchSpec() {
+        HttpSessionWebService service = mock(HttpSessionWebService.class);
+        assertOperationsMatchSpec(
+                "session_service",
+                HttpSessionWebService.class,
+                service,
+                ServiceOperations.of(service)
+        );
+    }
+
+    @Test
+    public void userServiceOperationsMatchSpec() {
+        UserWebService service = mock(UserWebService.class);
+        assertOperationsMatchSpec("user_service", UserWebService.class, service, ServiceOperations.of(service));
+    }
+
+    /**
+     * Each operation of the spec must be in the map, which mountDirect() and ServiceOperationConsumer use,
+     * and be a method of the interface, which mountEventBus() uses. Each operation must call its own method.
+     */
+    private static void assertOperationsMatchSpec(
+            String address,
+            Class<?> serviceInterface,
+            Object service,
+            Map<String, ServiceOperation> operations
+    ) {
+        Set<String> operationIds = operationIdsByAddress.get(address);
+        assertEquals(operationIds, operations.keySet());
+        Set<String> methodNames = new HashSet<>();
+        for (Method method : serviceInterface.getMethods()) {
+            methodNames.add(method.getName());
+        }
+        assertEquals(operationIds, methodNames);
+
+        // Like the parameters of a request without any
+        JsonObject params = new JsonObject()
+                .put("path", new JsonObject())
+                .put("query", new JsonObject())
+                .put("header", new JsonObject())
+                .put("cookie", new JsonObject())
+                .put("form", new JsonObject());
+        operations.forEach((operationId, operation) -> {
+            clearInvocations(service);
+            OperationRequest request = new OperationRequest(params, MultiMap.caseInsensitiveMultiMap(), null, null);
+            operation.invoke(request, operationResult -> { });
+            Collection<Invocation> invocations = mockingDetails(service).getInvocations();
+            Iterator<Invocation> iterator = invocations.iterator();
+            assertEquals(operationId, 1, invocations.size());
+            assertEquals(operationId, iterator.next().getMethod().getName());
+        });
+    }
+}
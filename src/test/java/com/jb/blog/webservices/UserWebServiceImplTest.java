@@ -2,6 +2,8 @@ package com.jb.blog.webservices;
 
 import com.jb.blog.persistence.user.UserRepository;
 import com.jb.blog.services.JsonMapper;
+import com.jb.blog.services.PasswordHashingOverloadedException;
+import com.jb.blog.services.PasswordHashingService;
 import com.jb.blog.services.RegistrationFormService;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
@@ -10,8 +12,6 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.api.OperationRequest;
 import io.vertx.ext.web.api.OperationResponse;
 import io.vertx.pgclient.PgPool;
-import io.vertx.sqlclient.SqlClient;
-import io.vertx.sqlclient.SqlConnection;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -31,6 +31,7 @@ public class UserWebServiceImplTest {
     Handler<AsyncResult<OperationResponse>> handler;
     ArgumentCaptor<Future<OperationResponse>> futureArgumentCaptor;
     RegistrationFormService registrationFormService;
+    PasswordHashingService passwordHashingService;
 
     @Before
     public void before() {
@@ -38,51 +39,30 @@ public class UserWebServiceImplTest {
         userRepository = mock(UserRepository.class);
         registrationFormJsonMapper = mock(JsonMapper.class);
         registrationFormService = mock(RegistrationFormService.class);
+        passwordHashingService = mock(PasswordHashingService.class);
+        mockHashPassword(Future.succeededFuture("hash"));
         userWebService = new UserWebServiceImpl(
                 pgPool,
                 userRepository,
                 registrationFormJsonMapper,
-                registrationFormService
+                registrationFormService,
+                passwordHashingService
         );
         operationRequest = mock(OperationRequest.class);
         handler = mock(Handler.class);
         futureArgumentCaptor = ArgumentCaptor.forClass(Future.class);
     }
 
-    @Test
-    public void registerWhenExceptionWhenGettingConnection() {
-        // arrange
-        Exception exception = new RuntimeException();
-        doAnswer(invocationOnMock -> {
-            Handler<AsyncResult<SqlConnection>> handler = invocationOnMock.getArgument(0);
-            handler.handle(Future.failedFuture(exception));
-            return null;
-        }).when(pgPool).getConnection(any(Handler.class));
-
-        // act
-        userWebService.register(body, operationRequest, handler);
-
-        // assert
-        verify(handler).handle(futureArgumentCaptor.capture());
-        Future<OperationResponse> future = futureArgumentCaptor.getValue();
-        assertSame(exception, future.cause());
-    }
-
     @Test
     public void registerWhenExceptionWhenGettingUserWithSameUsername() {
         // arrange
         Exception exception = new RuntimeException();
-        SqlConnection sqlConnection = mock(SqlConnection.class);
-        mockGettingConnection(sqlConnection);
-        RegistrationForm registrationForm = new RegistrationForm();
-        registrationForm.setUsername("username");
-
-        when(registrationFormJsonMapper.fromJson(body)).thenReturn(registrationForm);
+        RegistrationForm registrationForm = mockRegistrationForm();
         doAnswer(invocationOnMock -> {
             Handler<AsyncResult<User>> handler = invocationOnMock.getArgument(2);
             handler.handle(Future.failedFuture(exception));
             return null;
-        }).when(userRepository).getUserById(eq(sqlConnection), eq(registrationForm.getUsername()), any(Handler.class));
+        }).when(userRepository).getUserById(eq(pgPool), eq(registrationForm.getUsername()), any(Handler.class));
 
         // act
         userWebService.register(body, operationRequest, handler);
@@ -91,22 +71,19 @@ public class UserWebServiceImplTest {
         verify(handler).handle(futureArgumentCaptor.capture());
         Future<OperationResponse> future = futureArgumentCaptor.getValue();
         assertSame(exception, future.cause());
-        verify(sqlConnection).close();
+        verify(passwordHashingService, never()).hash(any(), any(Handler.class));
     }
 
     @Test
     public void registerWhenUserWithSameUsernameIsNotNull() {
         // arrange
-        SqlConnection sqlConnection = mock(SqlConnection.class);
-        mockGettingConnection(sqlConnection);
-
         RegistrationForm registrationForm = mockRegistrationForm();
         User user = new User();
         doAnswer(invocationOnMock -> {
             Handler<AsyncResult<User>> handler = invocationOnMock.getArgument(2);
             handler.handle(Future.succeededFuture(user));
             return null;
-        }).when(userRepository).getUserById(eq(sqlConnection), eq(registrationForm.getUsername()), any(Handler.class));
+        }).when(userRepository).getUserById(eq(pgPool), eq(registrationForm.getUsername()), any(Handler.class));
 
         // act
         userWebService.register(body, operationRequest, handler);
@@ -117,24 +94,23 @@ public class UserWebServiceImplTest {
         assertTrue(future.succeeded());
         OperationResponse operationResponse = future.result();
         assertEquals(400, (int)operationResponse.getStatusCode());
-        verify(sqlConnection).close();
+        verify(passwordHashingService, never()).hash(any(), any(Handler.class));
+        verify(userRepository, never()).insert(any(), any(), any(Handler.class));
     }
 
     @Test
     public void registerWhenExceptionWhenInsertingNewUser() {
         // arrange
         Exception exception = new RuntimeException();
-        SqlConnection sqlConnection = mock(SqlConnection.class);
-        mockGettingConnection(sqlConnection);
         RegistrationForm registrationForm = mockRegistrationForm();
         mockGettingUserReturnsNull(registrationForm.getUsername());
         User user = new User();
-        when(registrationFormService.toUser(registrationForm)).thenReturn(user);
+        when(registrationFormService.toUser(registrationForm, "hash")).thenReturn(user);
         doAnswer(invocationOnMock -> {
-            Handler<AsyncResult<SqlConnection>> handler = invocationOnMock.getArgument(2);
+            Handler<AsyncResult<Void>> handler = invocationOnMock.getArgument(2);
             handler.handle(Future.failedFuture(exception));
             return null;
-        }).when(userRepository).insert(any(SqlClient.class), eq(user), any(Handler.class));
+        }).when(userRepository).insert(eq(pgPool), eq(user), any(Handler.class));
 
         // act
         userWebService.register(body, operationRequest, handler);
@@ -143,24 +119,20 @@ public class UserWebServiceImplTest {
         verify(handler).handle(futureArgumentCaptor.capture());
         Future<OperationResponse> future = futureArgumentCaptor.getValue();
         assertSame(exception, future.cause());
-        verify(sqlConnection).close();
     }
 
     @Test
     public void registerWhenNoError() {
         // arrange
-        Exception exception = new RuntimeException();
-        SqlConnection sqlConnection = mock(SqlConnection.class);
-        mockGettingConnection(sqlConnection);
         RegistrationForm registrationForm = mockRegistrationForm();
         mockGettingUserReturnsNull(registrationForm.getUsername());
         User user = new User();
-        when(registrationFormService.toUser(registrationForm)).thenReturn(user);
+        when(registrationFormService.toUser(registrationForm, "hash")).thenReturn(user);
         doAnswer(invocationOnMock -> {
-            Handler<AsyncResult<SqlConnection>> handler = invocationOnMock.getArgument(2);
+            Handler<AsyncResult<Void>> handler = invocationOnMock.getArgument(2);
             handler.handle(Future.succeededFuture());
             return null;
-        }).when(userRepository).insert(any(SqlClient.class), eq(user), any(Handler.class));
+        }).when(userRepository).insert(eq(pgPool), eq(user), any(Handler.class));
 
         // act
         userWebService.register(body, operationRequest, handler);
@@ -171,15 +143,32 @@ public class UserWebServiceImplTest {
         assertTrue(future.succeeded());
         OperationResponse operationResponse = future.result();
         assertEquals(204, (int)operationResponse.getStatusCode());
-        verify(sqlConnection).close();
+        verify(pgPool, never()).getConnection(any(Handler.class));
+    }
+
+    @Test
+    public void registerWhenPasswordHashingIsOverloaded() {
+        // arrange
+        RegistrationForm registrationForm = mockRegistrationForm();
+        mockGettingUserReturnsNull(registrationForm.getUsername());
+        mockHashPassword(Future.failedFuture(new PasswordHashingOverloadedException()));
+
+        // act
+        userWebService.register(body, operationRequest, handler);
+
+        // assert
+        verify(handler).handle(futureArgumentCaptor.capture());
+        OperationResponse operationResponse = futureArgumentCaptor.getValue().result();
+        assertEquals(503, (int) operationResponse.getStatusCode());
+        verify(userRepository, never()).insert(any(), any(), any(Handler.class));
     }
 
-    private void mockGettingConnection(SqlConnection sqlConnection) {
+    private void mockHashPassword(AsyncResult<String> hashResult) {
         doAnswer(invocationOnMock -> {
-            Handler<AsyncResult<SqlConnection>> handler = invocationOnMock.getArgument(0);
-            handler.handle(Future.succeededFuture(sqlConnection));
+            Handler<AsyncResult<String>> handler = invocationOnMock.getArgument(1);
+            handler.handle(hashResult);
             return null;
-        }).when(pgPool).getConnection(any(Handler.class));
+        }).when(passwordHashingService).hash(any(), any(Handler.class));
     }
 
     private void mockGettingUserReturnsNull(String username) {
@@ -187,7 +176,7 @@ public class UserWebServiceImplTest {
             Handler<AsyncResult<User>> handler = invocationOnMock.getArgument(2);
             handler.handle(Future.succeededFuture(null));
             return null;
-        }).when(userRepository).getUserById(any(SqlClient.class), eq(username), any(Handler.class));
+        }).when(userRepository).getUserById(eq(pgPool), eq(username), any(Handler.class));
     }
 
     private RegistrationForm mockRegistrationForm() {
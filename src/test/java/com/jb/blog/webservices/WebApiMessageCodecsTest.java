@@ -0,0 +1,91 @@
+package com.jb.blog.webservices;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.api.OperationRequest;
+import io.vertx.ext.web.api.OperationResponse;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WebApiMessageCodecsTest {
+    @Test
+    public void operationRequestCodecRoundTrip() {
+        // arrange
+        WebApiMessageCodecs.OperationRequestCodec codec = new WebApiMessageCodecs.OperationRequestCodec();
+        MultiMap headers = MultiMap.caseInsensitiveMultiMap()
+                .add("Cookie", "a=1")
+                .add("Cookie", "b=2")
+                .add("If-None-Match", "\"\u00e9\"");
+        OperationRequest operationRequest = new OperationRequest(
+                new JsonObject().put("path", new JsonObject().put("id", "a")),
+                headers,
+                null,
+                new JsonObject().put("key", "value")
+        );
+        Buffer buffer = Buffer.buffer("prefix");
+
+        // act
+        codec.encodeToWire(buffer, operationRequest);
+        OperationRequest decoded = codec.decodeFromWire(6, buffer);
+
+        // assert
+        assertEquals(operationRequest.getParams(), decoded.getParams());
+        assertEquals(2, decoded.getHeaders().getAll("cookie").size());
+        assertEquals("\"\u00e9\"", decoded.getHeaders().get("if-none-match"));
+        assertNull(decoded.getUser());
+        assertEquals(operationRequest.getExtra(), decoded.getExtra());
+    }
+
+    @Test
+    public void operationResponseCodecRoundTrip() {
+        // arrange
+        WebApiMessageCodecs.OperationResponseCodec codec = new WebApiMessageCodecs.OperationResponseCodec();
+        byte[] bytes = {0, 1, 2, (byte) 255};
+        OperationResponse operationResponse = new OperationResponse()
+                .setStatusCode(201)
+                .putHeader("ETag", "\"2\"")
+                .setPayload(Buffer.buffer(bytes));
+        Buffer buffer = Buffer.buffer();
+
+        // act
+        codec.encodeToWire(buffer, operationResponse);
+        OperationResponse decoded = codec.decodeFromWire(0, buffer);
+
+        // assert
+        assertEquals(Integer.valueOf(201), decoded.getStatusCode());
+        assertNull(decoded.getStatusMessage());
+        assertEquals("\"2\"", decoded.getHeaders().get("etag"));
+        assertArrayEquals(bytes, decoded.getPayload().getBytes());
+        // status code, status message, headers (1 entry) and payload, each with its length
+        assertEquals(4 + 4 + 4 + 4 + 4 + 4 + 3 + 4 + bytes.length, buffer.length());
+    }
+
+    @Test
+    public void operationResponseCodecWithoutPayload() {
+        // arrange
+        WebApiMessageCodecs.OperationResponseCodec codec = new WebApiMessageCodecs.OperationResponseCodec();
+        OperationResponse operationResponse = new OperationResponse().setStatusCode(204);
+        Buffer buffer = Buffer.buffer();
+
+        // act
+        codec.encodeToWire(buffer, operationResponse);
+        OperationResponse decoded = codec.decodeFromWire(0, buffer);
+
+        // assert
+        assertEquals(Integer.valueOf(204), decoded.getStatusCode());
+        assertNull(decoded.getPayload());
+    }
+
+    @Test
+    public void transformReturnsSameInstance() {
+        // arrange
+        OperationRequest operationRequest = new OperationRequest();
+        OperationResponse operationResponse = new OperationResponse();
+
+        // act / assert
+        assertSame(operationRequest, new WebApiMessageCodecs.OperationRequestCodec().transform(operationRequest));
+        assertSame(operationResponse, new WebApiMessageCodecs.OperationResponseCodec().transform(operationResponse));
+    }
+}